@@ -0,0 +1,202 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper;
+
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options of Sensor.sendAll().  The data is partitioned into Envelopes bounded by item count and by
+ * serialized size, serialized in parallel and sent with at most maxInFlight Envelopes in memory at once.
+ */
+public class BulkOptions {
+    private final int maxEnvelopeItems;
+    private final int maxEnvelopeBytes;
+    private final int parallelism;
+    private final int maxInFlight;
+    private final String dataVersion;
+    private final ForkJoinPool pool;
+
+    /**
+     * Default maximum number of items per Envelope.
+     */
+    public static final int MAX_ENVELOPE_ITEMS = 100;
+
+    /**
+     * Default maximum serialized size (bytes) of the data of an Envelope.  An item larger than the
+     * maximum is sent in an Envelope of its own.
+     */
+    public static final int MAX_ENVELOPE_BYTES = 1024 * 1024;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private BulkOptions(OptionsBuilder builder) {
+        this.maxEnvelopeItems = SensorValidator.chkPositiveIntValue(builder.maxEnvelopeItems, MAX_ENVELOPE_ITEMS);
+        this.maxEnvelopeBytes = SensorValidator.chkPositiveIntValue(builder.maxEnvelopeBytes, MAX_ENVELOPE_BYTES);
+        this.pool = builder.pool;
+        this.parallelism = SensorValidator.chkPositiveIntValue(builder.parallelism,
+            pool != null ? pool.getParallelism() : Runtime.getRuntime().availableProcessors());
+        this.maxInFlight = SensorValidator.chkPositiveIntValue(builder.maxInFlight, 2 * this.parallelism);
+        this.dataVersion = SensorValidator.chkStrValue(builder.dataVersion, Config.DATA_VERSION);
+    }
+
+    /**
+     * Get the maximum number of items per Envelope.
+     * @return max envelope items
+     */
+    public int getMaxEnvelopeItems() {
+        return maxEnvelopeItems;
+    }
+
+    /**
+     * Get the maximum serialized size (bytes) of the data of an Envelope.
+     * @return max envelope bytes
+     */
+    public int getMaxEnvelopeBytes() {
+        return maxEnvelopeBytes;
+    }
+
+    /**
+     * Get the number of worker threads that serialize and send Envelopes.
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Get the maximum number of Envelopes being serialized or sent at once.  The caller is blocked while
+     * the maximum is reached, so that memory use does not grow with the size of the input.
+     * @return max in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Get the data version of the Envelopes.
+     * @return data version
+     */
+    public String getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Get the pool on which Envelopes are serialized and sent.
+     * @return pool or null if a pool is created for each call
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private int maxEnvelopeItems = 0;
+        private int maxEnvelopeBytes = 0;
+        private int parallelism = 0;
+        private int maxInFlight = 0;
+        private String dataVersion;
+        private ForkJoinPool pool;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param maxEnvelopeItems
+         * @return builder
+         */
+        public OptionsBuilder maxEnvelopeItems(final int maxEnvelopeItems) {
+            this.maxEnvelopeItems = maxEnvelopeItems;
+            return this;
+        }
+
+        /**
+         * @param maxEnvelopeBytes
+         * @return builder
+         */
+        public OptionsBuilder maxEnvelopeBytes(final int maxEnvelopeBytes) {
+            this.maxEnvelopeBytes = maxEnvelopeBytes;
+            return this;
+        }
+
+        /**
+         * Number of worker threads of the pool created for each call; ignored if a pool is provided.
+         * @param parallelism
+         * @return builder
+         */
+        public OptionsBuilder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param maxInFlight
+         * @return builder
+         */
+        public OptionsBuilder maxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * @param dataVersion
+         * @return builder
+         */
+        public OptionsBuilder dataVersion(final String dataVersion) {
+            this.dataVersion = dataVersion;
+            return this;
+        }
+
+        /**
+         * Pool shared across calls, e.g., ForkJoinPool.commonPool().  The pool is not shut down.
+         * @param pool
+         * @return builder
+         */
+        public OptionsBuilder pool(final ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public BulkOptions build() {
+            return new BulkOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper;
+
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of Sensor.sendAll().
+ */
+public class BulkResult {
+    private final long envelopes;
+    private final long sent;
+    private final long failed;
+    private final long filtered;
+    private final Throwable firstFailure;
+
+    /**
+     * Constructor
+     * @param envelopes
+     * @param sent
+     * @param failed
+     * @param filtered
+     * @param firstFailure
+     */
+    BulkResult(long envelopes, long sent, long failed, long filtered, Throwable firstFailure) {
+        this.envelopes = envelopes;
+        this.sent = sent;
+        this.failed = failed;
+        this.filtered = filtered;
+        this.firstFailure = firstFailure;
+    }
+
+    /**
+     * Get the number of Envelopes sent or attempted.
+     * @return envelopes
+     */
+    public long getEnvelopes() {
+        return envelopes;
+    }
+
+    /**
+     * Get the number of items sent to every registered Client.
+     * @return sent
+     */
+    public long getSent() {
+        return sent;
+    }
+
+    /**
+     * Get the number of items that could not be serialized or that at least one Client failed to send.
+     * @return failed
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Get the number of items rejected by the Sensor's filter.
+     * @return filtered
+     */
+    public long getFiltered() {
+        return filtered;
+    }
+
+    /**
+     * Get the first failure encountered.
+     * @return failure or null if all items were sent
+     */
+    @Nullable
+    public Throwable getFirstFailure() {
+        return firstFailure;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{envelopes=" + envelopes + ", sent=" + sent + ", failed=" + failed
+            + ", filtered=" + filtered + "}";
+    }
+}
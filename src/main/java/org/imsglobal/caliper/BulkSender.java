@@ -0,0 +1,256 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.imsglobal.caliper.clients.CaliperClient;
+import org.imsglobal.caliper.databind.CaliperObjectMapper;
+import org.imsglobal.caliper.databind.RawJson;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sends a stream of data on behalf of Sensor.sendAll().  The calling thread filters the data and cuts it
+ * into chunks of maxEnvelopeItems; each chunk is serialized to RawJson items on the fork-join pool, split
+ * further if it exceeds maxEnvelopeBytes and sent to the registered Clients from the same worker.  Sends
+ * block on the transport, so they run as ForkJoinPool.managedBlock() calls; the pool adds a spare worker
+ * for each blocked one rather than starving other users, e.g., the ParallelEnvelopeWriter on the common
+ * pool.  A semaphore bounds the chunks in flight, blocking the caller, so memory stays flat however long
+ * the input is.
+ */
+final class BulkSender {
+    private final Sensor sensor;
+    private final Collection<CaliperClient> clients;
+    private final BulkOptions options;
+    private final SendListeners listeners;
+    private final ObjectWriter writer = CaliperObjectMapper.writer();
+    private final Semaphore inFlight;
+    private final AtomicLong envelopes = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private long filtered;
+
+    private static final Logger log = LoggerFactory.getLogger(BulkSender.class);
+
+    /**
+     * Constructor
+     * @param sensor
+     * @param clients
+     * @param options
+     */
+    BulkSender(Sensor sensor, Collection<CaliperClient> clients, BulkOptions options) {
+        this.sensor = sensor;
+        this.clients = clients;
+        this.options = options;
+        this.listeners = sensor.getListeners();
+        this.inFlight = new Semaphore(options.getMaxInFlight());
+    }
+
+    /**
+     * Send the data and wait for every Envelope to be sent.
+     * @param data
+     * @return result
+     */
+    BulkResult send(Iterator<? extends CaliperSendable> data) {
+        ForkJoinPool pool = options.getPool();
+        boolean ownPool = pool == null;
+        if (ownPool) {
+            pool = new ForkJoinPool(options.getParallelism());
+        }
+
+        try {
+            int maxItems = options.getMaxEnvelopeItems();
+            List<CaliperSendable> chunk = new ArrayList<>(maxItems);
+            while (data.hasNext()) {
+                CaliperSendable item = data.next();
+                if (!sensor.accept(item)) {
+                    filtered++;
+                    continue;
+                }
+                chunk.add(item);
+                if (chunk.size() == maxItems) {
+                    submit(pool, chunk);
+                    chunk = new ArrayList<>(maxItems);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(pool, chunk);
+            }
+        } finally {
+            inFlight.acquireUninterruptibly(options.getMaxInFlight());
+            inFlight.release(options.getMaxInFlight());
+            if (ownPool) {
+                pool.shutdown();
+            }
+        }
+
+        return new BulkResult(envelopes.get(), sent.get(), failed.get(), filtered, firstFailure.get());
+    }
+
+    /**
+     * Wait for a slot and hand the chunk to the pool.
+     * @param pool
+     * @param chunk
+     */
+    private void submit(ForkJoinPool pool, final List<CaliperSendable> chunk) {
+        inFlight.acquireUninterruptibly();
+        try {
+            pool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        process(chunk);
+                    } finally {
+                        inFlight.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Serialize the chunk and send it in one or more Envelopes bounded by serialized size.
+     * @param chunk
+     */
+    private void process(List<CaliperSendable> chunk) {
+        int maxBytes = options.getMaxEnvelopeBytes();
+        List<CaliperSendable> data = new ArrayList<>(chunk.size());
+        long bytes = 0;
+        for (CaliperSendable item : chunk) {
+            RawJson raw;
+            try {
+                raw = (item instanceof RawJson) ? (RawJson) item : new RawJson(writer.writeValueAsBytes(item));
+            } catch (JsonProcessingException e) {
+                fail(1, e);
+                listeners.dropped(sensor.getId(), item, DropReason.UNDELIVERABLE);
+                continue;
+            }
+            if (!data.isEmpty() && bytes + raw.length() > maxBytes) {
+                deliver(data);
+                data = new ArrayList<>(chunk.size());
+                bytes = 0;
+            }
+            data.add(raw);
+            bytes += raw.length();
+        }
+        if (!data.isEmpty()) {
+            deliver(data);
+        }
+    }
+
+    /**
+     * Send an Envelope to every registered Client.
+     * @param data
+     */
+    private void deliver(List<CaliperSendable> data) {
+        Envelope envelope = new Envelope(sensor.getId(), DateTime.now(), options.getDataVersion(), data);
+        envelopes.incrementAndGet();
+        listeners.accepted(sensor.getId(), envelope);
+
+        boolean delivered = true;
+        for (CaliperClient client : clients) {
+            try {
+                send(client, envelope);
+            } catch (RuntimeException e) {
+                delivered = false;
+                firstFailure.compareAndSet(null, e);
+                log.warn("Bulk send of " + data.size() + " items to client " + client.getId() + " failed: "
+                    + e.getMessage());
+            }
+        }
+        if (delivered) {
+            sent.addAndGet(data.size());
+        } else {
+            failed.addAndGet(data.size());
+        }
+    }
+
+    /**
+     * Send an Envelope to a Client as a managed blocking call, so the pool can compensate for the worker.
+     * @param client
+     * @param envelope
+     */
+    private static void send(CaliperClient client, Envelope envelope) {
+        Send send = new Send(client, envelope);
+        try {
+            ForkJoinPool.managedBlock(send);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted sending to client " + client.getId(), e);
+        }
+    }
+
+    /**
+     * Record items that could not be serialized.
+     * @param count
+     * @param cause
+     */
+    private void fail(int count, Throwable cause) {
+        failed.addAndGet(count);
+        firstFailure.compareAndSet(null, cause);
+        log.warn("Bulk send failed to serialize an item: " + cause.getMessage());
+    }
+
+    /**
+     * A blocking send to one Client.
+     */
+    private static final class Send implements ForkJoinPool.ManagedBlocker {
+        private final CaliperClient client;
+        private final Envelope envelope;
+        private boolean done;
+
+        private Send(CaliperClient client, Envelope envelope) {
+            this.client = client;
+            this.envelope = envelope;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                client.send(envelope);
+            } finally {
+                done = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
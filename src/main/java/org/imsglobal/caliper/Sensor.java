@@ -21,13 +21,24 @@ package org.imsglobal.caliper;
 import com.google.common.base.Function;
 import com.google.common.collect.Maps;
 import org.imsglobal.caliper.clients.CaliperClient;
+import org.imsglobal.caliper.filters.EventFilter;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.reactive.SensorSubscriber;
+import org.imsglobal.caliper.reactive.SubscriberOptions;
 import org.imsglobal.caliper.statistics.Statistics;
 import org.joda.time.DateTime;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Concrete implementation of the Caliper Sensor interface.  Caliper Events and Entity describes
@@ -38,6 +49,10 @@ import java.util.Map;
 public class Sensor {
     private String id;
     private Map<String, CaliperClient> clients = new HashMap<>();
+    private volatile boolean closed;
+    private volatile EventFilter filter;
+    private final Statistics statistics = new Statistics();
+    private final SendListeners listeners = new SendListeners();
 
     /**
      * Constructor. Scope is private to force use of the static factory method for instantiating a Sensor.
@@ -88,6 +103,32 @@ public class Sensor {
         return clients;
     }
 
+    /**
+     * Get the filter applied to Envelope data before it is handed to the Clients.
+     * @return filter or null if none
+     */
+    public EventFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Set the filter applied to Envelope data before it is handed to the Clients, i.e., before any
+     * serialization cost is paid.  Events dropped by the filter are counted in the Sensor statistics.
+     * @param filter or null to send all data
+     */
+    public void setFilter(EventFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Get the listeners notified when the Sensor accepts an Envelope or filters out its data.  Listeners
+     * of delivery are registered with the Clients.
+     * @return listeners
+     */
+    public SendListeners getListeners() {
+        return listeners;
+    }
+
     /**
      * Create the Envelope.
      * @param id
@@ -101,31 +142,261 @@ public class Sensor {
     }
 
     /**
-     * Delegate serialization and transmission of the Envelope to a particular registered Client.
+     * Delegate serialization and transmission of the Envelope to a particular registered Client.  The
+     * Envelope is sent via the instance registered under the client's id, which may decorate the client.
      * @param envelope
      */
     public void send(CaliperClient client, Envelope envelope) {
+        chkOpen();
+        listeners.accepted(id, envelope);
         if (clients.containsKey(client.getId())) {
-            client.send(envelope);
+            envelope = filter(envelope);
+            if (envelope != null) {
+                clients.get(client.getId()).send(envelope);
+            }
         } else {
             throw new IllegalArgumentException(client.getId() + " is not a registered Client.");
         }
     }
 
     /**
-     * Delegate serialization and transmission of the Envelope to all registered Clients.
+     * Delegate serialization and transmission of the Envelope to all registered Clients.  Every Client is
+     * offered the Envelope even if an earlier one fails; the first failure is then rethrown, with those of
+     * the other Clients added as suppressed exceptions.
      * @param envelope
      */
     public void send(Envelope envelope) {
+        chkOpen();
+        listeners.accepted(id, envelope);
         if (clients.size() > 0) {
-            for(CaliperClient client: clients.values()){
-                client.send(envelope);
+            envelope = filter(envelope);
+            if (envelope == null) {
+                return;
+            }
+            RuntimeException failure = null;
+            for (CaliperClient client: clients.values()) {
+                try {
+                    client.send(envelope);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
             }
         } else {
             throw new IllegalStateException("No Clients have been registered.");
         }
     }
 
+    /**
+     * Apply the filter to the Envelope data.
+     * @param envelope
+     * @return the Envelope, a copy holding the data kept, or null if no data was kept
+     */
+    private Envelope filter(Envelope envelope) {
+        EventFilter filter = this.filter;
+        if (filter == null) {
+            return envelope;
+        }
+
+        List<CaliperSendable> data = envelope.getData();
+        List<CaliperSendable> kept = null;
+        for (int i = 0; i < data.size(); i++) {
+            CaliperSendable item = data.get(i);
+            if (accept(filter, item)) {
+                if (kept != null) {
+                    kept.add(item);
+                }
+            } else {
+                if (kept == null) {
+                    kept = new ArrayList<>(data.subList(0, i));
+                }
+            }
+        }
+
+        if (kept == null) {
+            return envelope;
+        } else if (kept.isEmpty()) {
+            return null;
+        }
+        return new Envelope(envelope.getSensorId(), envelope.getSendTime(), envelope.getDataVersion(), kept);
+    }
+
+    /**
+     * Apply the filter to an item.
+     * @param item
+     * @return true if the item is kept
+     */
+    boolean accept(CaliperSendable item) {
+        EventFilter filter = this.filter;
+        return filter == null || accept(filter, item);
+    }
+
+    /**
+     * Apply a filter to an item, counting and reporting the item if it is rejected.
+     * @param filter
+     * @param item
+     * @return true if the item is kept
+     */
+    private boolean accept(EventFilter filter, CaliperSendable item) {
+        if (filter.accept(item)) {
+            return true;
+        }
+        statistics.updateFiltered(1);
+        listeners.dropped(this.id, item, DropReason.FILTERED);
+        return false;
+    }
+
+    /**
+     * Send a large volume of data, e.g., a backfill of historical events, to all registered Clients.  The
+     * data is partitioned into Envelopes bounded by item count and serialized size; Envelopes are serialized
+     * and sent in parallel on a fork-join pool while the calling thread reads ahead, blocking whenever the
+     * maximum number of Envelopes is in flight.  The call returns once all data has been sent or has failed;
+     * failures are counted in the result rather than thrown.
+     * @param data
+     * @param options
+     * @return result
+     */
+    public BulkResult sendAll(Iterable<? extends CaliperSendable> data, BulkOptions options) {
+        return sendAll(data.iterator(), options);
+    }
+
+    /**
+     * Send a large volume of data to all registered Clients.
+     * @see #sendAll(Iterable, BulkOptions)
+     * @param data
+     * @param options
+     * @return result
+     */
+    public BulkResult sendAll(Stream<? extends CaliperSendable> data, BulkOptions options) {
+        try {
+            return sendAll(data.iterator(), options);
+        } finally {
+            data.close();
+        }
+    }
+
+    /**
+     * Send a large volume of data to all registered Clients.
+     * @param data
+     * @param options
+     * @return result
+     */
+    private BulkResult sendAll(Iterator<? extends CaliperSendable> data, BulkOptions options) {
+        chkOpen();
+        checkArgument(options != null, "Bulk options must be specified.");
+        if (clients.isEmpty()) {
+            throw new IllegalStateException("No Clients have been registered.");
+        }
+        return new BulkSender(this, new ArrayList<>(clients.values()), options).send(data);
+    }
+
+    /**
+     * Create a reactive Subscriber that sends the items it receives through this Sensor, requesting items
+     * only as fast as they are sent.
+     * @param options
+     * @return subscriber
+     */
+    public SensorSubscriber subscriber(SubscriberOptions options) {
+        checkArgument(options != null, "Subscriber options must be specified.");
+        return SensorSubscriber.create(this, options);
+    }
+
+    /**
+     * Prepare for the first events instead of paying the cost on live requests: resolve the serializers
+     * of the model classes and the supported actions of each Event class (once per JVM), load time zone
+     * data and have each registered Client open its connections.  Call after registering Clients, e.g.,
+     * before a node starts taking traffic.
+     */
+    public void warmUp() {
+        SensorWarmUp.warmUpModel();
+        for (CaliperClient client : clients.values()) {
+            client.warmUp();
+        }
+    }
+
+    /**
+     * Wait, up to the timeout, for Envelopes buffered or queued by the registered Clients to be delivered.
+     * The timeout is shared by all Clients.
+     * @param timeout
+     * @param unit
+     * @return true if every Client was flushed before the timeout elapsed
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean flushed = true;
+        for (CaliperClient client : clients.values()) {
+            flushed &= client.flush(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Stop accepting Envelopes, flush the registered Clients and release their resources.  The timeout
+     * is shared by all Clients.  Envelopes sent after the Sensor is closed are rejected.
+     * @param timeout
+     * @param unit
+     * @return true if every Client was flushed before the timeout elapsed
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        closed = true;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean flushed = true;
+        for (CaliperClient client : clients.values()) {
+            flushed &= client.close(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Register a JVM shutdown hook that closes the Sensor, giving buffered Envelopes up to the timeout
+     * to be delivered before the process exits.
+     * @param timeout
+     * @param unit
+     * @return the registered hook, which may be passed to Runtime.removeShutdownHook()
+     */
+    public Thread registerShutdownHook(final long timeout, final TimeUnit unit) {
+        Thread hook = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                close(timeout, unit);
+            }
+        }, "caliper-shutdown-" + id);
+        Runtime.getRuntime().addShutdownHook(hook);
+        return hook;
+    }
+
+    /**
+     * Returns true if the Sensor has been closed.
+     * @return closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Check that the Sensor has not been closed.
+     * @throws IllegalStateException
+     */
+    private void chkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Sensor " + id + " is closed.");
+        }
+    }
+
+    /**
+     * Get the statistics of the Sensor's own processing stages, e.g., the number of events filtered.
+     * @return statistics
+     */
+    public Statistics getSensorStatistics() {
+        return statistics;
+    }
+
     /**
      * Returns a map where the keys are the identifying objects and the values are the corresponding statistics
      * for that key's Client.
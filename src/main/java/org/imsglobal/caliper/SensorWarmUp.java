@@ -0,0 +1,253 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.databind.CaliperObjectMapper;
+import org.imsglobal.caliper.entities.CaliperEntity;
+import org.imsglobal.caliper.entities.Entity;
+import org.imsglobal.caliper.entities.EntityType;
+import org.imsglobal.caliper.entities.agent.Agent;
+import org.imsglobal.caliper.entities.agent.CourseOffering;
+import org.imsglobal.caliper.entities.agent.CourseSection;
+import org.imsglobal.caliper.entities.agent.Group;
+import org.imsglobal.caliper.entities.agent.Membership;
+import org.imsglobal.caliper.entities.agent.Organization;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.agent.Role;
+import org.imsglobal.caliper.entities.agent.SoftwareApplication;
+import org.imsglobal.caliper.entities.agent.Status;
+import org.imsglobal.caliper.entities.annotation.Annotation;
+import org.imsglobal.caliper.entities.annotation.BookmarkAnnotation;
+import org.imsglobal.caliper.entities.annotation.HighlightAnnotation;
+import org.imsglobal.caliper.entities.annotation.SharedAnnotation;
+import org.imsglobal.caliper.entities.annotation.TagAnnotation;
+import org.imsglobal.caliper.entities.outcome.Result;
+import org.imsglobal.caliper.entities.outcome.Score;
+import org.imsglobal.caliper.entities.resource.Assessment;
+import org.imsglobal.caliper.entities.resource.AssessmentItem;
+import org.imsglobal.caliper.entities.resource.AssignableDigitalResource;
+import org.imsglobal.caliper.entities.resource.Attempt;
+import org.imsglobal.caliper.entities.resource.AudioObject;
+import org.imsglobal.caliper.entities.resource.Chapter;
+import org.imsglobal.caliper.entities.resource.DigitalResource;
+import org.imsglobal.caliper.entities.resource.DigitalResourceCollection;
+import org.imsglobal.caliper.entities.resource.Document;
+import org.imsglobal.caliper.entities.resource.Forum;
+import org.imsglobal.caliper.entities.resource.Frame;
+import org.imsglobal.caliper.entities.resource.ImageObject;
+import org.imsglobal.caliper.entities.resource.LearningObjective;
+import org.imsglobal.caliper.entities.resource.MediaLocation;
+import org.imsglobal.caliper.entities.resource.MediaObject;
+import org.imsglobal.caliper.entities.resource.Message;
+import org.imsglobal.caliper.entities.resource.Page;
+import org.imsglobal.caliper.entities.resource.VideoObject;
+import org.imsglobal.caliper.entities.resource.WebPage;
+import org.imsglobal.caliper.entities.response.FillinBlankResponse;
+import org.imsglobal.caliper.entities.response.MultipleChoiceResponse;
+import org.imsglobal.caliper.entities.response.MultipleResponseResponse;
+import org.imsglobal.caliper.entities.response.Response;
+import org.imsglobal.caliper.entities.response.SelectTextResponse;
+import org.imsglobal.caliper.entities.response.TrueFalseResponse;
+import org.imsglobal.caliper.entities.session.LtiSession;
+import org.imsglobal.caliper.entities.session.Session;
+import org.imsglobal.caliper.events.AnnotationEvent;
+import org.imsglobal.caliper.events.AssessmentEvent;
+import org.imsglobal.caliper.events.AssessmentItemEvent;
+import org.imsglobal.caliper.events.AssignableEvent;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.events.Event;
+import org.imsglobal.caliper.events.EventType;
+import org.imsglobal.caliper.events.ForumEvent;
+import org.imsglobal.caliper.events.GradeEvent;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.imsglobal.caliper.events.MessageEvent;
+import org.imsglobal.caliper.events.NavigationEvent;
+import org.imsglobal.caliper.events.SessionEvent;
+import org.imsglobal.caliper.events.SupportedActions;
+import org.imsglobal.caliper.events.ThreadEvent;
+import org.imsglobal.caliper.events.ToolUseEvent;
+import org.imsglobal.caliper.events.ViewEvent;
+import org.imsglobal.caliper.validators.EventValidator;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performs, once per JVM, the work that otherwise happens lazily on the first events: Jackson
+ * introspection of the model classes, the supported actions table of each Event class and the loading
+ * of Joda time zone data.  The model classes are listed by type below rather than discovered on the
+ * class path, so that warm-up works under any class loader; a type without a class of its own, e.g.,
+ * READING, is omitted.
+ */
+final class SensorWarmUp {
+    private static final ImmutableMap<EventType, Class<? extends CaliperEvent>> EVENT_CLASSES;
+    private static final ImmutableMap<EntityType, Class<? extends CaliperEntity>> ENTITY_CLASSES;
+    private static final ImmutableList<Class<? extends Enum<?>>> ENUM_CLASSES = ImmutableList.<Class<? extends Enum<?>>>of(
+        Action.class, EntityType.class, EventType.class, Role.class, Status.class);
+
+    static {
+        Map<EventType, Class<? extends CaliperEvent>> events = new EnumMap<>(EventType.class);
+        events.put(EventType.ANNOTATION, AnnotationEvent.class);
+        events.put(EventType.ASSESSMENT, AssessmentEvent.class);
+        events.put(EventType.ASSESSMENT_ITEM, AssessmentItemEvent.class);
+        events.put(EventType.ASSIGNABLE, AssignableEvent.class);
+        events.put(EventType.EVENT, Event.class);
+        events.put(EventType.FORUM, ForumEvent.class);
+        events.put(EventType.MEDIA, MediaEvent.class);
+        events.put(EventType.MESSAGE, MessageEvent.class);
+        events.put(EventType.NAVIGATION, NavigationEvent.class);
+        events.put(EventType.GRADE, GradeEvent.class);
+        events.put(EventType.SESSION, SessionEvent.class);
+        events.put(EventType.THREAD, ThreadEvent.class);
+        events.put(EventType.TOOL_USE, ToolUseEvent.class);
+        events.put(EventType.VIEW, ViewEvent.class);
+        EVENT_CLASSES = Maps.immutableEnumMap(events);
+
+        Map<EntityType, Class<? extends CaliperEntity>> entities = new EnumMap<>(EntityType.class);
+        entities.put(EntityType.AGENT, Agent.class);
+        entities.put(EntityType.ANNOTATION, Annotation.class);
+        entities.put(EntityType.ASSESSMENT, Assessment.class);
+        entities.put(EntityType.ASSESSMENT_ITEM, AssessmentItem.class);
+        entities.put(EntityType.ASSIGNABLE_DIGITAL_RESOURCE, AssignableDigitalResource.class);
+        entities.put(EntityType.ATTEMPT, Attempt.class);
+        entities.put(EntityType.AUDIO_OBJECT, AudioObject.class);
+        entities.put(EntityType.BOOKMARK_ANNOTATION, BookmarkAnnotation.class);
+        entities.put(EntityType.CHAPTER, Chapter.class);
+        entities.put(EntityType.COURSE_OFFERING, CourseOffering.class);
+        entities.put(EntityType.COURSE_SECTION, CourseSection.class);
+        entities.put(EntityType.DIGITAL_RESOURCE, DigitalResource.class);
+        entities.put(EntityType.DIGITAL_RESOURCE_COLLECTION, DigitalResourceCollection.class);
+        entities.put(EntityType.DOCUMENT, Document.class);
+        entities.put(EntityType.ENTITY, Entity.class);
+        entities.put(EntityType.FILLINBLANK, FillinBlankResponse.class);
+        entities.put(EntityType.FORUM, Forum.class);
+        entities.put(EntityType.FRAME, Frame.class);
+        entities.put(EntityType.GROUP, Group.class);
+        entities.put(EntityType.HIGHLIGHT_ANNOTATION, HighlightAnnotation.class);
+        entities.put(EntityType.IMAGE_OBJECT, ImageObject.class);
+        entities.put(EntityType.LEARNING_OBJECTIVE, LearningObjective.class);
+        entities.put(EntityType.LTI_SESSION, LtiSession.class);
+        entities.put(EntityType.MEDIA_LOCATION, MediaLocation.class);
+        entities.put(EntityType.MEDIA_OBJECT, MediaObject.class);
+        entities.put(EntityType.MEMBERSHIP, Membership.class);
+        entities.put(EntityType.MESSAGE, Message.class);
+        entities.put(EntityType.MULTIPLECHOICE, MultipleChoiceResponse.class);
+        entities.put(EntityType.MULTIPLERESPONSE, MultipleResponseResponse.class);
+        entities.put(EntityType.PAGE, Page.class);
+        entities.put(EntityType.PERSON, Person.class);
+        entities.put(EntityType.ORGANIZATION, Organization.class);
+        entities.put(EntityType.RESPONSE, Response.class);
+        entities.put(EntityType.RESULT, Result.class);
+        entities.put(EntityType.SCORE, Score.class);
+        entities.put(EntityType.SELECTTEXT, SelectTextResponse.class);
+        entities.put(EntityType.SESSION, Session.class);
+        entities.put(EntityType.SHARED_ANNOTATION, SharedAnnotation.class);
+        entities.put(EntityType.SOFTWARE_APPLICATION, SoftwareApplication.class);
+        entities.put(EntityType.TAG_ANNOTATION, TagAnnotation.class);
+        entities.put(EntityType.THREAD, org.imsglobal.caliper.entities.resource.Thread.class);
+        entities.put(EntityType.TRUEFALSE, TrueFalseResponse.class);
+        entities.put(EntityType.VIDEO_OBJECT, VideoObject.class);
+        entities.put(EntityType.WEB_PAGE, WebPage.class);
+        ENTITY_CLASSES = Maps.immutableEnumMap(entities);
+    }
+
+    private static boolean warm;
+
+    private static final Logger log = LoggerFactory.getLogger(SensorWarmUp.class);
+
+    /**
+     * Constructor.  Scope is private; the class exposes static methods only.
+     */
+    private SensorWarmUp() {
+
+    }
+
+    /**
+     * Warm up the model, unless already done.
+     */
+    static synchronized void warmUpModel() {
+        if (warm) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        ImmutableList<Class<?>> classes = modelClasses();
+        for (Class<?> clazz : classes) {
+            if (CaliperEvent.class.isAssignableFrom(clazz) && clazz.isAnnotationPresent(SupportedActions.class)) {
+                EventValidator.supportedActions(clazz.asSubclass(CaliperEvent.class));
+            }
+        }
+        int resolved = CaliperObjectMapper.warmUp(classes);
+
+        // Load time zone data and exercise the writer end to end
+        DateTimeZone.getDefault();
+        try {
+            CaliperObjectMapper.writer().writeValueAsBytes(Person.builder()
+                .id("urn:uuid:00000000-0000-0000-0000-000000000000")
+                .dateCreated(new DateTime(0L, DateTimeZone.UTC))
+                .build());
+        } catch (IOException e) {
+            log.warn("Unable to serialize warm-up entity: " + e.getMessage());
+        }
+
+        warm = true;
+        if (log.isDebugEnabled()) {
+            log.debug("Resolved serializers for " + resolved + " of " + classes.size() + " model classes in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+        }
+    }
+
+    /**
+     * Get the Event class of each event type that has one.
+     * @return event classes by type
+     */
+    static ImmutableMap<EventType, Class<? extends CaliperEvent>> eventClasses() {
+        return EVENT_CLASSES;
+    }
+
+    /**
+     * Get the Entity class of each entity type that has one.
+     * @return entity classes by type
+     */
+    static ImmutableMap<EntityType, Class<? extends CaliperEntity>> entityClasses() {
+        return ENTITY_CLASSES;
+    }
+
+    /**
+     * Get the concrete entity and event classes, and the enums they use.
+     * @return model classes
+     */
+    static ImmutableList<Class<?>> modelClasses() {
+        return ImmutableList.<Class<?>>builder()
+            .addAll(ENUM_CLASSES)
+            .addAll(EVENT_CLASSES.values())
+            .addAll(ENTITY_CLASSES.values())
+            .build();
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.capture;
+
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Options of a CaptureRing.
+ */
+public class CaptureOptions {
+    private final int capacity;
+    private final int consumers;
+    private final int maxBatchSize;
+    private final int idleWait;
+    private final SlotTranslator translator;
+    private final String dataVersion;
+
+    /**
+     * Default number of slots; must be a power of two.
+     */
+    public static final int CAPACITY = 8192;
+
+    /**
+     * Default number of consumer threads.
+     */
+    public static final int CONSUMERS = 1;
+
+    /**
+     * Default maximum number of events per Envelope.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * Default time (ms) an idle consumer waits before polling the ring again.
+     */
+    public static final int IDLE_WAIT = 1;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private CaptureOptions(OptionsBuilder builder) {
+        this.capacity = SensorValidator.chkPositiveIntValue(builder.capacity, CAPACITY);
+        checkArgument(Integer.bitCount(capacity) == 1, "Capacity must be a power of two.");
+        this.consumers = SensorValidator.chkPositiveIntValue(builder.consumers, CONSUMERS);
+        this.maxBatchSize = Math.min(SensorValidator.chkPositiveIntValue(builder.maxBatchSize, MAX_BATCH_SIZE),
+            this.capacity);
+        this.idleWait = SensorValidator.chkPositiveIntValue(builder.idleWait, IDLE_WAIT);
+        this.translator = (builder.translator != null) ? builder.translator : MediaEventTranslator.create();
+        this.dataVersion = SensorValidator.chkStrValue(builder.dataVersion, Config.DATA_VERSION);
+    }
+
+    /**
+     * Get the number of slots.
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of consumer threads.
+     * @return consumers
+     */
+    public int getConsumers() {
+        return consumers;
+    }
+
+    /**
+     * Get the maximum number of events per Envelope.
+     * @return max batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Get the time (ms) an idle consumer waits before polling the ring again.
+     * @return idle wait
+     */
+    public int getIdleWait() {
+        return idleWait;
+    }
+
+    /**
+     * Get the translator that builds events from slots.
+     * @return translator
+     */
+    public SlotTranslator getTranslator() {
+        return translator;
+    }
+
+    /**
+     * Get the data version of the Envelopes.
+     * @return data version
+     */
+    public String getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private int capacity = 0;
+        private int consumers = 0;
+        private int maxBatchSize = 0;
+        private int idleWait = 0;
+        private SlotTranslator translator;
+        private String dataVersion;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param capacity
+         * @return builder
+         */
+        public OptionsBuilder capacity(final int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param consumers
+         * @return builder
+         */
+        public OptionsBuilder consumers(final int consumers) {
+            this.consumers = consumers;
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize
+         * @return builder
+         */
+        public OptionsBuilder maxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param idleWait
+         * @return builder
+         */
+        public OptionsBuilder idleWait(final int idleWait) {
+            this.idleWait = idleWait;
+            return this;
+        }
+
+        /**
+         * @param translator
+         * @return builder
+         */
+        public OptionsBuilder translator(final SlotTranslator translator) {
+            this.translator = translator;
+            return this;
+        }
+
+        /**
+         * @param dataVersion
+         * @return builder
+         */
+        public OptionsBuilder dataVersion(final String dataVersion) {
+            this.dataVersion = dataVersion;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public CaptureOptions build() {
+            return new CaptureOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
@@ -0,0 +1,319 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.capture;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-allocated ring buffer for capturing high-frequency interactions, e.g., reading progress or media
+ * heartbeats, without building an event graph on the hot path.  A single producer thread claims a slot,
+ * fills its primitive and IRI fields and publishes it:
+ *
+ * <pre>
+ * long seq = ring.tryClaim();
+ * if (seq >= 0) {
+ *     ring.slot(seq).action(Action.PAUSED).actorId(actor).objectId(video).eventTime(now).currentTime(pos);
+ *     ring.publish(seq);
+ * }
+ * </pre>
+ *
+ * Capturing neither allocates nor locks: slots are reused, the published sequence is a release store
+ * and the producer re-reads the consumers' progress only when it is about to wrap.  If the ring is full,
+ * tryClaim() fails fast and the interaction is counted as dropped rather than blocking the caller.
+ *
+ * Consumer threads share the published slots, each taking a batch of up to maxBatchSize slots at a
+ * time.  The batch is translated into events, the slots are released and the events are sent through
+ * the Sensor in one Envelope.  flush() waits until the events are sent, not merely until the slots are
+ * released.  Events of different batches may be sent out of order.  The ring supports
+ * a single producer; give each producing thread its own ring.
+ */
+public class CaptureRing {
+    private final Sensor sensor;
+    private final CaptureOptions options;
+    private final CaptureSlot[] slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong next = new AtomicLong(0);
+    private final AtomicLongArray consuming;
+    private final AtomicLongArray sending;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread[] consumers;
+    private long claimed = -1;
+    private long cachedGate = -1;
+    private volatile boolean closed;
+
+    private static final long IDLE = Long.MAX_VALUE;
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureRing.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param sensor
+     * @param options
+     */
+    private CaptureRing(Sensor sensor, CaptureOptions options) {
+        this.sensor = sensor;
+        this.options = options;
+        this.slots = new CaptureSlot[options.getCapacity()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new CaptureSlot();
+        }
+        this.mask = slots.length - 1;
+        this.consuming = new AtomicLongArray(options.getConsumers());
+        this.sending = new AtomicLongArray(options.getConsumers());
+        for (int i = 0; i < options.getConsumers(); i++) {
+            consuming.set(i, IDLE);
+            sending.set(i, IDLE);
+        }
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("caliper-capture-" + sensor.getId() + "-%d")
+            .setDaemon(true)
+            .build();
+        this.consumers = new Thread[options.getConsumers()];
+        for (int i = 0; i < consumers.length; i++) {
+            final int index = i;
+            consumers[i] = threadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    consume(index);
+                }
+            });
+            consumers[i].start();
+        }
+    }
+
+    /**
+     * Get the options.
+     * @return options
+     */
+    public CaptureOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Get the number of interactions dropped because the ring was full.
+     * @return dropped
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Claim the next slot.  Producer thread only.
+     * @return sequence of the claimed slot, or -1 if the ring is full or closed
+     */
+    public long tryClaim() {
+        long sequence = claimed + 1;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedGate) {
+            cachedGate = gate(consuming);
+        }
+        if (wrapPoint > cachedGate || closed) {
+            dropped.lazySet(dropped.get() + 1);
+            return -1;
+        }
+        claimed = sequence;
+        CaptureSlot slot = slots[(int) sequence & mask];
+        slot.reset();
+        return sequence;
+    }
+
+    /**
+     * Get the slot of a claimed sequence.  Producer thread only.
+     * @param sequence
+     * @return slot
+     */
+    public CaptureSlot slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    /**
+     * Publish the claimed slot to the consumers.  Producer thread only.
+     * @param sequence
+     */
+    public void publish(long sequence) {
+        cursor.lazySet(sequence);
+    }
+
+    /**
+     * Wait, up to the timeout, for the published slots to be sent.
+     * @param timeout
+     * @param unit
+     * @return true if every published slot was sent before the timeout elapsed
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long target = cursor.get();
+        while (!isSent(target)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(options.getIdleWait()));
+        }
+        return true;
+    }
+
+    /**
+     * Stop capturing, send the published slots and stop the consumer threads.
+     * @param timeout
+     * @param unit
+     * @return true if every published slot was sent before the timeout elapsed
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        closed = true;
+        boolean flushed = flush(timeout, unit);
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Returns true if every slot up to and including the sequence has been taken and its event sent.
+     * @param sequence
+     * @return true if sent
+     */
+    private boolean isSent(long sequence) {
+        return gate(sending) >= sequence;
+    }
+
+    /**
+     * Get the highest sequence up to which every slot has been taken and is no longer marked by a
+     * consumer: released, if gating on consuming, or sent, if gating on sending.  The shared position is
+     * read before the consumers' batches, each of which is marked before it is taken, so that a batch
+     * taken concurrently is never missed.
+     * @param marks first sequence of each consumer's batch, or IDLE
+     * @return gating sequence
+     */
+    private long gate(AtomicLongArray marks) {
+        long gate = next.get() - 1;
+        for (int i = 0; i < marks.length(); i++) {
+            long start = marks.get(i);
+            if (start != IDLE) {
+                gate = Math.min(gate, start - 1);
+            }
+        }
+        return gate;
+    }
+
+    /**
+     * Consumer loop.
+     * @param index consumer index
+     */
+    private void consume(int index) {
+        long idleWait = TimeUnit.MILLISECONDS.toNanos(options.getIdleWait());
+        while (true) {
+            long lo = next.get();
+            long available = cursor.get();
+            if (lo > available) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.parkNanos(idleWait);
+                continue;
+            }
+
+            long hi = Math.min(available, lo + options.getMaxBatchSize() - 1);
+            sending.set(index, lo);
+            consuming.set(index, lo);
+            if (!next.compareAndSet(lo, hi + 1)) {
+                consuming.set(index, IDLE);
+                sending.set(index, IDLE);
+                continue;
+            }
+
+            List<CaliperSendable> data = new ArrayList<>((int) (hi - lo + 1));
+            try {
+                for (long sequence = lo; sequence <= hi; sequence++) {
+                    CaliperSendable event = translate(slots[(int) sequence & mask]);
+                    if (event != null) {
+                        data.add(event);
+                    }
+                }
+            } finally {
+                consuming.set(index, IDLE);
+            }
+            try {
+                send(data);
+            } finally {
+                sending.set(index, IDLE);
+            }
+        }
+    }
+
+    /**
+     * Translate a slot, logging and skipping slots the translator rejects.
+     * @param slot
+     * @return event or null
+     */
+    private CaliperSendable translate(CaptureSlot slot) {
+        try {
+            return options.getTranslator().translate(slot);
+        } catch (RuntimeException e) {
+            log.warn("Capture slot could not be translated: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Send a batch of events.
+     * @param data
+     */
+    private void send(List<CaliperSendable> data) {
+        if (data.isEmpty()) {
+            return;
+        }
+        try {
+            sensor.send(new Envelope(sensor.getId(), DateTime.now(), options.getDataVersion(), data));
+        } catch (RuntimeException e) {
+            log.warn("Captured events could not be sent: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Factory method that starts the consumer threads.
+     * @param sensor
+     * @param options
+     * @return CaptureRing
+     */
+    public static CaptureRing create(Sensor sensor, CaptureOptions options) {
+        return new CaptureRing(sensor, options);
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.capture;
+
+import org.imsglobal.caliper.actions.Action;
+
+/**
+ * A pre-allocated, reusable slot of a CaptureRing.  The producer fills the slot between
+ * CaptureRing.tryClaim() and CaptureRing.publish(); setters return the slot so that calls can be chained
+ * without allocating.  IRIs are held by reference and should be long-lived instances (e.g., constants or
+ * identifiers interned by the IriPool) so that capturing does not allocate.  A consumer reads the slot
+ * through a SlotTranslator, after which the slot is reused.
+ */
+public final class CaptureSlot {
+    private Action action;
+    private String actorId;
+    private String objectId;
+    private String edAppId;
+    private String sessionId;
+    private long eventTime;
+    private long currentTime;
+
+    /**
+     * Constructor.  Slots are allocated by the CaptureRing.
+     */
+    CaptureSlot() {
+        reset();
+    }
+
+    /**
+     * Clear the fields before the slot is reused.
+     */
+    void reset() {
+        action = null;
+        actorId = null;
+        objectId = null;
+        edAppId = null;
+        sessionId = null;
+        eventTime = 0;
+        currentTime = -1;
+    }
+
+    /**
+     * @param action
+     * @return slot
+     */
+    public CaptureSlot action(Action action) {
+        this.action = action;
+        return this;
+    }
+
+    /**
+     * @param actorId
+     * @return slot
+     */
+    public CaptureSlot actorId(String actorId) {
+        this.actorId = actorId;
+        return this;
+    }
+
+    /**
+     * @param objectId
+     * @return slot
+     */
+    public CaptureSlot objectId(String objectId) {
+        this.objectId = objectId;
+        return this;
+    }
+
+    /**
+     * @param edAppId
+     * @return slot
+     */
+    public CaptureSlot edAppId(String edAppId) {
+        this.edAppId = edAppId;
+        return this;
+    }
+
+    /**
+     * @param sessionId
+     * @return slot
+     */
+    public CaptureSlot sessionId(String sessionId) {
+        this.sessionId = sessionId;
+        return this;
+    }
+
+    /**
+     * @param eventTime epoch milliseconds
+     * @return slot
+     */
+    public CaptureSlot eventTime(long eventTime) {
+        this.eventTime = eventTime;
+        return this;
+    }
+
+    /**
+     * @param currentTime media position (ms)
+     * @return slot
+     */
+    public CaptureSlot currentTime(long currentTime) {
+        this.currentTime = currentTime;
+        return this;
+    }
+
+    /**
+     * @return action
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return actor IRI
+     */
+    public String getActorId() {
+        return actorId;
+    }
+
+    /**
+     * @return object IRI
+     */
+    public String getObjectId() {
+        return objectId;
+    }
+
+    /**
+     * @return edApp IRI or null
+     */
+    public String getEdAppId() {
+        return edAppId;
+    }
+
+    /**
+     * @return session IRI or null
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return event time (epoch milliseconds)
+     */
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    /**
+     * @return media position (ms) or -1 if not captured
+     */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+}
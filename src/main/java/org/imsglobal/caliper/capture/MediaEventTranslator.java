@@ -0,0 +1,93 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.capture;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.context.JsonldStringContext;
+import org.imsglobal.caliper.entities.EntityType;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.agent.SoftwareApplication;
+import org.imsglobal.caliper.entities.resource.MediaLocation;
+import org.imsglobal.caliper.entities.resource.MediaObject;
+import org.imsglobal.caliper.entities.session.Session;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Period;
+
+import java.util.UUID;
+
+/**
+ * Translates captured media interactions, e.g., heartbeats, into MediaEvents.  The object is described
+ * as a VideoObject (or the configured media type) and the captured media position as the target
+ * MediaLocation.  Referenced entities are coerced to their identifiers.
+ */
+public class MediaEventTranslator implements SlotTranslator {
+    private final EntityType objectType;
+
+    /**
+     * Constructor
+     * @param objectType
+     */
+    private MediaEventTranslator(EntityType objectType) {
+        this.objectType = objectType;
+    }
+
+    @Override
+    public CaliperSendable translate(CaptureSlot slot) {
+        MediaEvent.Builder<?> builder = MediaEvent.builder()
+            .context(JsonldStringContext.getDefault())
+            .id("urn:uuid:" + UUID.randomUUID())
+            .actor(Person.builder().id(slot.getActorId()).coercedToId(true).build())
+            .action(slot.getAction())
+            .object(MediaObject.builder().id(slot.getObjectId()).type(objectType).coercedToId(true).build())
+            .eventTime(new DateTime(slot.getEventTime(), DateTimeZone.UTC));
+
+        if (slot.getCurrentTime() >= 0) {
+            builder.target(MediaLocation.builder()
+                .id(slot.getObjectId())
+                .currentTime(Period.millis((int) slot.getCurrentTime()).normalizedStandard().toString())
+                .build());
+        }
+        if (slot.getEdAppId() != null) {
+            builder.edApp(SoftwareApplication.builder().id(slot.getEdAppId()).coercedToId(true).build());
+        }
+        if (slot.getSessionId() != null) {
+            builder.session(Session.builder().id(slot.getSessionId()).coercedToId(true).build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Factory method for video interactions.
+     * @return MediaEventTranslator
+     */
+    public static MediaEventTranslator create() {
+        return new MediaEventTranslator(EntityType.VIDEO_OBJECT);
+    }
+
+    /**
+     * Factory method.
+     * @param objectType media object type, e.g., EntityType.AUDIO_OBJECT
+     * @return MediaEventTranslator
+     */
+    public static MediaEventTranslator create(EntityType objectType) {
+        return new MediaEventTranslator(objectType);
+    }
+}
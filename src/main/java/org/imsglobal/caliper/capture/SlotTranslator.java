@@ -0,0 +1,35 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.capture;
+
+import org.imsglobal.caliper.CaliperSendable;
+
+/**
+ * Builds the Caliper event described by a CaptureSlot.  Invoked on a consumer thread; the slot must not
+ * be retained, since it is reused once the translator returns.
+ */
+public interface SlotTranslator {
+
+    /**
+     * Build the event.
+     * @param slot
+     * @return event, or null to skip the slot
+     */
+    CaliperSendable translate(CaptureSlot slot);
+}
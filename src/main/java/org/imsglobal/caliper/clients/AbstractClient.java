@@ -18,14 +18,10 @@
 
 package org.imsglobal.caliper.clients;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
-import com.fasterxml.jackson.databind.util.ISO8601DateFormat;
-import com.fasterxml.jackson.datatype.joda.JodaModule;
 import org.imsglobal.caliper.Envelope;
-import org.imsglobal.caliper.databind.JxnCoercibleSimpleModule;
+import org.imsglobal.caliper.databind.ParallelEnvelopeWriter;
+import org.imsglobal.caliper.listeners.SendListeners;
 import org.imsglobal.caliper.statistics.Statistics;
 import org.imsglobal.caliper.validators.SensorValidator;
 
@@ -39,18 +35,41 @@ public abstract class AbstractClient implements CaliperClient {
     private String id;
     private HttpClientOptions options;
     private Statistics statistics;
+    private final SendListeners listeners = new SendListeners();
+    private final ParallelEnvelopeWriter writer;
 
     /**
      * Constructor
      * @param id
      */
     protected AbstractClient(String id, HttpClientOptions options) {
+        this(id, options, ParallelEnvelopeWriter.create((options != null)
+            ? options.getParallelSerializationThreshold() : ParallelEnvelopeWriter.THRESHOLD));
+    }
+
+    /**
+     * Constructor for clients that share a writer, e.g., the tenants of a SensorRuntime.
+     * @param id
+     * @param options
+     * @param writer
+     */
+    protected AbstractClient(String id, HttpClientOptions options, ParallelEnvelopeWriter writer) {
         SensorValidator.chkId(id, this.getClass().getSimpleName());
         //SensorValidator.chkOptions(this.getOptions());
 
         this.id = id;
         this.options = options;
         this.statistics = new Statistics();
+        this.writer = writer;
+    }
+
+    /**
+     * Get listeners.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return listeners;
     }
 
     /**
@@ -80,23 +99,14 @@ public abstract class AbstractClient implements CaliperClient {
     }
 
     /**
-     * Serialize Caliper envelope.
+     * Serialize Caliper envelope.  Envelopes holding at least the options' parallel serialization
+     * threshold of items are serialized in parallel.
      * @param envelope
      * @return String
      * @throws JsonProcessingException
      */
     protected String serializeEnvelope(Envelope envelope) throws JsonProcessingException {
-        // Create mapper and serialize the envelope
-        SimpleFilterProvider provider = new SimpleFilterProvider()
-            .setFailOnUnknownId(true);
-
-        ObjectMapper mapper = new ObjectMapper()
-            .setDateFormat(new ISO8601DateFormat())
-            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
-            .setFilterProvider(provider)
-            .registerModules(new JodaModule(), new JxnCoercibleSimpleModule());
-
-        return mapper.writeValueAsString(envelope);
+        return writer.writeValueAsString(envelope);
     }
 
     /**
@@ -0,0 +1,140 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.statistics.Statistics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes batch size and linger using additive-increase/multiplicative-decrease.  Delivery latencies are
+ * collected in windows; after each full window the p99 latency is compared with the target latency and
+ * with the p99 of the previous window, if any.  A healthy window grows both parameters by a fixed step while an
+ * overloaded endpoint (413, 429, 5xx, or a p99 above target, or above half the target and rising sharply)
+ * halves them.  The half-target floor keeps jitter in very fast deliveries from being read as a trend.
+ */
+class AdaptiveBatchController {
+    private final BatchingOptions options;
+    private final Statistics statistics;
+    private final long targetLatencyNanos;
+    private final int batchSizeStep;
+    private final int lingerStep;
+
+    private final long[] latencies;
+    private int recorded;
+    private long previousP99;
+
+    private volatile int batchSize;
+    private volatile int linger;
+
+    /**
+     * Constructor
+     * @param options
+     * @param statistics
+     */
+    AdaptiveBatchController(BatchingOptions options, Statistics statistics) {
+        this.options = options;
+        this.statistics = statistics;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(options.getTargetLatency());
+        this.batchSizeStep = Math.max(1, options.getMaxBatchSize() / 20);
+        this.lingerStep = Math.max(1, options.getMaxLinger() / 20);
+        this.latencies = new long[options.getLatencyWindowSize()];
+
+        update(options.getInitialBatchSize(), options.getInitialLinger());
+    }
+
+    /**
+     * @return current batch size
+     */
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return current linger (ms)
+     */
+    int getLinger() {
+        return linger;
+    }
+
+    /**
+     * Record the latency of a successful delivery.
+     * @param latencyNanos
+     */
+    synchronized void onDelivered(long latencyNanos) {
+        latencies[recorded++] = latencyNanos;
+        if (recorded < latencies.length) {
+            return;
+        }
+
+        long p99 = percentile(99);
+        recorded = 0;
+
+        boolean rising = previousP99 > 0 && p99 > previousP99 + previousP99 / 2;
+        if (p99 > targetLatencyNanos || (p99 > targetLatencyNanos / 2 && rising)) {
+            decrease();
+        } else {
+            update(Math.min(options.getMaxBatchSize(), batchSize + batchSizeStep),
+                Math.min(options.getMaxLinger(), linger + lingerStep));
+        }
+        previousP99 = p99;
+    }
+
+    /**
+     * Record a delivery rejected because the endpoint is overloaded or the request too large.
+     */
+    synchronized void onOverloaded() {
+        recorded = 0;
+        decrease();
+    }
+
+    /**
+     * Multiplicative decrease.
+     */
+    private void decrease() {
+        update(Math.max(options.getMinBatchSize(), batchSize / 2), Math.max(options.getMinLinger(), linger / 2));
+    }
+
+    /**
+     * Publish new parameters.
+     * @param newBatchSize
+     * @param newLinger
+     */
+    private void update(int newBatchSize, int newLinger) {
+        if (newBatchSize != batchSize || newLinger != linger) {
+            batchSize = newBatchSize;
+            linger = newLinger;
+            statistics.updateBatchSize(newBatchSize);
+            statistics.updateBatchLinger(newLinger);
+        }
+    }
+
+    /**
+     * Compute a percentile of the recorded latencies.
+     * @param percentile
+     * @return latency (ns)
+     */
+    private long percentile(int percentile) {
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, rank)];
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+/**
+ * Strategies for balancing requests across the hosts of an HttpClient.
+ */
+public enum BalancingStrategy {
+    /**
+     * Cycle through the healthy hosts in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Choose the healthy host with the fewest requests in flight.
+     */
+    LEAST_OUTSTANDING_REQUESTS,
+
+    /**
+     * Map the actor of the first event in the Envelope onto a hash ring, so that a learner's events
+     * keep reaching the same host while it is healthy.
+     */
+    CONSISTENT_HASH
+}
@@ -0,0 +1,645 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.databind.CaliperObjectMapper;
+import org.imsglobal.caliper.databind.RawJson;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decorates a Client with adaptive batching.  The data of each Envelope passed to send() is buffered and
+ * delivered to the delegate in batches on a background thread; a batch is sent as soon as it reaches the
+ * current batch size or once its oldest entry has waited for the current linger.  Both parameters are
+ * tuned by an AdaptiveBatchController from the latency and status codes observed at the endpoint and are
+ * published as live values in the delegate's Statistics.  A batch rejected as too large (413) is split in
+ * half and re-sent rather than failed.
+ *
+ * Optionally, data is serialized as it is enqueued into an off-heap ByteArena, so that only small
+ * descriptors rather than full object graphs are retained on the heap while a batch lingers; buffered
+ * data is then bounded in bytes.  Batches are assembled from the pre-serialized data as RawJson items
+ * that retain their PartitionKeys, so a downstream PartitionedClient or HttpClient still assigns them by
+ * actor or session.  Decorators that inspect events, e.g., CoalescingClient or PriorityClient, must
+ * therefore be placed upstream of a BatchingClient that serializes on enqueue.
+ * If a MemoryBudget is configured, the size of every buffered item (exact if serialized on enqueue,
+ * otherwise estimated) is reserved against it until the item is taken into a batch, and Envelopes that
+ * do not fit are rejected.
+ *
+ * Because delivery is asynchronous, failures are logged and recorded in Statistics rather than thrown to
+ * the caller of send().
+ */
+public class BatchingClient implements CaliperClient {
+    private final CaliperClient delegate;
+    private final AdaptiveBatchController controller;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ByteArena arena;
+    private final ObjectWriter writer;
+    private final MemoryBudget budget;
+
+    private final Object lock = new Object();
+    private final Map<String, PendingBatch> pending = new LinkedHashMap<>();
+    private int pendingCount;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingClient.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param delegate
+     * @param options
+     */
+    private BatchingClient(CaliperClient delegate, BatchingOptions options) {
+        this.delegate = delegate;
+        this.controller = new AdaptiveBatchController(options, delegate.getStatistics());
+        this.arena = options.isSerializeOnEnqueue()
+            ? new ByteArena(options.getArenaSegmentSize(), options.getMaxBufferedBytes()) : null;
+        this.writer = CaliperObjectMapper.writer();
+        this.budget = options.getMemoryBudget();
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+            .setNameFormat("caliper-batch-" + delegate.getId() + "-%d")
+            .setDaemon(true)
+            .build());
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduleTick(controller.getLinger());
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return delegate.getId();
+    }
+
+    /**
+     * Retrieve options
+     * @return options
+     */
+    public CaliperClientOptions getOptions() {
+        return delegate.getOptions();
+    }
+
+    /**
+     * Get statistics.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    /**
+     * Get listeners, shared with the delegate.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return delegate.getListeners();
+    }
+
+    /**
+     * Get the current batch size.
+     * @return batch size
+     */
+    public int getBatchSize() {
+        return controller.getBatchSize();
+    }
+
+    /**
+     * Get the current linger (ms).
+     * @return linger
+     */
+    public int getLinger() {
+        return controller.getLinger();
+    }
+
+    /**
+     * Get the size (bytes) of serialized data buffered off-heap.
+     * @return buffered bytes or 0 if data is not serialized on enqueue
+     */
+    public long getBufferedBytes() {
+        return arena != null ? arena.getUsedBytes() : 0;
+    }
+
+    /**
+     * Buffer the Envelope data for batched delivery.
+     * @param envelope
+     * @throws BufferFullException if the arena is full or the memory budget is exhausted
+     */
+    @Override
+    public void send(Envelope envelope) {
+        List<byte[]> serialized = (arena != null) ? serialize(envelope) : null;
+        if (serialized != null && !getListeners().isEmpty()) {
+            long bytes = 0;
+            for (byte[] item : serialized) {
+                bytes += item.length;
+            }
+            getListeners().serialized(getId(), envelope, bytes);
+        }
+        long[] sizes = (budget != null) ? sizeOf(envelope, serialized) : null;
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("BatchingClient " + getId() + " is closed.");
+            }
+
+            long reserved = 0;
+            List<CaliperSendable> data;
+            try {
+                reserved = reserve(sizes);
+                data = (serialized != null) ? store(envelope.getData(), serialized)
+                    : account(envelope.getData(), sizes);
+            } catch (BufferFullException e) {
+                if (budget != null) {
+                    budget.release(reserved);
+                }
+                getListeners().dropped(getId(), envelope, DropReason.BUFFER_FULL);
+                throw e;
+            }
+
+            String key = envelope.getSensorId() + "\n" + envelope.getDataVersion();
+            PendingBatch batch = pending.get(key);
+            if (batch == null) {
+                batch = new PendingBatch(envelope.getSensorId(), envelope.getDataVersion());
+                pending.put(key, batch);
+            }
+            batch.add(data, System.nanoTime());
+            pendingCount += data.size();
+            getListeners().enqueued(getId(), envelope);
+
+            if (pendingCount >= controller.getBatchSize()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * Serialize the Envelope data, one item at a time.
+     * @param envelope
+     * @return serialized items
+     */
+    private List<byte[]> serialize(Envelope envelope) {
+        List<byte[]> serialized = new ArrayList<>(envelope.getData().size());
+        try {
+            for (CaliperSendable item : envelope.getData()) {
+                serialized.add(writer.writeValueAsBytes(item));
+            }
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("WARN: Envelope serialization failed; " + e.getMessage(), e);
+        }
+        return serialized;
+    }
+
+    /**
+     * Measure each item of the Envelope for the memory budget.
+     * @param envelope
+     * @param serialized
+     * @return sizes (bytes)
+     */
+    private long[] sizeOf(Envelope envelope, List<byte[]> serialized) {
+        List<CaliperSendable> data = envelope.getData();
+        long[] sizes = new long[data.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = (serialized != null) ? serialized.get(i).length : budget.sizeOf(data.get(i));
+        }
+        return sizes;
+    }
+
+    /**
+     * Reserve the size of the items against the memory budget, if any.  If the budget is exhausted, a
+     * drain is scheduled and the Envelope is rejected.  Called with the lock held.
+     * @param sizes
+     * @return bytes reserved
+     */
+    private long reserve(long[] sizes) {
+        if (sizes == null) {
+            return 0;
+        }
+        long total = 0;
+        for (long size : sizes) {
+            total += size;
+        }
+        if (!budget.tryReserve(total)) {
+            scheduleDrain();
+
+            throw new BufferFullException("Memory budget exhausted; client " + getId() + " cannot buffer "
+                + total + " bytes (" + budget.getUsedBytes() + " of " + budget.getMaxBytes() + " bytes used).");
+        }
+        return total;
+    }
+
+    /**
+     * Wrap items held on the heap with their reserved size, if a memory budget is configured.
+     * @param data
+     * @param sizes
+     * @return items to buffer
+     */
+    private static List<CaliperSendable> account(List<CaliperSendable> data, long[] sizes) {
+        if (sizes == null) {
+            return data;
+        }
+        List<CaliperSendable> accounted = new ArrayList<>(data.size());
+        for (int i = 0; i < sizes.length; i++) {
+            accounted.add(new Buffered(data.get(i), sizes[i]));
+        }
+        return accounted;
+    }
+
+    /**
+     * Copy serialized items into the arena.  If the arena fills up, the items already copied are freed,
+     * a drain is scheduled and the Envelope is rejected.  Called with the lock held.
+     * @param items
+     * @param serialized
+     * @return descriptors of the stored items
+     */
+    private List<CaliperSendable> store(List<CaliperSendable> items, List<byte[]> serialized) {
+        List<CaliperSendable> data = new ArrayList<>(serialized.size());
+        for (int i = 0; i < serialized.size(); i++) {
+            ByteArena.Record record = arena.write(serialized.get(i));
+            if (record == null) {
+                for (CaliperSendable item : data) {
+                    arena.free(((Buffered) item).record);
+                }
+                scheduleDrain();
+                throw new BufferFullException("Arena of client " + getId() + " is full ("
+                    + arena.getAllocatedBytes() + " bytes).");
+            }
+            data.add(new Buffered(record, keysOf(items.get(i))));
+        }
+        return data;
+    }
+
+    /**
+     * @param item
+     * @return partition keys of the item, indexed by PartitionKey ordinal
+     */
+    private static String[] keysOf(CaliperSendable item) {
+        String[] keys = new String[PartitionKey.values().length];
+        for (PartitionKey key : PartitionKey.values()) {
+            keys[key.ordinal()] = key.keyOf(item);
+        }
+        return keys;
+    }
+
+    /**
+     * Schedule delivery of full batches unless already scheduled.  Called with the lock held.
+     */
+    private void scheduleDrain() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    drain(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Open the delegate's connections ahead of the first Envelope.
+     */
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+    }
+
+    /**
+     * Deliver all buffered data and wait, up to the timeout, for delivery to complete.
+     * @param timeout
+     * @param unit
+     * @return true if all buffered data was delivered before the timeout elapsed
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    drain(true);
+                }
+            }).get(timeout, unit);
+            return delegate.flush(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Flush failed for client " + getId(), e.getCause());
+        } catch (RejectedExecutionException | TimeoutException e) {
+            log.warn("Flush of client " + getId() + " did not complete", e);
+        }
+        return false;
+    }
+
+    /**
+     * Stop accepting Envelopes, deliver buffered data, stop the batching thread and close the delegate.
+     * @param timeout
+     * @param unit
+     * @return true if all buffered data was delivered before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        synchronized (lock) {
+            if (closed) {
+                return pendingCount == 0;
+            }
+            closed = true;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean flushed = flush(timeout, unit);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return delegate.close(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS) && flushed;
+    }
+
+    /**
+     * Periodic check for batches that have lingered long enough.
+     * @param delay
+     */
+    private void scheduleTick(long delay) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                long remaining = lingerRemaining();
+                if (remaining <= 0) {
+                    drain(false);
+                    remaining = controller.getLinger();
+                }
+                scheduleTick(remaining);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return ms until the oldest entry of any batch has lingered for the current linger
+     */
+    private long lingerRemaining() {
+        synchronized (lock) {
+            long now = System.nanoTime();
+            long remaining = controller.getLinger();
+            for (PendingBatch batch : pending.values()) {
+                remaining = Math.min(remaining, batch.lingerRemaining(now, controller.getLinger()));
+            }
+            return remaining;
+        }
+    }
+
+    /**
+     * Take full batches (or, if all is true, everything, and otherwise everything of each batch whose
+     * oldest entry has lingered long enough) from the buffer and deliver them.  Runs on the executor thread only, so batches are delivered in order.
+     * @param all
+     */
+    private void drain(boolean all) {
+        List<Envelope> batches = new ArrayList<>();
+        synchronized (lock) {
+            flushScheduled = false;
+            long now = System.nanoTime();
+            int batchSize = controller.getBatchSize();
+
+            Iterator<PendingBatch> it = pending.values().iterator();
+            while (it.hasNext()) {
+                PendingBatch batch = it.next();
+                boolean expired = batch.lingerRemaining(now, controller.getLinger()) <= 0;
+                int from = 0;
+                while (batch.data.size() - from >= batchSize
+                    || ((all || expired) && from < batch.data.size())) {
+                    int to = Math.min(batch.data.size(), from + batchSize);
+                    batches.add(batch.toEnvelope(from, to, arena, budget));
+                    from = to;
+                }
+                batch.remove(from);
+                pendingCount -= from;
+                if (batch.data.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+
+        for (Envelope envelope : batches) {
+            getListeners().batched(getId(), envelope);
+            deliver(envelope);
+        }
+    }
+
+    /**
+     * Deliver a batch, halving it if the endpoint rejects it as too large.
+     * @param envelope
+     */
+    private void deliver(Envelope envelope) {
+        long start = System.nanoTime();
+        try {
+            delegate.send(envelope);
+            controller.onDelivered(System.nanoTime() - start);
+        } catch (CaliperClientException e) {
+            if (e.getStatusCode() == 413 || e.isEndpointFailure()) {
+                controller.onOverloaded();
+            }
+
+            List<CaliperSendable> data = envelope.getData();
+            if (e.getStatusCode() == 413 && data.size() > 1) {
+                getStatistics().updateBatchSplit(1);
+                int half = data.size() / 2;
+                deliver(new Envelope(envelope.getSensorId(), envelope.getSendTime(), envelope.getDataVersion(),
+                    new ArrayList<>(data.subList(0, half))));
+                deliver(new Envelope(envelope.getSensorId(), envelope.getSendTime(), envelope.getDataVersion(),
+                    new ArrayList<>(data.subList(half, data.size()))));
+            } else {
+                log.warn("Batch of " + data.size() + " items could not be delivered by client " + getId(), e);
+                getListeners().dropped(getId(), envelope, DropReason.UNDELIVERABLE);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Batch of " + envelope.getData().size() + " items could not be delivered by client "
+                + getId(), e);
+            getListeners().dropped(getId(), envelope, DropReason.UNDELIVERABLE);
+        }
+    }
+
+    /**
+     * Data buffered for a given sensor and data version, with the time each Envelope's data was enqueued
+     * so that the batch lingers from its own oldest entry.
+     */
+    private static class PendingBatch {
+        private final String sensorId;
+        private final String dataVersion;
+        private final List<CaliperSendable> data = new ArrayList<>();
+        private final ArrayDeque<long[]> arrivals = new ArrayDeque<>();
+
+        private PendingBatch(String sensorId, String dataVersion) {
+            this.sensorId = sensorId;
+            this.dataVersion = dataVersion;
+        }
+
+        /**
+         * Append the data of an Envelope.
+         * @param items
+         * @param enqueuedAt (ns)
+         */
+        private void add(List<CaliperSendable> items, long enqueuedAt) {
+            if (!items.isEmpty()) {
+                data.addAll(items);
+                arrivals.addLast(new long[] {items.size(), enqueuedAt});
+            }
+        }
+
+        /**
+         * Remove the oldest entries.
+         * @param count
+         */
+        private void remove(int count) {
+            data.subList(0, count).clear();
+            while (count > 0) {
+                long[] arrival = arrivals.peekFirst();
+                int taken = (int) Math.min(count, arrival[0]);
+                arrival[0] -= taken;
+                count -= taken;
+                if (arrival[0] == 0) {
+                    arrivals.pollFirst();
+                }
+            }
+        }
+
+        /**
+         * @param now (ns)
+         * @param linger (ms)
+         * @return ms until the oldest entry has lingered for the linger
+         */
+        private long lingerRemaining(long now, int linger) {
+            long[] oldest = arrivals.peekFirst();
+            if (oldest == null) {
+                return linger;
+            }
+            return linger - TimeUnit.NANOSECONDS.toMillis(now - oldest[1]);
+        }
+
+        /**
+         * Take data into an Envelope.  Items buffered in the arena are copied out as RawJson and freed;
+         * their reserved size is released from the memory budget.
+         * @param from
+         * @param to
+         * @param arena
+         * @param budget
+         * @return envelope
+         */
+        private Envelope toEnvelope(int from, int to, ByteArena arena, MemoryBudget budget) {
+            List<CaliperSendable> items = new ArrayList<>(data.subList(from, to));
+            if (arena != null || budget != null) {
+                long released = 0;
+                for (int i = 0; i < items.size(); i++) {
+                    Buffered buffered = (Buffered) items.get(i);
+                    if (buffered.record != null) {
+                        items.set(i, new KeyedJson(arena.read(buffered.record), buffered.keys));
+                        arena.free(buffered.record);
+                    } else {
+                        items.set(i, buffered.item);
+                    }
+                    released += buffered.size;
+                }
+                if (budget != null) {
+                    budget.release(released);
+                }
+            }
+            return new Envelope(sensorId, DateTime.now(), dataVersion, items);
+        }
+    }
+
+    /**
+     * Descriptor of a buffered item: either serialized into the arena, together with its partition keys,
+     * or held on the heap with the size reserved for it against the memory budget.
+     */
+    private static class Buffered implements CaliperSendable {
+        private final ByteArena.Record record;
+        private final String[] keys;
+        private final CaliperSendable item;
+        private final long size;
+
+        private Buffered(ByteArena.Record record, String[] keys) {
+            this.record = record;
+            this.keys = keys;
+            this.item = null;
+            this.size = record.length();
+        }
+
+        private Buffered(CaliperSendable item, long size) {
+            this.record = null;
+            this.keys = null;
+            this.item = item;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Item copied out of the arena, exposing the partition keys of the event or entity it was serialized
+     * from.
+     */
+    private static class KeyedJson extends RawJson implements PartitionKey.Keyed {
+        private final String[] keys;
+
+        private KeyedJson(byte[] utf8, String[] keys) {
+            super(utf8);
+            this.keys = keys;
+        }
+
+        @Override
+        public String keyOf(PartitionKey key) {
+            return keys[key.ordinal()];
+        }
+    }
+
+    /**
+     * Factory method for instantiating a BatchingClient.
+     * @param delegate
+     * @param options
+     * @return BatchingClient
+     */
+    public static BatchingClient create(CaliperClient delegate, BatchingOptions options) {
+        return new BatchingClient(delegate, options);
+    }
+}
@@ -0,0 +1,340 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Adaptive batching options.  The batch size and linger start at their initial values and are tuned
+ * between the configured bounds according to the latency and error rate observed at the endpoint.
+ */
+public class BatchingOptions {
+    private final int initialBatchSize;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int initialLinger;
+    private final int minLinger;
+    private final int maxLinger;
+    private final int targetLatency;
+    private final int latencyWindowSize;
+    private final boolean serializeOnEnqueue;
+    private final int arenaSegmentSize;
+    private final int maxBufferedBytes;
+    private final MemoryBudget memoryBudget;
+
+    /**
+     * Default batch size bounds (number of Caliper entities or events per Envelope).
+     */
+    public static final int INITIAL_BATCH_SIZE = 10;
+    public static final int MIN_BATCH_SIZE = 1;
+    public static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * Default linger bounds (ms), the time a partially filled batch waits for more data.
+     */
+    public static final int INITIAL_LINGER = 50;
+    public static final int MIN_LINGER = 5;
+    public static final int MAX_LINGER = 1000;
+
+    /**
+     * Default p99 latency (ms) above which batches are shrunk.
+     */
+    public static final int TARGET_LATENCY = 1000;
+
+    /**
+     * Default number of deliveries over which p99 latency is computed.
+     */
+    public static final int LATENCY_WINDOW_SIZE = 20;
+
+    /**
+     * Default off-heap arena settings (bytes) used when data is serialized on enqueue.
+     */
+    public static final int ARENA_SEGMENT_SIZE = 64 * 1024;
+    public static final int MAX_BUFFERED_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private BatchingOptions(OptionsBuilder builder) {
+        this.minBatchSize = SensorValidator.chkPositiveIntValue(builder.minBatchSize, MIN_BATCH_SIZE);
+        this.maxBatchSize = SensorValidator.chkPositiveIntValue(builder.maxBatchSize, Math.max(MAX_BATCH_SIZE, minBatchSize));
+        this.initialBatchSize = clamp(SensorValidator.chkPositiveIntValue(builder.initialBatchSize, INITIAL_BATCH_SIZE),
+            minBatchSize, maxBatchSize);
+        this.minLinger = SensorValidator.chkPositiveIntValue(builder.minLinger, MIN_LINGER);
+        this.maxLinger = SensorValidator.chkPositiveIntValue(builder.maxLinger, Math.max(MAX_LINGER, minLinger));
+        this.initialLinger = clamp(SensorValidator.chkPositiveIntValue(builder.initialLinger, INITIAL_LINGER), minLinger, maxLinger);
+        this.targetLatency = SensorValidator.chkPositiveIntValue(builder.targetLatency, TARGET_LATENCY);
+        this.latencyWindowSize = SensorValidator.chkPositiveIntValue(builder.latencyWindowSize, LATENCY_WINDOW_SIZE);
+        this.serializeOnEnqueue = builder.serializeOnEnqueue;
+        this.arenaSegmentSize = SensorValidator.chkPositiveIntValue(builder.arenaSegmentSize, ARENA_SEGMENT_SIZE);
+        this.maxBufferedBytes = SensorValidator.chkPositiveIntValue(builder.maxBufferedBytes,
+            Math.max(MAX_BUFFERED_BYTES, arenaSegmentSize));
+        this.memoryBudget = builder.memoryBudget;
+
+        checkArgument(minBatchSize <= maxBatchSize, "minBatchSize must not exceed maxBatchSize.");
+        checkArgument(minLinger <= maxLinger, "minLinger must not exceed maxLinger.");
+        checkArgument(arenaSegmentSize <= maxBufferedBytes, "arenaSegmentSize must not exceed maxBufferedBytes.");
+    }
+
+    /**
+     * @param value
+     * @param min
+     * @param max
+     * @return value bounded by min and max
+     */
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * @return initial batch size
+     */
+    public int getInitialBatchSize() {
+        return initialBatchSize;
+    }
+
+    /**
+     * @return minimum batch size
+     */
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    /**
+     * @return maximum batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return initial linger (ms)
+     */
+    public int getInitialLinger() {
+        return initialLinger;
+    }
+
+    /**
+     * @return minimum linger (ms)
+     */
+    public int getMinLinger() {
+        return minLinger;
+    }
+
+    /**
+     * @return maximum linger (ms)
+     */
+    public int getMaxLinger() {
+        return maxLinger;
+    }
+
+    /**
+     * @return target p99 latency (ms)
+     */
+    public int getTargetLatency() {
+        return targetLatency;
+    }
+
+    /**
+     * @return number of deliveries over which p99 latency is computed
+     */
+    public int getLatencyWindowSize() {
+        return latencyWindowSize;
+    }
+
+    /**
+     * @return true if data is serialized into an off-heap arena as it is enqueued
+     */
+    public boolean isSerializeOnEnqueue() {
+        return serializeOnEnqueue;
+    }
+
+    /**
+     * @return size (bytes) of each arena segment
+     */
+    public int getArenaSegmentSize() {
+        return arenaSegmentSize;
+    }
+
+    /**
+     * @return maximum size (bytes) of serialized data buffered in the arena
+     */
+    public int getMaxBufferedBytes() {
+        return maxBufferedBytes;
+    }
+
+    /**
+     * @return budget against which buffered data is accounted or null if unaccounted
+     */
+    public MemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private int initialBatchSize = 0;
+        private int minBatchSize = 0;
+        private int maxBatchSize = 0;
+        private int initialLinger = 0;
+        private int minLinger = 0;
+        private int maxLinger = 0;
+        private int targetLatency = 0;
+        private int latencyWindowSize = 0;
+        private boolean serializeOnEnqueue = false;
+        private int arenaSegmentSize = 0;
+        private int maxBufferedBytes = 0;
+        private MemoryBudget memoryBudget = null;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param initialBatchSize
+         * @return builder
+         */
+        public OptionsBuilder initialBatchSize(final int initialBatchSize) {
+            this.initialBatchSize = initialBatchSize;
+            return this;
+        }
+
+        /**
+         * @param minBatchSize
+         * @return builder
+         */
+        public OptionsBuilder minBatchSize(final int minBatchSize) {
+            this.minBatchSize = minBatchSize;
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize
+         * @return builder
+         */
+        public OptionsBuilder maxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param initialLinger
+         * @return builder
+         */
+        public OptionsBuilder initialLinger(final int initialLinger) {
+            this.initialLinger = initialLinger;
+            return this;
+        }
+
+        /**
+         * @param minLinger
+         * @return builder
+         */
+        public OptionsBuilder minLinger(final int minLinger) {
+            this.minLinger = minLinger;
+            return this;
+        }
+
+        /**
+         * @param maxLinger
+         * @return builder
+         */
+        public OptionsBuilder maxLinger(final int maxLinger) {
+            this.maxLinger = maxLinger;
+            return this;
+        }
+
+        /**
+         * @param targetLatency
+         * @return builder
+         */
+        public OptionsBuilder targetLatency(final int targetLatency) {
+            this.targetLatency = targetLatency;
+            return this;
+        }
+
+        /**
+         * @param latencyWindowSize
+         * @return builder
+         */
+        public OptionsBuilder latencyWindowSize(final int latencyWindowSize) {
+            this.latencyWindowSize = latencyWindowSize;
+            return this;
+        }
+
+        /**
+         * @param serializeOnEnqueue
+         * @return builder
+         */
+        public OptionsBuilder serializeOnEnqueue(final boolean serializeOnEnqueue) {
+            this.serializeOnEnqueue = serializeOnEnqueue;
+            return this;
+        }
+
+        /**
+         * @param arenaSegmentSize
+         * @return builder
+         */
+        public OptionsBuilder arenaSegmentSize(final int arenaSegmentSize) {
+            this.arenaSegmentSize = arenaSegmentSize;
+            return this;
+        }
+
+        /**
+         * @param maxBufferedBytes
+         * @return builder
+         */
+        public OptionsBuilder maxBufferedBytes(final int maxBufferedBytes) {
+            this.maxBufferedBytes = maxBufferedBytes;
+            return this;
+        }
+
+        /**
+         * @param memoryBudget
+         * @return builder
+         */
+        public OptionsBuilder memoryBudget(final MemoryBudget memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public BatchingOptions build() {
+            return new BatchingOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
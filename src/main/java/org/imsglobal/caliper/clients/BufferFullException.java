@@ -0,0 +1,45 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+/**
+ * Thrown when an Envelope cannot be buffered because doing so would exceed a memory budget.  The
+ * condition is local to the sender, so it is not treated as an endpoint failure.
+ */
+public class BufferFullException extends CaliperClientException {
+
+    private static final long serialVersionUID = 2270968357051829420L;
+
+    /**
+     * Constructor
+     * @param message
+     */
+    public BufferFullException(String message) {
+        super(message, 0);
+    }
+
+    /**
+     * Returns false; the endpoint is not at fault.
+     * @return false
+     */
+    @Override
+    public boolean isEndpointFailure() {
+        return false;
+    }
+}
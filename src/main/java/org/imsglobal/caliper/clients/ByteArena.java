@@ -0,0 +1,193 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An off-heap arena holding serialized data while it is buffered.  Records are appended to the current
+ * direct-memory segment; a segment is recycled once every record written to it has been freed.  A
+ * record larger than a segment is given a dedicated segment that is released when it is freed.  The
+ * heap holds only small Record descriptors.
+ *
+ * The arena never holds more than maxBytes of segments, recycled segments included.
+ */
+public class ByteArena {
+    private final int segmentSize;
+    private final long maxBytes;
+    private final ArrayDeque<Segment> free = new ArrayDeque<>();
+    private Segment current;
+    private long allocatedBytes;
+    private long usedBytes;
+
+    /**
+     * Constructor
+     * @param segmentSize size (bytes) of each pooled segment
+     * @param maxBytes maximum size (bytes) of all segments
+     */
+    public ByteArena(int segmentSize, long maxBytes) {
+        checkArgument(segmentSize > 0, "Segment size must be positive.");
+        checkArgument(maxBytes >= segmentSize, "Arena size must be at least one segment.");
+
+        this.segmentSize = segmentSize;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Copy the bytes into the arena.
+     * @param bytes
+     * @return record or null if the arena is full
+     */
+    public synchronized Record write(byte[] bytes) {
+        Segment segment;
+        if (bytes.length > segmentSize) {
+            if (allocatedBytes + bytes.length > maxBytes) {
+                return null;
+            }
+            segment = new Segment(bytes.length, false);
+        } else {
+            if (current == null || current.buffer.remaining() < bytes.length) {
+                Segment next = free.poll();
+                if (next == null) {
+                    if (allocatedBytes + segmentSize > maxBytes) {
+                        return null;
+                    }
+                    next = new Segment(segmentSize, true);
+                }
+                retire(current);
+                current = next;
+            }
+            segment = current;
+        }
+
+        int offset = segment.buffer.position();
+        segment.buffer.put(bytes);
+        segment.live++;
+        usedBytes += bytes.length;
+        return new Record(segment, offset, bytes.length);
+    }
+
+    /**
+     * Copy a record's bytes onto the heap.
+     * @param record
+     * @return bytes
+     */
+    public synchronized byte[] read(Record record) {
+        byte[] bytes = new byte[record.length];
+        ByteBuffer view = record.segment.buffer.duplicate();
+        view.position(record.offset);
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Release a record's bytes.  A record must be freed exactly once.
+     * @param record
+     */
+    public synchronized void free(Record record) {
+        Segment segment = record.segment;
+        usedBytes -= record.length;
+        if (--segment.live == 0 && segment != current) {
+            recycle(segment);
+        }
+    }
+
+    /**
+     * Get the size (bytes) of all segments, recycled segments included.
+     * @return allocated bytes
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Get the size (bytes) of the records not yet freed.
+     * @return used bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Get the maximum size (bytes) of all segments.
+     * @return max bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Stop appending to a segment, recycling it if it holds no live records.
+     * @param segment
+     */
+    private void retire(Segment segment) {
+        if (segment != null && segment.live == 0) {
+            recycle(segment);
+        }
+    }
+
+    private void recycle(Segment segment) {
+        if (segment.pooled) {
+            segment.buffer.clear();
+            free.add(segment);
+        } else {
+            allocatedBytes -= segment.buffer.capacity();
+        }
+    }
+
+    /**
+     * A direct-memory segment and the number of live records it holds.
+     */
+    private class Segment {
+        private final ByteBuffer buffer;
+        private final boolean pooled;
+        private int live;
+
+        private Segment(int size, boolean pooled) {
+            this.buffer = ByteBuffer.allocateDirect(size);
+            this.pooled = pooled;
+            allocatedBytes += size;
+        }
+    }
+
+    /**
+     * Descriptor of a range of bytes in the arena.
+     */
+    public static final class Record {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Record(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * @return number of bytes
+         */
+        public int length() {
+            return length;
+        }
+    }
+}
@@ -19,8 +19,11 @@
 package org.imsglobal.caliper.clients;
 
 import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.listeners.SendListeners;
 import org.imsglobal.caliper.statistics.Statistics;
 
+import java.util.concurrent.TimeUnit;
+
 public interface CaliperClient {
 
     /**
@@ -41,9 +44,49 @@ public interface CaliperClient {
      */
     Statistics getStatistics();
 
+    /**
+     * Get the listeners invoked along the send path.  Clients that report no callbacks return
+     * SendListeners.NONE, which does not accept registrations.
+     * @return listeners
+     */
+    default SendListeners getListeners() {
+        return SendListeners.NONE;
+    }
+
     /**
      * Send an envelope to target endpoint(s).
      * @param envelope
      */
     void send(Envelope envelope);
+
+    /**
+     * Prepare for the first Envelope, e.g., by opening connections and completing TLS handshakes to the
+     * target endpoint(s), so that the cost is not paid on a live request.  Failures are logged, not
+     * thrown.  Clients with nothing to prepare do nothing.
+     */
+    default void warmUp() {
+
+    }
+
+    /**
+     * Deliver any buffered data and wait, up to the timeout, for delivery to complete.  Clients that
+     * deliver synchronously have nothing to flush.
+     * @param timeout
+     * @param unit
+     * @return true if all buffered data was delivered before the timeout elapsed
+     */
+    default boolean flush(long timeout, TimeUnit unit) {
+        return true;
+    }
+
+    /**
+     * Stop accepting Envelopes, flush buffered data and release connections and threads.  Envelopes
+     * sent after close() are rejected with an IllegalStateException.
+     * @param timeout
+     * @param unit
+     * @return true if all buffered data was delivered before the timeout elapsed
+     */
+    default boolean close(long timeout, TimeUnit unit) {
+        return flush(timeout, unit);
+    }
 }
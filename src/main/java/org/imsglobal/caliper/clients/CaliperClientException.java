@@ -0,0 +1,69 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+/**
+ * Thrown by a Client when an Envelope could not be delivered to its target endpoint.  The status code
+ * returned by the endpoint, if any, is retained so that callers can distinguish transport failures
+ * (status code 0) from rejected requests.  Failures local to the sender, such as a SerializationException
+ * or a BufferFullException, are not endpoint failures.
+ */
+public class CaliperClientException extends RuntimeException {
+
+    private static final long serialVersionUID = -3141858262957718409L;
+
+    private final int statusCode;
+
+    /**
+     * Constructor
+     * @param message
+     * @param statusCode
+     */
+    public CaliperClientException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Constructor
+     * @param message
+     * @param cause
+     */
+    public CaliperClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+
+    /**
+     * Get the status code returned by the endpoint.
+     * @return status code or 0 if no response was received.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns true if the failure indicates a problem with the endpoint rather than with the request,
+     * i.e., a transport failure, a request timeout, a throttled request or a server error.
+     * @return true if the endpoint is unhealthy
+     */
+    public boolean isEndpointFailure() {
+        return statusCode == 0 || statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+}
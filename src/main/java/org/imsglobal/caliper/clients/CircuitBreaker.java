@@ -0,0 +1,206 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.statistics.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker.  While CLOSED the outcome of the last N calls is recorded in a ring
+ * buffer; once the failure rate or the slow call rate reaches its threshold the circuit OPENS and all
+ * calls are rejected until the wait duration elapses.  The circuit then moves to HALF_OPEN and permits
+ * a limited number of probe calls whose outcome decides whether it closes again or re-opens.
+ * State transitions are recorded in the supplied Statistics.
+ */
+public class CircuitBreaker {
+    private final CircuitBreakerOptions options;
+    private final Statistics statistics;
+    private final long slowCallDurationNanos;
+    private final long waitDurationNanos;
+
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+    private int index;
+    private int recorded;
+    private int failureCount;
+    private int slowCallCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesPermitted;
+    private int probesCompleted;
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * Circuit states.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Constructor
+     * @param options
+     * @param statistics
+     */
+    public CircuitBreaker(CircuitBreakerOptions options, Statistics statistics) {
+        this.options = options;
+        this.statistics = statistics;
+        this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(options.getSlowCallDuration());
+        this.waitDurationNanos = TimeUnit.MILLISECONDS.toNanos(options.getWaitDurationInOpenState());
+        this.failures = new boolean[options.getSlidingWindowSize()];
+        this.slowCalls = new boolean[options.getSlidingWindowSize()];
+    }
+
+    /**
+     * Get the current state.  An OPEN circuit whose wait duration has elapsed is reported as HALF_OPEN.
+     * @return state
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= waitDurationNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    /**
+     * Acquire permission to make a call.  Callers that are granted permission must report the outcome by
+     * invoking exactly one of onSuccess(), onError() or onIgnored().
+     * @return true if the call is permitted
+     */
+    public synchronized boolean tryAcquirePermission() {
+        switch (getState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probesPermitted < options.getPermittedCallsInHalfOpenState()) {
+                    probesPermitted++;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Record a successful call.
+     * @param durationNanos
+     */
+    public synchronized void onSuccess(long durationNanos) {
+        record(false, durationNanos > slowCallDurationNanos);
+    }
+
+    /**
+     * Record a failed call.
+     * @param durationNanos
+     */
+    public synchronized void onError(long durationNanos) {
+        record(true, durationNanos > slowCallDurationNanos);
+    }
+
+    /**
+     * Release the permission of a call whose outcome says nothing about the health of the endpoint.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesPermitted > 0) {
+            probesPermitted--;
+        }
+    }
+
+    /**
+     * Record call outcome and evaluate the thresholds.
+     * @param failure
+     * @param slow
+     */
+    private void record(boolean failure, boolean slow) {
+        if (state == State.OPEN) {
+            // Outcome of a call permitted before the circuit opened
+            return;
+        }
+
+        if (recorded == failures.length) {
+            if (failures[index]) failureCount--;
+            if (slowCalls[index]) slowCallCount--;
+        } else {
+            recorded++;
+        }
+
+        failures[index] = failure;
+        slowCalls[index] = slow;
+        if (failure) failureCount++;
+        if (slow) slowCallCount++;
+        index = (index + 1) % failures.length;
+
+        if (state == State.HALF_OPEN) {
+            if (++probesCompleted < options.getPermittedCallsInHalfOpenState()) {
+                return;
+            }
+            transitionTo(isAboveThresholds(recorded) ? State.OPEN : State.CLOSED);
+        } else if (recorded >= options.getMinimumNumberOfCalls() && isAboveThresholds(recorded)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Check rates against the configured thresholds.
+     * @param calls
+     * @return true if either threshold is reached
+     */
+    private boolean isAboveThresholds(int calls) {
+        return failureCount * 100 >= options.getFailureRateThreshold() * calls
+            || slowCallCount * 100 >= options.getSlowCallRateThreshold() * calls;
+    }
+
+    /**
+     * Transition to a new state, resetting the recorded calls.
+     * @param newState
+     */
+    private void transitionTo(State newState) {
+        if (log.isDebugEnabled()) {
+            log.debug("Circuit state transition from " + state + " to " + newState);
+        }
+
+        state = newState;
+        index = 0;
+        recorded = 0;
+        failureCount = 0;
+        slowCallCount = 0;
+        probesPermitted = 0;
+        probesCompleted = 0;
+
+        switch (newState) {
+            case OPEN:
+                openedAt = System.nanoTime();
+                statistics.updateCircuitOpened(1);
+                break;
+            case HALF_OPEN:
+                statistics.updateCircuitHalfOpened(1);
+                break;
+            default:
+                statistics.updateCircuitClosed(1);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a Client with a circuit breaker.  While the circuit is open, Envelopes are not sent to the
+ * delegate; they are handed to the fallback Client (e.g., an alternate endpoint or a local spool) or, if
+ * no fallback is provided, dropped.  The decorator shares the delegate's identifier and Statistics so
+ * that it can be registered with a Sensor in place of the delegate.
+ */
+public class CircuitBreakerClient implements CaliperClient {
+    private final CaliperClient delegate;
+    private final CaliperClient fallback;
+    private final CircuitBreaker circuitBreaker;
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreakerClient.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param delegate
+     * @param options
+     * @param fallback
+     */
+    private CircuitBreakerClient(CaliperClient delegate, CircuitBreakerOptions options, CaliperClient fallback) {
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.circuitBreaker = new CircuitBreaker(options, delegate.getStatistics());
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return delegate.getId();
+    }
+
+    /**
+     * Retrieve options
+     * @return options
+     */
+    public CaliperClientOptions getOptions() {
+        return delegate.getOptions();
+    }
+
+    /**
+     * Get statistics.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    /**
+     * Get listeners, shared with the delegate.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return delegate.getListeners();
+    }
+
+    /**
+     * Get the decorated client.
+     * @return delegate
+     */
+    @Nonnull
+    public CaliperClient getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Get the fallback client.
+     * @return fallback or null if Envelopes are dropped while the circuit is open
+     */
+    @Nullable
+    public CaliperClient getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Get the circuit state.
+     * @return state
+     */
+    @Nonnull
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Send the Envelope to the delegate if the circuit permits, otherwise to the fallback.
+     * @param envelope
+     */
+    @Override
+    public void send(Envelope envelope) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            getStatistics().updateRejected(1);
+            sendFallback(envelope);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean recorded = false;
+        try {
+            delegate.send(envelope);
+            recorded = true;
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+        } catch (CaliperClientException e) {
+            recorded = true;
+            if (e.isEndpointFailure()) {
+                circuitBreaker.onError(System.nanoTime() - start);
+            } else {
+                circuitBreaker.onIgnored();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            recorded = true;
+            circuitBreaker.onError(System.nanoTime() - start);
+            throw e;
+        } finally {
+            if (!recorded) {
+                // An Error says nothing about the endpoint, but a half-open probe permit must not leak
+                circuitBreaker.onIgnored();
+            }
+        }
+    }
+
+    /**
+     * Open the connections of the delegate and the fallback ahead of the first Envelope.
+     */
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+        if (fallback != null) {
+            fallback.warmUp();
+        }
+    }
+
+    /**
+     * Flush the delegate and the fallback.
+     * @param timeout
+     * @param unit
+     * @return true if both were flushed before the timeout elapsed
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean flushed = delegate.flush(timeout, unit);
+        if (fallback != null) {
+            flushed &= fallback.flush(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Close the delegate and the fallback.
+     * @param timeout
+     * @param unit
+     * @return true if both were flushed before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean flushed = delegate.close(timeout, unit);
+        if (fallback != null) {
+            flushed &= fallback.close(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Hand the Envelope to the fallback client or drop it.
+     * @param envelope
+     */
+    private void sendFallback(Envelope envelope) {
+        if (fallback != null) {
+            getStatistics().updateFallback(1);
+            fallback.send(envelope);
+        } else {
+            getListeners().dropped(getId(), envelope, DropReason.CIRCUIT_OPEN);
+            if (log.isDebugEnabled()) {
+                log.debug("Circuit open for client " + getId() + "; envelope dropped.");
+            }
+        }
+    }
+
+    /**
+     * Factory method that drops Envelopes while the circuit is open.
+     * @param delegate
+     * @param options
+     * @return CircuitBreakerClient
+     */
+    public static CircuitBreakerClient create(CaliperClient delegate, CircuitBreakerOptions options) {
+        return new CircuitBreakerClient(delegate, options, null);
+    }
+
+    /**
+     * Factory method that routes Envelopes to a fallback Client while the circuit is open.
+     * @param delegate
+     * @param options
+     * @param fallback
+     * @return CircuitBreakerClient
+     */
+    public static CircuitBreakerClient create(CaliperClient delegate, CircuitBreakerOptions options,
+                                              CaliperClient fallback) {
+        return new CircuitBreakerClient(delegate, options, fallback);
+    }
+}
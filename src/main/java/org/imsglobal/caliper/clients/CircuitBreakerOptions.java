@@ -0,0 +1,243 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.validators.SensorValidator;
+
+/**
+ * Circuit breaker options.  Review default constants and adjust thresholds to suit the target endpoint.
+ */
+public class CircuitBreakerOptions {
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final int slowCallDuration;
+    private final int slidingWindowSize;
+    private final int minimumNumberOfCalls;
+    private final int waitDurationInOpenState;
+    private final int permittedCallsInHalfOpenState;
+
+    /**
+     * Default thresholds expressed as a percentage of the calls recorded in the sliding window.
+     */
+    public static final int FAILURE_RATE_THRESHOLD = 50;
+    public static final int SLOW_CALL_RATE_THRESHOLD = 100;
+
+    /**
+     * Default duration (ms) above which a call is considered slow.
+     */
+    public static final int SLOW_CALL_DURATION = 5000;
+
+    /**
+     * Default number of calls recorded and the minimum required before rates are calculated.
+     */
+    public static final int SLIDING_WINDOW_SIZE = 100;
+    public static final int MINIMUM_NUMBER_OF_CALLS = 10;
+
+    /**
+     * Default duration (ms) the circuit stays open before probe requests are permitted.
+     */
+    public static final int WAIT_DURATION_IN_OPEN_STATE = 30000;
+
+    /**
+     * Default number of probe requests permitted while the circuit is half-open.
+     */
+    public static final int PERMITTED_CALLS_IN_HALF_OPEN_STATE = 5;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private CircuitBreakerOptions(OptionsBuilder builder) {
+        this.failureRateThreshold = chkPercentage(builder.failureRateThreshold, FAILURE_RATE_THRESHOLD);
+        this.slowCallRateThreshold = chkPercentage(builder.slowCallRateThreshold, SLOW_CALL_RATE_THRESHOLD);
+        this.slowCallDuration = SensorValidator.chkPositiveIntValue(builder.slowCallDuration, SLOW_CALL_DURATION);
+        this.slidingWindowSize = SensorValidator.chkPositiveIntValue(builder.slidingWindowSize, SLIDING_WINDOW_SIZE);
+        this.minimumNumberOfCalls = Math.min(SensorValidator.chkPositiveIntValue(builder.minimumNumberOfCalls,
+            MINIMUM_NUMBER_OF_CALLS), this.slidingWindowSize);
+        this.waitDurationInOpenState = SensorValidator.chkPositiveIntValue(builder.waitDurationInOpenState, WAIT_DURATION_IN_OPEN_STATE);
+        this.permittedCallsInHalfOpenState = SensorValidator.chkPositiveIntValue(builder.permittedCallsInHalfOpenState,
+            PERMITTED_CALLS_IN_HALF_OPEN_STATE);
+    }
+
+    /**
+     * Check percentage.
+     * @param builderValue
+     * @param defaultValue
+     * @return percentage
+     */
+    private static int chkPercentage(int builderValue, int defaultValue) {
+        SensorValidator.chkPercentage(builderValue);
+        return SensorValidator.chkPositiveIntValue(builderValue, defaultValue);
+    }
+
+    /**
+     * Get the failure rate (%) at or above which the circuit opens.
+     * @return failure rate threshold
+     */
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * Get the slow call rate (%) at or above which the circuit opens.
+     * @return slow call rate threshold
+     */
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * Get the duration (ms) above which a call is considered slow.
+     * @return slow call duration
+     */
+    public int getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * Get the number of calls recorded while the circuit is closed.
+     * @return sliding window size
+     */
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    /**
+     * Get the minimum number of recorded calls required before failure and slow call rates are calculated.
+     * @return minimum number of calls
+     */
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    /**
+     * Get the duration (ms) the circuit remains open before transitioning to half-open.
+     * @return wait duration
+     */
+    public int getWaitDurationInOpenState() {
+        return waitDurationInOpenState;
+    }
+
+    /**
+     * Get the number of probe requests permitted while the circuit is half-open.
+     * @return permitted calls
+     */
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private int failureRateThreshold = 0;
+        private int slowCallRateThreshold = 0;
+        private int slowCallDuration = 0;
+        private int slidingWindowSize = 0;
+        private int minimumNumberOfCalls = 0;
+        private int waitDurationInOpenState = 0;
+        private int permittedCallsInHalfOpenState = 0;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param failureRateThreshold
+         * @return builder
+         */
+        public OptionsBuilder failureRateThreshold(final int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * @param slowCallRateThreshold
+         * @return builder
+         */
+        public OptionsBuilder slowCallRateThreshold(final int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * @param slowCallDuration
+         * @return builder
+         */
+        public OptionsBuilder slowCallDuration(final int slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * @param slidingWindowSize
+         * @return builder
+         */
+        public OptionsBuilder slidingWindowSize(final int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+            return this;
+        }
+
+        /**
+         * @param minimumNumberOfCalls
+         * @return builder
+         */
+        public OptionsBuilder minimumNumberOfCalls(final int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+            return this;
+        }
+
+        /**
+         * @param waitDurationInOpenState
+         * @return builder
+         */
+        public OptionsBuilder waitDurationInOpenState(final int waitDurationInOpenState) {
+            this.waitDurationInOpenState = waitDurationInOpenState;
+            return this;
+        }
+
+        /**
+         * @param permittedCallsInHalfOpenState
+         * @return builder
+         */
+        public OptionsBuilder permittedCallsInHalfOpenState(final int permittedCallsInHalfOpenState) {
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public CircuitBreakerOptions build() {
+            return new CircuitBreakerOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
@@ -0,0 +1,411 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.actions.CaliperAction;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorates a Client with a stage that collapses bursts of high-frequency MediaEvents (e.g., volume
+ * changes and seeks) into a single event.  Matching events are held for a short window per actor,
+ * media object and action; each new event replaces the one held, so the event sent carries the final
+ * state (e.g., the last volume or seek position) together with a "coalescedCount" extension recording
+ * how many events it represents.
+ *
+ * Any other MediaEvent for the same actor and media object (e.g., Started, Paused or Ended) first
+ * releases the events held for them, so ordering is preserved relative to such events.  Other data
+ * passes straight through to the delegate.  The decorator shares the delegate's identifier and
+ * Statistics.
+ *
+ * Envelopes are queued for the delegate in order while the lock is held and sent after it is released,
+ * one at a time, by whichever thread finds the queue idle.  A slow delegate therefore delays other
+ * callers' Envelopes but never blocks holding or releasing events.
+ */
+public class CoalescingClient implements CaliperClient {
+    private final CaliperClient delegate;
+    private final CoalescingOptions options;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, Stream> streams = new LinkedHashMap<>();
+    private final ArrayDeque<Envelope> pending = new ArrayDeque<>();
+    private boolean draining;
+    private boolean closed;
+
+    /**
+     * Extension added to a coalesced event recording the number of events it represents.
+     */
+    public static final String COALESCED_COUNT_EXTENSION = "coalescedCount";
+
+    private static final Logger log = LoggerFactory.getLogger(CoalescingClient.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param delegate
+     * @param options
+     */
+    private CoalescingClient(CaliperClient delegate, CoalescingOptions options) {
+        this.delegate = delegate;
+        this.options = options;
+        this.executor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+            .setNameFormat("caliper-coalesce-" + delegate.getId() + "-%d")
+            .setDaemon(true)
+            .build());
+
+        long period = Math.max(10, options.getWindow() / 4);
+        this.executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                releaseExpired();
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return delegate.getId();
+    }
+
+    /**
+     * Retrieve options
+     * @return options
+     */
+    public CaliperClientOptions getOptions() {
+        return delegate.getOptions();
+    }
+
+    /**
+     * Get statistics.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    /**
+     * Get listeners, shared with the delegate.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return delegate.getListeners();
+    }
+
+    /**
+     * Hold coalescable events and send the remaining data, preceded by any events it releases.
+     * @param envelope
+     */
+    @Override
+    public void send(Envelope envelope) {
+        Envelope remaining = null;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("CoalescingClient " + getId() + " is closed.");
+            }
+
+            List<CaliperSendable> data = new ArrayList<>(envelope.getData().size());
+            for (CaliperSendable item : envelope.getData()) {
+                if (!(item instanceof MediaEvent)) {
+                    data.add(item);
+                    continue;
+                }
+
+                MediaEvent event = (MediaEvent) item;
+                String streamKey = streamKeyOf(event);
+                if (event.getAction() != null && options.getActions().contains(event.getAction())) {
+                    Stream stream = streams.get(streamKey);
+                    if (stream == null) {
+                        stream = new Stream(envelope.getSensorId(), envelope.getDataVersion());
+                        streams.put(streamKey, stream);
+                    }
+                    stream.hold(event);
+                } else {
+                    Stream stream = streams.remove(streamKey);
+                    if (stream != null) {
+                        stream.release(data);
+                    }
+                    data.add(event);
+                }
+            }
+
+            if (!data.isEmpty()) {
+                remaining = data.size() == envelope.getData().size() ? envelope
+                    : new Envelope(envelope.getSensorId(), envelope.getSendTime(), envelope.getDataVersion(), data);
+                pending.add(remaining);
+            }
+        }
+        drain(remaining);
+    }
+
+    /**
+     * Open the delegate's connections ahead of the first Envelope.
+     */
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+    }
+
+    /**
+     * Send all held events, then flush the delegate.
+     * @param timeout
+     * @param unit
+     * @return true if the delegate was flushed before the timeout elapsed
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        releaseAll();
+        drain(null);
+        if (!awaitDrained(deadline)) {
+            return false;
+        }
+        return delegate.flush(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop accepting Envelopes, send all held events and close the delegate.
+     * @param timeout
+     * @param unit
+     * @return true if the delegate was flushed before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        synchronized (lock) {
+            closed = true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        executor.shutdown();
+        releaseAll();
+        drain(null);
+        boolean drained = awaitDrained(deadline);
+        return delegate.close(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS) && drained;
+    }
+
+    /**
+     * Send the events of streams whose window has elapsed.  Streams are kept in the order they were
+     * opened, so the scan stops at the first stream still within its window.  Runs on the executor.
+     */
+    private void releaseExpired() {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            Iterator<Stream> it = streams.values().iterator();
+            while (it.hasNext()) {
+                Stream stream = it.next();
+                if (now - stream.openedAt < TimeUnit.MILLISECONDS.toNanos(options.getWindow())) {
+                    break;
+                }
+                it.remove();
+                release(stream);
+            }
+        }
+        drain(null);
+    }
+
+    /**
+     * Send the events of all streams.
+     */
+    private void releaseAll() {
+        synchronized (lock) {
+            for (Stream stream : streams.values()) {
+                release(stream);
+            }
+            streams.clear();
+        }
+    }
+
+    /**
+     * Queue the events of a released stream.  Called with the lock held, so that released events are not
+     * overtaken by events queued subsequently.
+     * @param stream
+     */
+    private void release(Stream stream) {
+        List<CaliperSendable> data = new ArrayList<>();
+        stream.release(data);
+        pending.add(new Envelope(stream.sensorId, DateTime.now(), stream.dataVersion, data));
+    }
+
+    /**
+     * Send queued Envelopes to the delegate, outside the lock, until the queue is empty.  Only one thread
+     * sends at a time, so Envelopes reach the delegate in the order they were queued; a thread that finds
+     * another one sending leaves its Envelopes to it.  A failure to send the caller's own Envelope is
+     * rethrown once the queue is drained; other Envelopes that fail are reported dropped.
+     * @param own the Envelope queued by the caller, if any
+     */
+    private void drain(Envelope own) {
+        RuntimeException failure = null;
+        while (true) {
+            Envelope next;
+            synchronized (lock) {
+                if (draining || pending.isEmpty()) {
+                    break;
+                }
+                next = pending.poll();
+                draining = true;
+            }
+            try {
+                delegate.send(next);
+            } catch (RuntimeException e) {
+                if (next == own) {
+                    failure = e;
+                } else {
+                    log.warn("Envelope could not be delivered by client " + getId(), e);
+                    getListeners().dropped(getId(), next, DropReason.UNDELIVERABLE);
+                }
+            } finally {
+                synchronized (lock) {
+                    draining = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Wait until Envelopes queued by other threads have been sent to the delegate.
+     * @param deadline in System.nanoTime() terms
+     * @return true if the queue was drained before the deadline
+     */
+    private boolean awaitDrained(long deadline) {
+        synchronized (lock) {
+            while (draining || !pending.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @param event
+     * @return key identifying the actor and media object of the event
+     */
+    private static String streamKeyOf(MediaEvent event) {
+        String actor = event.getActor() != null ? event.getActor().getId() : null;
+        String object = event.getObject() != null ? event.getObject().getId() : null;
+        return actor + "\n" + object;
+    }
+
+    /**
+     * Copy the event, adding the coalesced count extension.
+     * @param event
+     * @param count
+     * @return coalesced event
+     */
+    static MediaEvent coalesce(MediaEvent event, int count) {
+        Map<String, Object> extensions = new HashMap<>();
+        if (event.getExtensions() != null) {
+            extensions.putAll(event.getExtensions());
+        }
+        extensions.put(COALESCED_COUNT_EXTENSION, count);
+
+        return MediaEvent.builder()
+            .context(event.getContext())
+            .id(event.getId())
+            .actor(event.getActor())
+            .action(event.getAction())
+            .object(event.getObject())
+            .eventTime(event.getEventTime())
+            .target(event.getTarget())
+            .generated(event.getGenerated())
+            .referrer(event.getReferrer())
+            .edApp(event.getEdApp())
+            .group(event.getGroup())
+            .membership(event.getMembership())
+            .session(event.getSession())
+            .federatedSession(event.getFederatedSession())
+            .extensions(extensions)
+            .build();
+    }
+
+    /**
+     * The events held for an actor and media object, one per action, in the order first held.
+     */
+    private class Stream {
+        private final String sensorId;
+        private final String dataVersion;
+        private final long openedAt = System.nanoTime();
+        private final LinkedHashMap<CaliperAction, MediaEvent> latest = new LinkedHashMap<>();
+        private final Map<CaliperAction, Integer> counts = new HashMap<>();
+
+        private Stream(String sensorId, String dataVersion) {
+            this.sensorId = sensorId;
+            this.dataVersion = dataVersion;
+        }
+
+        private void hold(MediaEvent event) {
+            if (latest.put(event.getAction(), event) != null) {
+                getStatistics().updateCoalesced(1);
+            }
+            Integer count = counts.get(event.getAction());
+            counts.put(event.getAction(), count == null ? 1 : count + 1);
+        }
+
+        private void release(List<CaliperSendable> data) {
+            for (Map.Entry<CaliperAction, MediaEvent> entry : latest.entrySet()) {
+                int count = counts.get(entry.getKey());
+                data.add(count > 1 ? coalesce(entry.getValue(), count) : entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Factory method.
+     * @param delegate
+     * @param options
+     * @return CoalescingClient
+     */
+    public static CoalescingClient create(CaliperClient delegate, CoalescingOptions options) {
+        return new CoalescingClient(delegate, options);
+    }
+}
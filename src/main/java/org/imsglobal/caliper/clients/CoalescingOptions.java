@@ -0,0 +1,127 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.collect.ImmutableSet;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.actions.CaliperAction;
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import java.util.Set;
+
+/**
+ * MediaEvent coalescing options.  Review the default window and coalesced actions against the
+ * granularity required by downstream analytics.
+ */
+public class CoalescingOptions {
+    private final int window;
+    private final ImmutableSet<CaliperAction> actions;
+
+    /**
+     * Default time (ms) a burst of events is held before the coalesced event is sent.
+     */
+    public static final int WINDOW = 2000;
+
+    /**
+     * Default high-frequency actions whose bursts are coalesced: resizing, volume, speed and
+     * resolution changes and seeks.
+     */
+    public static final Set<CaliperAction> ACTIONS = ImmutableSet.<CaliperAction>of(
+        Action.CHANGED_RESOLUTION,
+        Action.CHANGED_SIZE,
+        Action.CHANGED_SPEED,
+        Action.CHANGED_VOLUME,
+        Action.FORWARDED_TO,
+        Action.JUMPED_TO,
+        Action.REWOUND);
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private CoalescingOptions(OptionsBuilder builder) {
+        this.window = SensorValidator.chkPositiveIntValue(builder.window, WINDOW);
+        this.actions = (builder.actions != null) ? ImmutableSet.copyOf(builder.actions) : ImmutableSet.copyOf(ACTIONS);
+    }
+
+    /**
+     * Get the time (ms) a burst of events is held.
+     * @return window
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Get the actions whose bursts are coalesced.
+     * @return actions
+     */
+    public Set<CaliperAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private int window = 0;
+        private Set<CaliperAction> actions;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param window
+         * @return builder
+         */
+        public OptionsBuilder window(final int window) {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * @param actions
+         * @return builder
+         */
+        public OptionsBuilder actions(final Set<CaliperAction> actions) {
+            this.actions = actions;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public CoalescingOptions build() {
+            return new CoalescingOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.statistics.Statistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A balanced host together with its passive health state and statistics.  An endpoint that fails a
+ * number of consecutive requests is ejected from the rotation for a fixed duration; the first request
+ * after the ejection expires acts as a probe, and re-ejects the endpoint at once if it fails.
+ */
+class Endpoint {
+    private final String host;
+    private final Statistics statistics = new Statistics();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final int ejectionThreshold;
+    private final long ejectionDurationNanos;
+
+    private int consecutiveFailures;
+    private long ejectedUntil;
+    private boolean ejected;
+
+    /**
+     * Constructor
+     * @param host
+     * @param ejectionThreshold
+     * @param ejectionDuration (ms)
+     */
+    Endpoint(String host, int ejectionThreshold, int ejectionDuration) {
+        this.host = host;
+        this.ejectionThreshold = ejectionThreshold;
+        this.ejectionDurationNanos = TimeUnit.MILLISECONDS.toNanos(ejectionDuration);
+    }
+
+    /**
+     * @return host
+     */
+    String getHost() {
+        return host;
+    }
+
+    /**
+     * @return statistics
+     */
+    Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return number of requests in flight
+     */
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return true if the endpoint is in the rotation
+     */
+    synchronized boolean isHealthy() {
+        return !ejected || System.nanoTime() - ejectedUntil >= 0;
+    }
+
+    /**
+     * @return time at which the ejection expires
+     */
+    synchronized long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    /**
+     * Mark the start of a request.
+     */
+    void onStart() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Record a request that ended without an outcome, e.g., because the client was misconfigured or closed.
+     */
+    void onAborted() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Record a successful request.
+     * @param latencyNanos
+     */
+    void onSuccess(long latencyNanos) {
+        outstanding.decrementAndGet();
+        synchronized (this) {
+            consecutiveFailures = 0;
+            ejected = false;
+        }
+        statistics.updateMeasures(1);
+        statistics.updateSuccessful(1);
+        statistics.updateLatency(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+    }
+
+    /**
+     * Record a failed request, ejecting the endpoint once the threshold is reached.
+     * @param latencyNanos
+     */
+    void onFailure(long latencyNanos) {
+        outstanding.decrementAndGet();
+        boolean eject;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (ejected) {
+                // A failed probe re-ejects; a late failure during the ejection does not extend it
+                eject = now - ejectedUntil >= 0;
+            } else {
+                eject = ++consecutiveFailures >= ejectionThreshold;
+            }
+            if (eject) {
+                consecutiveFailures = 0;
+                ejected = true;
+                ejectedUntil = now + ejectionDurationNanos;
+            }
+        }
+        statistics.updateMeasures(1);
+        statistics.updateFailed(1);
+        statistics.updateLatency(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+        if (eject) {
+            statistics.updateEjected(1);
+        }
+    }
+
+    /**
+     * Record a request that was rejected for reasons unrelated to the endpoint's health.
+     */
+    void onRejected() {
+        outstanding.decrementAndGet();
+        statistics.updateMeasures(1);
+        statistics.updateFailed(1);
+    }
+}
@@ -0,0 +1,390 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.databind.CaliperObjectMapper;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.imsglobal.caliper.validators.SensorValidator;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends each event or entity of an Envelope as a line of newline-delimited JSON (NDJSON) to a segment
+ * file.  Segments are rolled once they reach a maximum size or age and are optionally gzip compressed.
+ * A segment is written under a ".inprogress" suffix and renamed when rolled, so that a log shipper
+ * watching the directory only picks up complete segments.
+ *
+ * Data are serialized with the shared Caliper ObjectMapper straight into a buffered FileChannel stream;
+ * when to force data to the storage device is governed by the FsyncPolicy.
+ */
+public class FileClient implements CaliperClient {
+    private final String id;
+    private final FileClientOptions options;
+    private final Statistics statistics;
+    private final SendListeners listeners = new SendListeners();
+    private final ObjectWriter writer;
+    private final ScheduledExecutorService roller;
+    private final Object lock = new Object();
+    private Segment segment;
+    private int sequence;
+    private volatile boolean closed;
+
+    /**
+     * Suffix of segment files.
+     */
+    public static final String SEGMENT_SUFFIX = ".ndjson";
+    public static final String COMPRESSED_SEGMENT_SUFFIX = ".ndjson.gz";
+    public static final String IN_PROGRESS_SUFFIX = ".inprogress";
+
+    private static final DateTimeFormatter SEGMENT_TIME_FORMAT = DateTimeFormat
+        .forPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZoneUTC();
+
+    private static final Logger log = LoggerFactory.getLogger(FileClient.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param id
+     * @param options
+     */
+    private FileClient(String id, FileClientOptions options) {
+        SensorValidator.chkId(id, this.getClass().getSimpleName());
+        SensorValidator.chkOptions(options);
+
+        this.id = id;
+        this.options = options;
+        this.statistics = new Statistics();
+        this.writer = CaliperObjectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        long period = Math.min(options.getMaxSegmentAge(), 1000);
+        this.roller = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("caliper-file-" + id + "-%d")
+            .setDaemon(true)
+            .build());
+        this.roller.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                rollIfAged();
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Retrieve options
+     * @return options
+     */
+    public FileClientOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Get statistics.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Get listeners.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Append the Envelope data to the current segment, one line per event or entity.
+     * @param envelope
+     */
+    @Override
+    public void send(Envelope envelope) {
+        if (closed) {
+            throw new IllegalStateException("FileClient " + id + " is closed.");
+        }
+
+        long start = System.nanoTime();
+        synchronized (lock) {
+            if (closed) {
+                // close() rolled the last segment while this send waited for the lock
+                throw new IllegalStateException("FileClient " + id + " is closed.");
+            }
+            try {
+                if (segment == null) {
+                    segment = new Segment(nextSegmentName());
+                }
+                for (CaliperSendable item : envelope.getData()) {
+                    segment.write(item);
+                }
+                if (options.getFsyncPolicy() == FsyncPolicy.ALWAYS) {
+                    segment.sync();
+                }
+                if (segment.size() >= options.getMaxSegmentSize() || segment.isAged()) {
+                    roll();
+                }
+                updateStatistics(true);
+            } catch (IOException | RuntimeException e) {
+                abandon();
+                updateStatistics(false);
+                CaliperClientException failure = new CaliperClientException("Failure writing envelope to segment in "
+                    + options.getDirectory(), e);
+                listeners.failed(id, envelope, failure);
+                throw failure;
+            }
+        }
+        listeners.sent(id, envelope, 0, System.nanoTime() - start);
+    }
+
+    /**
+     * Write buffered data to the current segment and, unless the FsyncPolicy is NEVER, force it to the
+     * storage device.
+     * @param timeout
+     * @param unit
+     * @return true if the buffered data was written
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        synchronized (lock) {
+            if (segment == null) {
+                return true;
+            }
+            try {
+                if (options.getFsyncPolicy() == FsyncPolicy.NEVER) {
+                    segment.generator.flush();
+                } else {
+                    segment.sync();
+                }
+                return true;
+            } catch (IOException e) {
+                log.warn("Failure flushing segment " + segment.path, e);
+                abandon();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stop accepting Envelopes and complete the current segment.
+     * @param timeout
+     * @param unit
+     * @return true if the roller stopped and the current segment was completed before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        closed = true;
+        roller.shutdown();
+        boolean stopped;
+        try {
+            stopped = roller.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = false;
+        }
+        synchronized (lock) {
+            try {
+                roll();
+                return stopped;
+            } catch (IOException e) {
+                log.warn("Failure closing segment " + segment.path, e);
+                abandon();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Complete the current segment, if any; the next Envelope opens a new segment.
+     * @throws IOException
+     */
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.complete();
+            segment = null;
+        }
+    }
+
+    /**
+     * Roll the current segment if it has reached the maximum age.  Runs on the roller thread.
+     */
+    private void rollIfAged() {
+        synchronized (lock) {
+            if (segment == null || !segment.isAged()) {
+                return;
+            }
+            try {
+                roll();
+            } catch (IOException e) {
+                log.warn("Failure rolling segment " + segment.path, e);
+                abandon();
+            }
+        }
+    }
+
+    /**
+     * Release a segment after a write failure, leaving it under its in-progress name.
+     */
+    private void abandon() {
+        if (segment != null) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.debug("Failure closing abandoned segment " + segment.path, e);
+            }
+            segment = null;
+        }
+    }
+
+    /**
+     * @return file name of the next segment
+     */
+    private String nextSegmentName() {
+        return options.getPrefix() + "-" + SEGMENT_TIME_FORMAT.print(DateTime.now()) + "-"
+            + String.format("%06d", ++sequence)
+            + (options.isCompress() ? COMPRESSED_SEGMENT_SUFFIX : SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Update statistics
+     * @param status
+     */
+    private void updateStatistics(boolean status) {
+        statistics.updateMeasures(1);
+        if (status) {
+            statistics.updateSuccessful(1);
+        } else {
+            statistics.updateFailed(1);
+        }
+    }
+
+    /**
+     * A segment file open for writing.  The stream stack is generator, byte counter, gzip (optional),
+     * buffer and FileChannel.  Bytes are counted above the buffer and the deflater, so that the size
+     * reflects every byte serialized rather than what happens to have reached the file.
+     */
+    private class Segment {
+        private final Path path;
+        private final Path inProgressPath;
+        private final FileChannel channel;
+        private final CountingOutputStream counter;
+        private final OutputStream buffer;
+        private final GZIPOutputStream gzip;
+        private final JsonGenerator generator;
+        private final long openedAt = System.nanoTime();
+
+        private Segment(String name) throws IOException {
+            Path directory = options.getDirectory().toPath();
+            Files.createDirectories(directory);
+            this.path = directory.resolve(name);
+            this.inProgressPath = directory.resolve(name + IN_PROGRESS_SUFFIX);
+            this.channel = FileChannel.open(inProgressPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+            this.buffer = new BufferedOutputStream(Channels.newOutputStream(channel), options.getBufferSize());
+            this.gzip = options.isCompress() ? new GZIPOutputStream(buffer, options.getBufferSize(), true) : null;
+            this.counter = new CountingOutputStream(gzip != null ? gzip : buffer);
+            this.generator = CaliperObjectMapper.getInstance().getFactory()
+                .createGenerator(counter)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        }
+
+        private void write(CaliperSendable item) throws IOException {
+            writer.writeValue(generator, item);
+            generator.writeRaw('\n');
+        }
+
+        /**
+         * @return bytes serialized to the segment so far, including those still held by the generator
+         */
+        private long size() {
+            return counter.getCount() + generator.getOutputBuffered();
+        }
+
+        private boolean isAged() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt) >= options.getMaxSegmentAge();
+        }
+
+        private void sync() throws IOException {
+            generator.flush();
+            channel.force(false);
+        }
+
+        /**
+         * Write out buffered data, close the file and rename it to its final name.
+         * @throws IOException
+         */
+        private void complete() throws IOException {
+            generator.close();
+            if (gzip != null) {
+                gzip.finish();
+            }
+            buffer.flush();
+            if (options.getFsyncPolicy() != FsyncPolicy.NEVER) {
+                channel.force(true);
+            }
+            channel.close();
+            Files.move(inProgressPath, path, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Factory method.
+     * @param id
+     * @param options
+     * @return FileClient
+     */
+    public static FileClient create(String id, FileClientOptions options) {
+        return new FileClient(id, options);
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import java.io.File;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * File client options.  Review default constants and adjust segment limits to suit the log shipper
+ * that collects the segments.
+ */
+public class FileClientOptions implements CaliperClientOptions {
+    private final File directory;
+    private final String prefix;
+    private final int maxSegmentSize;
+    private final int maxSegmentAge;
+    private final boolean compress;
+    private final FsyncPolicy fsyncPolicy;
+    private final int bufferSize;
+
+    /**
+     * Default segment file name prefix.
+     */
+    public static final String PREFIX = "caliper";
+
+    /**
+     * Default number of bytes written to a segment before it is rolled.
+     */
+    public static final int MAX_SEGMENT_SIZE = 128 * 1024 * 1024;
+
+    /**
+     * Default age (ms) at which a segment is rolled.
+     */
+    public static final int MAX_SEGMENT_AGE = 300000;
+
+    /**
+     * Default size (bytes) of the write buffer.
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private FileClientOptions(OptionsBuilder builder) {
+        checkArgument(builder.directory != null, "Segment directory must be specified.");
+
+        this.directory = builder.directory;
+        this.prefix = SensorValidator.chkStrValue(builder.prefix, PREFIX);
+        this.maxSegmentSize = SensorValidator.chkPositiveIntValue(builder.maxSegmentSize, MAX_SEGMENT_SIZE);
+        this.maxSegmentAge = SensorValidator.chkPositiveIntValue(builder.maxSegmentAge, MAX_SEGMENT_AGE);
+        this.compress = builder.compress;
+        this.fsyncPolicy = (builder.fsyncPolicy != null) ? builder.fsyncPolicy : FsyncPolicy.ON_ROLL;
+        this.bufferSize = SensorValidator.chkPositiveIntValue(builder.bufferSize, BUFFER_SIZE);
+    }
+
+    /**
+     * Get the directory to which segments are written.
+     * @return directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the segment file name prefix.
+     * @return prefix
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Get the number of bytes written to a segment before it is rolled.  Bytes are counted as serialized,
+     * before compression, so compressed segments end up smaller; a segment is rolled after the Envelope
+     * that reaches the limit, so it may exceed the limit by up to one Envelope.
+     * @return max segment size
+     */
+    public int getMaxSegmentSize() {
+        return maxSegmentSize;
+    }
+
+    /**
+     * Get the age (ms) at which a segment is rolled.
+     * @return max segment age
+     */
+    public int getMaxSegmentAge() {
+        return maxSegmentAge;
+    }
+
+    /**
+     * Returns true if segments are gzip compressed.
+     * @return compress
+     */
+    public boolean isCompress() {
+        return compress;
+    }
+
+    /**
+     * Get the fsync policy.
+     * @return fsync policy
+     */
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * Get the size (bytes) of the write buffer.
+     * @return buffer size
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private File directory;
+        private String prefix;
+        private int maxSegmentSize = 0;
+        private int maxSegmentAge = 0;
+        private boolean compress = false;
+        private FsyncPolicy fsyncPolicy;
+        private int bufferSize = 0;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param directory
+         * @return builder
+         */
+        public OptionsBuilder directory(final File directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * @param prefix
+         * @return builder
+         */
+        public OptionsBuilder prefix(final String prefix) {
+            this.prefix = prefix;
+            return this;
+        }
+
+        /**
+         * @param maxSegmentSize
+         * @return builder
+         */
+        public OptionsBuilder maxSegmentSize(final int maxSegmentSize) {
+            this.maxSegmentSize = maxSegmentSize;
+            return this;
+        }
+
+        /**
+         * @param maxSegmentAge
+         * @return builder
+         */
+        public OptionsBuilder maxSegmentAge(final int maxSegmentAge) {
+            this.maxSegmentAge = maxSegmentAge;
+            return this;
+        }
+
+        /**
+         * @param compress
+         * @return builder
+         */
+        public OptionsBuilder compress(final boolean compress) {
+            this.compress = compress;
+            return this;
+        }
+
+        /**
+         * @param fsyncPolicy
+         * @return builder
+         */
+        public OptionsBuilder fsyncPolicy(final FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        /**
+         * @param bufferSize
+         * @return builder
+         */
+        public OptionsBuilder bufferSize(final int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public FileClientOptions build() {
+            return new FileClientOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
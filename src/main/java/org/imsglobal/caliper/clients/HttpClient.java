@@ -18,26 +18,42 @@
 
 package org.imsglobal.caliper.clients;
 
-import org.apache.http.client.ClientProtocolException;
+import com.google.common.base.Utf8;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpOptions;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.config.Timeout;
+import org.imsglobal.caliper.databind.ParallelEnvelopeWriter;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Provisions the Sensor with an HttpClient that binds to one or more Requestors.
+ * Provisions the Sensor with an HttpClient that binds to one or more Requestors.  Each instance owns a
+ * connection pool sized by its options, so that several instances (e.g., the lanes of a PartitionedClient)
+ * can deliver in parallel over their own connections.  When several hosts are configured, requests are
+ * balanced across them and fail over to the next healthy host on transport failures and server errors.
  */
 public class HttpClient extends AbstractClient {
-    private static CloseableHttpClient httpClient;
-    private static CloseableHttpResponse response = null;
+    private final CloseableHttpClient httpClient;
+    private final boolean ownsHttpClient;
+    private final RequestConfig requestConfig;
+    private final LoadBalancer loadBalancer;
+    private volatile boolean closed;
 
     private static final Logger log = LoggerFactory.getLogger(HttpClient.class);
 
@@ -48,52 +64,188 @@ public class HttpClient extends AbstractClient {
      */
     private HttpClient(String id, HttpClientOptions options) {
         super(id, options);
-        initialize();
+        this.requestConfig = createRequestConfig(options);
+        this.httpClient = createHttpClient(options, requestConfig);
+        this.ownsHttpClient = true;
+        this.loadBalancer = new LoadBalancer(options);
     }
 
     /**
-     * Init method
+     * Constructor for an HttpClient that posts through a connection pool and writer it does not own.
+     * @param id
+     * @param options
+     * @param httpClient
+     * @param writer
+     */
+    private HttpClient(String id, HttpClientOptions options, CloseableHttpClient httpClient,
+                       ParallelEnvelopeWriter writer) {
+        super(id, options, writer);
+        this.requestConfig = createRequestConfig(options);
+        this.httpClient = httpClient;
+        this.ownsHttpClient = false;
+        this.loadBalancer = new LoadBalancer(options);
+    }
+
+    /**
+     * Init method.
+     * @deprecated connection pools are now created per HttpClient instance; calling this method has no effect.
      */
+    @Deprecated
     public static synchronized void initialize() {
-        if (httpClient == null) {
-            httpClient = HttpClients.createDefault();
-        }
+
+    }
+
+    /**
+     * Create the request configuration that honors the configured timeouts.
+     * @param options
+     * @return RequestConfig
+     */
+    private static RequestConfig createRequestConfig(HttpClientOptions options) {
+        return RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.CONNECTION_REQUESTOR_TIMEOUT.value())
+            .setConnectTimeout(options.getConnTimeout())
+            .setSocketTimeout(options.getSocketTimeout())
+            .build();
+    }
+
+    /**
+     * Create a pooled client.
+     * @param options
+     * @param requestConfig
+     * @return CloseableHttpClient
+     */
+    private static CloseableHttpClient createHttpClient(HttpClientOptions options, RequestConfig requestConfig) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(options.getMaxConnections() * options.getHosts().size());
+        connectionManager.setDefaultMaxPerRoute(options.getMaxConnections());
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .build();
     }
 
     /**
-     * Check initialized instance.
+     * Get per-endpoint statistics keyed by host.
+     * @return statistics
      */
-    private static void checkInitialized() {
-        if (httpClient == null) {
-            throw new IllegalStateException("HttpClient is not initialized.");
+    public Map<String, Statistics> getEndpointStatistics() {
+        Map<String, Statistics> statistics = new LinkedHashMap<>();
+        for (Endpoint endpoint : loadBalancer.getEndpoints()) {
+            statistics.put(endpoint.getHost(), endpoint.getStatistics());
         }
+        return statistics;
     }
 
     /**
-     * Post envelope.
+     * Post envelope to the endpoint preferred by the balancing strategy, failing over to the remaining
+     * endpoints if it fails.
      * @param envelope
-     * @return status
      */
     @Override
     public void send(Envelope envelope) {
-        boolean status = Boolean.FALSE;
+        if (log.isDebugEnabled()) {
+            log.debug("Entering send()...");
+        }
+
+        if (closed) {
+            throw new IllegalStateException("HttpClient " + getId() + " is closed.");
+        }
+
+        send(envelope, serialize(envelope));
+    }
 
+    /**
+     * Serialize the Envelope, reporting a failure as a failed send.
+     * @param envelope
+     * @return json
+     * @throws SerializationException if the Envelope cannot be serialized
+     */
+    String serialize(Envelope envelope) {
+        String json;
         try {
-            if (log.isDebugEnabled()) {
-                log.debug("Entering send()...");
+            json = this.serializeEnvelope(envelope);
+        } catch (IOException ioe) {
+            updateStatistics(Boolean.FALSE);
+            CaliperClientException e = new SerializationException("WARN: Envelope serialization failed; "
+                + ioe.getMessage(), ioe);
+            getListeners().failed(getId(), envelope, e);
+            throw e;
+        }
+
+        SendListeners listeners = getListeners();
+        if (!listeners.isEmpty()) {
+            listeners.serialized(getId(), envelope, Utf8.encodedLength(json));
+        }
+        return json;
+    }
+
+    /**
+     * Post a serialized Envelope to the endpoint preferred by the balancing strategy, failing over to the
+     * remaining endpoints if it fails.
+     * @param envelope
+     * @param json
+     */
+    void send(Envelope envelope, String json) {
+        SendListeners listeners = getListeners();
+        String key = envelope.getData().isEmpty() ? null : PartitionKey.ACTOR.keyOf(envelope.getData().get(0));
+        CaliperClientException failure = null;
+        int attempt = 0;
+
+        for (Endpoint endpoint : loadBalancer.select(key)) {
+            if (failure != null) {
+                listeners.retried(getId(), envelope, attempt, failure);
             }
+            attempt++;
+            long start = System.nanoTime();
+            try {
+                int statusCode = post(endpoint, json);
 
-            // Check if HttpClient is initialized.
-            checkInitialized();
+                // Update statistics
+                updateStatistics(Boolean.TRUE);
+                listeners.sent(getId(), envelope, statusCode, System.nanoTime() - start);
 
-            // Serialize the envelope
-            String json = this.serializeEnvelope(envelope);
+                if (log.isDebugEnabled()) {
+                    log.debug("Exiting send()...");
+                }
+                return;
+            } catch (CaliperClientException e) {
+                failure = e;
+                if (!e.isEndpointFailure()) {
+                    break;
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("HTTP POST to " + endpoint.getHost() + " failed; failing over.", e);
+                }
+            }
+        }
 
+        // Update statistics
+        updateStatistics(Boolean.FALSE);
+        listeners.failed(getId(), envelope, failure);
+
+        throw failure;
+    }
+
+    /**
+     * Post serialized envelope to a single endpoint.
+     * @param endpoint
+     * @param json
+     * @return status code
+     */
+    private int post(Endpoint endpoint, String json) {
+        CloseableHttpResponse response = null;
+        long start = System.nanoTime();
+        boolean recorded = false;
+        endpoint.onStart();
+
+        try {
             // Prep the post
-            HttpPost post = new HttpPost(super.getOptions().getHost());
+            HttpPost post = new HttpPost(endpoint.getHost());
             post.setHeader("Authorization", this.getOptions().getApiKey());
             post.setHeader("Content-Type", this.getOptions().getContentType());
             post.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+            post.setConfig(requestConfig);
 
             // Execute POST
             response = httpClient.execute(post);
@@ -101,30 +253,89 @@ public class HttpClient extends AbstractClient {
             // HTTP Response code
             int statusCode = response.getStatusLine().getStatusCode();
             if (statusCode < 200 || statusCode > 202) {
-                response.close();
+                CaliperClientException e = new CaliperClientException("WARN: HTTP POST failed; status code="
+                    + statusCode, statusCode);
+                recorded = true;
+                if (e.isEndpointFailure()) {
+                    endpoint.onFailure(System.nanoTime() - start);
+                } else {
+                    endpoint.onRejected();
+                }
+                throw e;
+            }
 
-                // Update statistics
-                updateStatistics(Boolean.FALSE);
+            if (log.isDebugEnabled()) {
+                log.debug(response.getStatusLine().toString());
+                log.debug(EntityUtils.toString(response.getEntity()));
+            }
+            recorded = true;
+            endpoint.onSuccess(System.nanoTime() - start);
+            return statusCode;
+        } catch (IOException ioe) {
+            recorded = true;
+            endpoint.onFailure(System.nanoTime() - start);
+            throw new CaliperClientException("WARN: HTTP POST failed; " + ioe.getMessage(), ioe);
+        } finally {
+            if (!recorded) {
+                endpoint.onAborted();
+            }
+            closeQuietly(response);
+        }
+    }
 
-                throw new RuntimeException("WARN: HTTP POST failed; status code=" + statusCode);
-            } else {
-                if (log.isDebugEnabled()) {
-                    log.debug(response.getStatusLine().toString());
-                    log.debug(EntityUtils.toString(response.getEntity()));
-                }
-                response.close();
+    /**
+     * Open a pooled connection to each endpoint, completing the TLS handshake, by sending it an OPTIONS
+     * request.  The response status is ignored and failures are logged; endpoint health is unaffected.
+     */
+    @Override
+    public void warmUp() {
+        for (Endpoint endpoint : loadBalancer.getEndpoints()) {
+            CloseableHttpResponse response = null;
+            try {
+                HttpOptions request = new HttpOptions(endpoint.getHost());
+                request.setHeader("Authorization", this.getOptions().getApiKey());
+                request.setConfig(requestConfig);
+                response = httpClient.execute(request);
+            } catch (IOException e) {
+                log.warn("Unable to open a connection to " + endpoint.getHost() + ": " + e.getMessage());
+            } finally {
+                closeQuietly(response);
+            }
+        }
+    }
 
-                // Update statistics
-                updateStatistics(Boolean.TRUE);
+    /**
+     * Close the connection pool, unless it is shared.  Requests in flight on other threads are aborted.
+     * @param timeout
+     * @param unit
+     * @return true
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        closed = true;
+        if (!ownsHttpClient) {
+            return true;
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Unable to close connection pool of HttpClient " + getId(), e);
+        }
+        return true;
+    }
 
-                if (log.isDebugEnabled()) {
-                    log.debug("Exiting send()...");
-                }
+    /**
+     * Release the response and return its connection to the pool.
+     * @param response
+     */
+    private static void closeQuietly(CloseableHttpResponse response) {
+        if (response != null) {
+            try {
+                EntityUtils.consume(response.getEntity());
+                response.close();
+            } catch (IOException e) {
+                log.debug("Unable to close response", e);
             }
-        } catch (ClientProtocolException cpe) {
-            cpe.printStackTrace();
-        } catch (IOException ioe) {
-            ioe.printStackTrace();
         }
     }
 
@@ -136,4 +347,18 @@ public class HttpClient extends AbstractClient {
     public static HttpClient create(String id, HttpClientOptions options) {
         return new HttpClient(id, options);
     }
+
+    /**
+     * Factory method for an HttpClient that posts through a shared connection pool and writer.  Closing
+     * the HttpClient leaves the shared pool open.
+     * @param id
+     * @param options
+     * @param httpClient
+     * @param writer
+     * @return HttpClient
+     */
+    static HttpClient create(String id, HttpClientOptions options, CloseableHttpClient httpClient,
+                             ParallelEnvelopeWriter writer) {
+        return new HttpClient(id, options, httpClient, writer);
+    }
 }
\ No newline at end of file
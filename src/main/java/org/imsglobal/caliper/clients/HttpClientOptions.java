@@ -18,17 +18,30 @@
 
 package org.imsglobal.caliper.clients;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import org.imsglobal.caliper.config.Timeout;
+import org.imsglobal.caliper.databind.ParallelEnvelopeWriter;
 import org.imsglobal.caliper.validators.SensorValidator;
 
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Caliper client options.  Review default constants and update placeholder entries (e.g., HTTP_HOST).
  */
 public class HttpClientOptions implements CaliperClientOptions {
     private final String apiKey;
+    private final BalancingStrategy balancingStrategy;
     private final int connectionTimeout;
     private final String contentType;
-    private final String host;
+    private final int ejectionDuration;
+    private final int ejectionThreshold;
+    private final ImmutableList<String> hosts;
+    private final int maxConnections;
+    private final int parallelSerializationThreshold;
     private final int socketTimeout;
 
     /**
@@ -37,6 +50,18 @@ public class HttpClientOptions implements CaliperClientOptions {
     public static final int CONNECTION_TIMEOUT = Timeout.CONNECTION_TIMEOUT.value();
     public static final int SOCKET_TIMEOUT = Timeout.SOCKET_TIMEOUT.value();
 
+    /**
+     * Default size of the client's connection pool.
+     */
+    public static final int MAX_CONNECTIONS = 20;
+
+    /**
+     * Default passive health check settings: the number of consecutive failures after which an endpoint
+     * is ejected from the balancing rotation and the duration (ms) of the ejection.
+     */
+    public static final int EJECTION_THRESHOLD = 3;
+    public static final int EJECTION_DURATION = 30000;
+
     /**
      * HTTP Request Header field values.  Update faux Host value.
      */
@@ -52,12 +77,33 @@ public class HttpClientOptions implements CaliperClientOptions {
         SensorValidator.chkApiKey(builder.apiKey);
 
         this.apiKey = builder.apiKey;
+        this.balancingStrategy = (builder.balancingStrategy != null)
+            ? builder.balancingStrategy : BalancingStrategy.ROUND_ROBIN;
         this.connectionTimeout = SensorValidator.chkIntValue(builder.connectionTimeout, CONNECTION_TIMEOUT);
         this.contentType = SensorValidator.chkStrValue(builder.contentType, HTTP_CONTENT_TYPE);
-        this.host = SensorValidator.chkStrValue(builder.host, HTTP_HOST);
+        this.ejectionDuration = SensorValidator.chkPositiveIntValue(builder.ejectionDuration, EJECTION_DURATION);
+        this.ejectionThreshold = SensorValidator.chkPositiveIntValue(builder.ejectionThreshold, EJECTION_THRESHOLD);
+        this.hosts = (builder.hosts.isEmpty())
+            ? ImmutableList.of(SensorValidator.chkStrValue(builder.host, HTTP_HOST)) : chkHosts(builder.hosts);
+        this.maxConnections = SensorValidator.chkPositiveIntValue(builder.maxConnections, MAX_CONNECTIONS);
+        this.parallelSerializationThreshold = SensorValidator.chkPositiveIntValue(
+            builder.parallelSerializationThreshold, ParallelEnvelopeWriter.THRESHOLD);
         this.socketTimeout = SensorValidator.chkIntValue(builder.socketTimeout, SOCKET_TIMEOUT);
     }
 
+    /**
+     * Check that each balanced host is a distinct, absolute http(s) URL.
+     * @param hosts
+     * @return hosts
+     */
+    private static ImmutableList<String> chkHosts(List<String> hosts) {
+        for (String host : hosts) {
+            SensorValidator.chkHost(host);
+        }
+        checkArgument(ImmutableSet.copyOf(hosts).size() == hosts.size(), "Hosts must be distinct.");
+        return ImmutableList.copyOf(hosts);
+    }
+
     /**
      * Get the API key for unlocking the Caliper endpoint.
      * @return the apiKey
@@ -66,6 +112,14 @@ public class HttpClientOptions implements CaliperClientOptions {
         return apiKey;
     }
 
+    /**
+     * Get the strategy used to balance requests across hosts.
+     * @return balancing strategy
+     */
+    public BalancingStrategy getBalancingStrategy() {
+        return balancingStrategy;
+    }
+
     /**
      * Get the Connection timeout.
      * @return connection timeout
@@ -83,11 +137,51 @@ public class HttpClientOptions implements CaliperClientOptions {
     }
 
     /**
-     *The REST API endpoint.
+     * Get the duration (ms) an unhealthy endpoint is ejected from the balancing rotation.
+     * @return ejection duration
+     */
+    public int getEjectionDuration() {
+        return ejectionDuration;
+    }
+
+    /**
+     * Get the number of consecutive failures after which an endpoint is ejected.
+     * @return ejection threshold
+     */
+    public int getEjectionThreshold() {
+        return ejectionThreshold;
+    }
+
+    /**
+     *The REST API endpoint.  If several endpoints are configured, the first is returned.
      * @return host
      */
     public String getHost() {
-        return host;
+        return hosts.get(0);
+    }
+
+    /**
+     * The REST API endpoints across which requests are balanced.
+     * @return hosts
+     */
+    public ImmutableList<String> getHosts() {
+        return hosts;
+    }
+
+    /**
+     * Get the maximum number of pooled connections.
+     * @return max connections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Get the minimum number of items of an Envelope serialized in parallel.
+     * @return parallel serialization threshold
+     */
+    public int getParallelSerializationThreshold() {
+        return parallelSerializationThreshold;
     }
 
     /**
@@ -103,9 +197,15 @@ public class HttpClientOptions implements CaliperClientOptions {
      */
     public static class OptionsBuilder {
         private String apiKey;
+        private BalancingStrategy balancingStrategy;
         private int connectionTimeout = 0;
         private String contentType;
+        private int ejectionDuration = 0;
+        private int ejectionThreshold = 0;
         private String host;
+        private List<String> hosts = Lists.newArrayList();
+        private int maxConnections = 0;
+        private int parallelSerializationThreshold = 0;
         private int socketTimeout = 0;
 
         /**
@@ -124,6 +224,15 @@ public class HttpClientOptions implements CaliperClientOptions {
             return this;
         }
 
+        /**
+         * @param balancingStrategy
+         * @return builder
+         */
+        public OptionsBuilder balancingStrategy(final BalancingStrategy balancingStrategy) {
+            this.balancingStrategy = balancingStrategy;
+            return this;
+        }
+
         /**
          * @param connectionTimeout
          * @return builder
@@ -142,6 +251,24 @@ public class HttpClientOptions implements CaliperClientOptions {
             return this;
         }
 
+        /**
+         * @param ejectionDuration
+         * @return builder
+         */
+        public OptionsBuilder ejectionDuration(final int ejectionDuration) {
+            this.ejectionDuration = ejectionDuration;
+            return this;
+        }
+
+        /**
+         * @param ejectionThreshold
+         * @return builder
+         */
+        public OptionsBuilder ejectionThreshold(final int ejectionThreshold) {
+            this.ejectionThreshold = ejectionThreshold;
+            return this;
+        }
+
         /**
          * @param host
          * @return builder
@@ -151,6 +278,35 @@ public class HttpClientOptions implements CaliperClientOptions {
             return this;
         }
 
+        /**
+         * @param hosts
+         * @return builder
+         */
+        public OptionsBuilder hosts(final List<String> hosts) {
+            this.hosts.addAll(hosts);
+            return this;
+        }
+
+        /**
+         * @param maxConnections
+         * @return builder
+         */
+        public OptionsBuilder maxConnections(final int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Minimum number of items of an Envelope serialized in parallel; Integer.MAX_VALUE disables
+         * parallel serialization.
+         * @param parallelSerializationThreshold
+         * @return builder
+         */
+        public OptionsBuilder parallelSerializationThreshold(final int parallelSerializationThreshold) {
+            this.parallelSerializationThreshold = parallelSerializationThreshold;
+            return this;
+        }
+
         /**
          * @param socketTimeout
          * @return builder
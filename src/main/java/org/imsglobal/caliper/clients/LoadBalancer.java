@@ -0,0 +1,155 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orders the endpoints of an HttpClient for a request according to the configured balancing strategy.
+ * The first endpoint returned is the preferred one; the remainder are failover candidates.  Healthy
+ * endpoints always precede ejected ones, which are kept as a last resort so that a request is still
+ * attempted when every endpoint has been ejected.
+ */
+class LoadBalancer {
+    private final BalancingStrategy strategy;
+    private final ImmutableList<Endpoint> endpoints;
+    private final TreeMap<Integer, Endpoint> ring = new TreeMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Virtual nodes placed on the hash ring per endpoint.
+     */
+    private static final int VIRTUAL_NODES = 100;
+    private static final HashFunction HASH = Hashing.murmur3_32();
+
+    /**
+     * Constructor
+     * @param options
+     */
+    LoadBalancer(HttpClientOptions options) {
+        this.strategy = options.getBalancingStrategy();
+
+        ImmutableList.Builder<Endpoint> builder = ImmutableList.builder();
+        for (String host : options.getHosts()) {
+            Endpoint endpoint = new Endpoint(host, options.getEjectionThreshold(), options.getEjectionDuration());
+            builder.add(endpoint);
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(host + "#" + i), endpoint);
+            }
+        }
+        this.endpoints = builder.build();
+    }
+
+    /**
+     * @return endpoints in configuration order
+     */
+    ImmutableList<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Order the endpoints for a request.
+     * @param key the hash key for CONSISTENT_HASH, may be null
+     * @return endpoints, preferred first
+     */
+    List<Endpoint> select(String key) {
+        int size = endpoints.size();
+        List<Endpoint> candidates = new ArrayList<>(size);
+
+        switch (strategy) {
+            case LEAST_OUTSTANDING_REQUESTS:
+                candidates.addAll(endpoints);
+                // Stable insertion sort; the list is short and mostly ordered
+                for (int i = 1; i < size; i++) {
+                    Endpoint endpoint = candidates.get(i);
+                    int j = i - 1;
+                    while (j >= 0 && candidates.get(j).getOutstanding() > endpoint.getOutstanding()) {
+                        candidates.set(j + 1, candidates.get(j));
+                        j--;
+                    }
+                    candidates.set(j + 1, endpoint);
+                }
+                break;
+            case CONSISTENT_HASH:
+                if (key != null) {
+                    Map.Entry<Integer, Endpoint> entry = ring.ceilingEntry(hash(key));
+                    Iterable<Endpoint> walk = (entry == null)
+                        ? ring.values() : Iterables.concat(ring.tailMap(entry.getKey()).values(), ring.values());
+                    for (Endpoint endpoint : walk) {
+                        if (!candidates.contains(endpoint)) {
+                            candidates.add(endpoint);
+                            if (candidates.size() == size) {
+                                break;
+                            }
+                        }
+                    }
+                    break;
+                }
+                // Without a key fall through to round-robin
+            default:
+                int start = (next.getAndIncrement() & 0x7fffffff) % size;
+                for (int i = 0; i < size; i++) {
+                    candidates.add(endpoints.get((start + i) % size));
+                }
+        }
+
+        return healthyFirst(candidates);
+    }
+
+    /**
+     * Move ejected endpoints to the end, soonest to recover first.
+     * @param candidates
+     * @return reordered candidates
+     */
+    private static List<Endpoint> healthyFirst(List<Endpoint> candidates) {
+        List<Endpoint> healthy = new ArrayList<>(candidates.size());
+        List<Endpoint> ejected = new ArrayList<>(0);
+        for (Endpoint endpoint : candidates) {
+            if (endpoint.isHealthy()) {
+                healthy.add(endpoint);
+            } else {
+                int i = 0;
+                while (i < ejected.size() && ejected.get(i).getEjectedUntil() - endpoint.getEjectedUntil() <= 0) {
+                    i++;
+                }
+                ejected.add(i, endpoint);
+            }
+        }
+        healthy.addAll(ejected);
+        return healthy;
+    }
+
+    /**
+     * @param value
+     * @return hash
+     */
+    private static int hash(String value) {
+        return HASH.hashString(value, Charsets.UTF_8).asInt();
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Accounts for the memory (bytes) held by data buffered on the outbound path and caps it.  Buffering
+ * Clients (BatchingClient, PartitionedClient, PriorityClient) configured with a budget reserve the
+ * estimated size of every Envelope and item they queue and release it once the data is delivered or
+ * shed; when a reservation would exceed the budget the Envelope is rejected with a BufferFullException
+ * or, where the Client has a spill Client, spilled.
+ *
+ * The global budget is shared by every Client configured with it, and thus by every Sensor in the JVM;
+ * it is unlimited until setMaxBytes() is called.  Separate budgets may be created, e.g., per tenant.
+ * Crossing the high-water mark (by default 80% of the budget) is logged and counted so that operators
+ * are warned before data is rejected.
+ *
+ * Unless another SizeEstimator is given, items are estimated at ITEM_SIZE bytes each, which costs nothing
+ * on the send path; SizeEstimator.SERIALIZED is exact but serializes every item to measure it.
+ *
+ * Each buffering Client reserves for the data it holds, not for the data held downstream.  When Clients
+ * are stacked, e.g., PriorityClient over BatchingClient over PartitionedClient, data in transit between
+ * stages is reserved once per stage that holds it; configure the budget on one stage, normally the
+ * outermost, or size it for the overlap.
+ */
+public class MemoryBudget {
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong peakBytes = new AtomicLong();
+    private final AtomicBoolean aboveHighWaterMark = new AtomicBoolean();
+    private final SizeEstimator estimator;
+    private final Statistics statistics = new Statistics();
+    private volatile long maxBytes;
+    private volatile long highWaterMark;
+
+    /**
+     * Default high-water mark as a percentage of the budget.
+     */
+    public static final int HIGH_WATER_MARK = 80;
+
+    /**
+     * Estimated bytes retained by an Envelope apart from its data, and by an item of unknown size.
+     */
+    public static final long ENVELOPE_SIZE = 256;
+    public static final long ITEM_SIZE = 2048;
+
+    private static final MemoryBudget GLOBAL = new MemoryBudget(Long.MAX_VALUE, SizeEstimator.fixed(ITEM_SIZE));
+
+    private static final Logger log = LoggerFactory.getLogger(MemoryBudget.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory methods.
+     * @param maxBytes
+     * @param estimator
+     */
+    private MemoryBudget(long maxBytes, SizeEstimator estimator) {
+        checkArgument(estimator != null, "Size estimator must be specified.");
+        this.estimator = estimator;
+        setMaxBytes(maxBytes);
+    }
+
+    /**
+     * Get the budget shared across the JVM.
+     * @return global budget
+     */
+    public static MemoryBudget getGlobal() {
+        return GLOBAL;
+    }
+
+    /**
+     * Set the budget, resetting the high-water mark to its default percentage of the budget.
+     * @param maxBytes
+     */
+    public void setMaxBytes(long maxBytes) {
+        checkArgument(maxBytes > 0, "Memory budget must be positive.");
+        this.maxBytes = maxBytes;
+        this.highWaterMark = (maxBytes == Long.MAX_VALUE) ? maxBytes : maxBytes / 100 * HIGH_WATER_MARK;
+    }
+
+    /**
+     * Set the high-water mark.
+     * @param highWaterMark
+     */
+    public void setHighWaterMark(long highWaterMark) {
+        checkArgument(highWaterMark > 0 && highWaterMark <= maxBytes, "High-water mark must be within the budget.");
+        this.highWaterMark = highWaterMark;
+    }
+
+    /**
+     * Estimate the bytes retained by an Envelope and its data.
+     * @param envelope
+     * @return size (bytes)
+     */
+    public long sizeOf(Envelope envelope) {
+        long size = ENVELOPE_SIZE;
+        for (CaliperSendable item : envelope.getData()) {
+            size += estimator.sizeOf(item);
+        }
+        return size;
+    }
+
+    /**
+     * Estimate the bytes retained by an event or entity.
+     * @param item
+     * @return size (bytes)
+     */
+    public long sizeOf(CaliperSendable item) {
+        return estimator.sizeOf(item);
+    }
+
+    /**
+     * Reserve bytes if the budget allows.
+     * @param bytes
+     * @return true if reserved, false if the reservation would exceed the budget
+     */
+    public boolean tryReserve(long bytes) {
+        while (true) {
+            long used = usedBytes.get();
+            if (used + bytes > maxBytes) {
+                statistics.updateBudgetRejected(1);
+                return false;
+            }
+            if (usedBytes.compareAndSet(used, used + bytes)) {
+                onReserved(used + bytes);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reserve bytes regardless of the budget, e.g., for data that must never be rejected.
+     * @param bytes
+     */
+    public void reserve(long bytes) {
+        onReserved(usedBytes.addAndGet(bytes));
+    }
+
+    /**
+     * Release bytes reserved earlier.
+     * @param bytes
+     */
+    public void release(long bytes) {
+        long used = usedBytes.addAndGet(-bytes);
+        if (used < highWaterMark) {
+            aboveHighWaterMark.set(false);
+        }
+    }
+
+    /**
+     * Get the bytes currently reserved.
+     * @return used bytes
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Get the most bytes reserved at any time since creation or the last resetPeakBytes().
+     * @return peak bytes
+     */
+    public long getPeakBytes() {
+        return peakBytes.get();
+    }
+
+    /**
+     * Reset the peak to the bytes currently reserved.
+     */
+    public void resetPeakBytes() {
+        peakBytes.set(usedBytes.get());
+    }
+
+    /**
+     * Get the budget.
+     * @return max bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Get the high-water mark.
+     * @return high-water mark (bytes)
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Returns true if the bytes reserved exceed the high-water mark.  Clients may shed low priority data
+     * early while this holds.
+     * @return true if above the high-water mark
+     */
+    public boolean isAboveHighWaterMark() {
+        return usedBytes.get() > highWaterMark;
+    }
+
+    /**
+     * Get statistics: rejected reservations and high-water mark crossings.
+     * @return statistics
+     */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    private void onReserved(long used) {
+        long peak = peakBytes.get();
+        while (used > peak && !peakBytes.compareAndSet(peak, used)) {
+            peak = peakBytes.get();
+        }
+        if (used > highWaterMark && aboveHighWaterMark.compareAndSet(false, true)) {
+            statistics.updateHighWaterMark(1);
+            log.warn("Buffered analytics data (" + used + " bytes) exceeds the high-water mark of "
+                + highWaterMark + " bytes; budget is " + maxBytes + " bytes.");
+        }
+    }
+
+    /**
+     * Factory method for a budget that estimates each item at ITEM_SIZE bytes.
+     * @param maxBytes
+     * @return budget
+     */
+    public static MemoryBudget create(long maxBytes) {
+        return new MemoryBudget(maxBytes, SizeEstimator.fixed(ITEM_SIZE));
+    }
+
+    /**
+     * Factory method.
+     * @param maxBytes
+     * @param estimator
+     * @return budget
+     */
+    public static MemoryBudget create(long maxBytes, SizeEstimator estimator) {
+        return new MemoryBudget(maxBytes, estimator);
+    }
+}
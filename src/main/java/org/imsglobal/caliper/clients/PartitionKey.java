@@ -0,0 +1,67 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.entities.CaliperEntity;
+import org.imsglobal.caliper.events.CaliperEvent;
+
+/**
+ * Identifies the property used to assign Caliper data to a delivery lane.  Data that share a key are
+ * always assigned to the same lane and are therefore delivered in order.
+ */
+public enum PartitionKey {
+    ACTOR,
+    SESSION;
+
+    /**
+     * Resolve the key of an event or entity.  Events are keyed by actor or, for SESSION, by session
+     * falling back to the actor when the event carries no session.  Entities are keyed by their own id.
+     * Pre-serialized data resolves the keys it retained from the event or entity it was serialized from.
+     * @param sendable
+     * @return key or null if none can be resolved
+     */
+    public String keyOf(CaliperSendable sendable) {
+        if (sendable instanceof CaliperEvent) {
+            CaliperEvent event = (CaliperEvent) sendable;
+            if (this == SESSION && event.getSession() != null) {
+                return event.getSession().getId();
+            }
+            return event.getActor() != null ? event.getActor().getId() : null;
+        } else if (sendable instanceof CaliperEntity) {
+            return ((CaliperEntity) sendable).getId();
+        } else if (sendable instanceof Keyed) {
+            return ((Keyed) sendable).keyOf(this);
+        }
+        return null;
+    }
+
+    /**
+     * Implemented by data that no longer carries its event or entity, e.g., data serialized on enqueue
+     * by a BatchingClient, but retains the partition keys resolved from it.
+     */
+    public interface Keyed {
+
+        /**
+         * @param key
+         * @return key or null if none was resolved
+         */
+        String keyOf(PartitionKey key);
+    }
+}
@@ -0,0 +1,493 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.imsglobal.caliper.validators.SensorValidator;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Delivers Envelope data over N lanes in parallel.  Each event is hashed to a lane by actor or session
+ * id, and each lane delivers its data in order on its own thread through its own Client (and therefore
+ * its own connections).  Per-learner ordering is thus preserved while throughput scales with the number
+ * of lanes.  When a lane's queue is full, send() blocks until the lane catches up.  If a MemoryBudget is
+ * configured, the estimated size of each queued Envelope is reserved against it until the Envelope is
+ * delivered, and Envelopes that do not fit are rejected.
+ *
+ * Because delivery is asynchronous, failures are logged and recorded in Statistics rather than thrown to
+ * the caller of send().
+ */
+public class PartitionedClient implements CaliperClient {
+    private final String id;
+    private final PartitionKey partitionKey;
+    private final List<Lane> lanes;
+    private final Statistics statistics;
+    private final SendListeners listeners = new SendListeners();
+    private final MemoryBudget budget;
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    /**
+     * Default number of Envelopes queued per lane.
+     */
+    public static final int LANE_CAPACITY = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedClient.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory methods.
+     * @param id
+     * @param clients
+     * @param partitionKey
+     * @param laneCapacity
+     * @param budget
+     */
+    private PartitionedClient(String id, List<? extends CaliperClient> clients, PartitionKey partitionKey,
+                              int laneCapacity, MemoryBudget budget) {
+        SensorValidator.chkId(id, this.getClass().getSimpleName());
+        checkArgument(clients != null && !clients.isEmpty(), "At least one lane client must be specified.");
+
+        this.id = id;
+        this.partitionKey = partitionKey;
+        this.statistics = new Statistics();
+        this.budget = budget;
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("caliper-lane-" + id + "-%d")
+            .setDaemon(true)
+            .build();
+
+        ImmutableList.Builder<Lane> builder = ImmutableList.builder();
+        for (CaliperClient client : clients) {
+            Lane lane = new Lane(client, SensorValidator.chkPositiveIntValue(laneCapacity, LANE_CAPACITY));
+            lane.thread = threadFactory.newThread(lane);
+            lane.thread.start();
+            builder.add(lane);
+        }
+        this.lanes = builder.build();
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Retrieve options of the first lane client.
+     * @return options
+     */
+    public CaliperClientOptions getOptions() {
+        return lanes.get(0).client.getOptions();
+    }
+
+    /**
+     * Get statistics aggregated across lanes.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Get listeners.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Get the number of lanes.
+     * @return lane count
+     */
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Get the partition key.
+     * @return partition key
+     */
+    @Nonnull
+    public PartitionKey getPartitionKey() {
+        return partitionKey;
+    }
+
+    /**
+     * Split the Envelope data by lane, preserving order, and queue each part on its lane.
+     * @param envelope
+     * @throws BufferFullException if the memory budget is exhausted
+     */
+    @Override
+    public void send(Envelope envelope) {
+        // The read lock makes the closed check and the enqueue atomic with respect to close()
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("PartitionedClient " + id + " is closed.");
+            }
+            queue(envelope);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reserve the Envelope's size and queue each part on its lane.
+     * @param envelope
+     */
+    private void queue(Envelope envelope) {
+        int laneCount = lanes.size();
+        List<List<CaliperSendable>> parts = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            parts.add(null);
+        }
+
+        for (CaliperSendable item : envelope.getData()) {
+            int lane = laneOf(partitionKey.keyOf(item), laneCount);
+            if (parts.get(lane) == null) {
+                parts.set(lane, new ArrayList<CaliperSendable>());
+            }
+            parts.get(lane).add(item);
+        }
+
+        long[] sizes = new long[laneCount];
+        if (budget != null) {
+            long total = 0;
+            for (int i = 0; i < laneCount; i++) {
+                if (parts.get(i) != null) {
+                    sizes[i] = MemoryBudget.ENVELOPE_SIZE;
+                    for (CaliperSendable item : parts.get(i)) {
+                        sizes[i] += budget.sizeOf(item);
+                    }
+                    total += sizes[i];
+                }
+            }
+            if (!budget.tryReserve(total)) {
+                listeners.dropped(id, envelope, DropReason.BUFFER_FULL);
+                throw new BufferFullException("Memory budget exhausted; client " + id + " cannot queue "
+                    + total + " bytes (" + budget.getUsedBytes() + " of " + budget.getMaxBytes() + " bytes used).");
+            }
+        }
+
+        for (int i = 0; i < laneCount; i++) {
+            List<CaliperSendable> part = parts.get(i);
+            if (part != null) {
+                Queued queued = new Queued(envelope.getSensorId(), envelope.getSendTime(),
+                    envelope.getDataVersion(), part, sizes[i]);
+                lanes.get(i).enqueue(queued);
+                listeners.enqueued(id, queued);
+            }
+        }
+    }
+
+    /**
+     * Open the connections of every lane's client ahead of the first Envelope.
+     */
+    @Override
+    public void warmUp() {
+        for (Lane lane : lanes) {
+            lane.client.warmUp();
+        }
+    }
+
+    /**
+     * Wait, up to the timeout, until every Envelope queued before the call has been delivered and the
+     * lane clients have been flushed.
+     * @param timeout
+     * @param unit
+     * @return true if all queued Envelopes were delivered before the timeout elapsed
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        CountDownLatch latch = new CountDownLatch(lanes.size());
+        try {
+            for (Lane lane : lanes) {
+                if (!lane.queue.offer(new Marker(latch), remaining(deadline), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            }
+            if (!latch.await(remaining(deadline), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        boolean flushed = true;
+        for (Lane lane : lanes) {
+            flushed &= lane.client.flush(remaining(deadline), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Stop accepting Envelopes, deliver those already queued, stop the lane threads and close the lane
+     * clients.  Envelopes still queued when the timeout elapses are dropped as undeliverable and their
+     * reservations released.
+     * @param timeout
+     * @param unit
+     * @return true if all queued Envelopes were delivered before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean locked = false;
+        try {
+            // Wait for sends already past the closed check; lanes keep draining, so a blocked put completes
+            locked = closeLock.writeLock().tryLock(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        if (locked) {
+            closeLock.writeLock().unlock();
+        }
+        boolean flushed = flush(remaining(deadline), TimeUnit.NANOSECONDS);
+
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+        try {
+            for (Lane lane : lanes) {
+                lane.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining(deadline))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Lane lane : lanes) {
+            flushed &= lane.drain() == 0;
+            flushed &= lane.client.close(remaining(deadline), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * @param deadline
+     * @return nanoseconds remaining until the deadline, never negative
+     */
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * Map a key onto a lane.  Data without a key are assigned to the first lane.
+     * @param key
+     * @param laneCount
+     * @return lane index
+     */
+    static int laneOf(String key, int laneCount) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return (h & 0x7fffffff) % laneCount;
+    }
+
+    /**
+     * Update statistics
+     * @param status
+     */
+    private void updateStatistics(boolean status) {
+        statistics.updateMeasures(1);
+        if (status) {
+            statistics.updateSuccessful(1);
+        } else {
+            statistics.updateFailed(1);
+        }
+    }
+
+    /**
+     * Queue entry that releases a latch once all preceding entries have been delivered.
+     */
+    private static class Marker extends Envelope {
+        private final CountDownLatch latch;
+
+        private Marker(CountDownLatch latch) {
+            super("", null, "", new ArrayList<CaliperSendable>());
+            this.latch = latch;
+        }
+    }
+
+    /**
+     * Queue entry that carries the size reserved for it against the memory budget.
+     */
+    private static class Queued extends Envelope {
+        private final long size;
+
+        private Queued(String sensorId, DateTime sendTime, String dataVersion, List<CaliperSendable> data,
+                       long size) {
+            super(sensorId, sendTime, dataVersion, data);
+            this.size = size;
+        }
+    }
+
+    /**
+     * A single-threaded, order preserving delivery lane.
+     */
+    private class Lane implements Runnable {
+        private final CaliperClient client;
+        private final BlockingQueue<Envelope> queue;
+        private Thread thread;
+
+        private Lane(CaliperClient client, int capacity) {
+            this.client = client;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void enqueue(Queued envelope) {
+            try {
+                queue.put(envelope);
+            } catch (InterruptedException e) {
+                release(envelope);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing envelope on lane.", e);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Envelope envelope;
+                try {
+                    envelope = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                if (envelope instanceof Marker) {
+                    ((Marker) envelope).latch.countDown();
+                    continue;
+                }
+
+                try {
+                    client.send(envelope);
+                    updateStatistics(true);
+                } catch (RuntimeException e) {
+                    updateStatistics(false);
+                    log.warn("Envelope of " + envelope.getData().size() + " items could not be delivered by lane client "
+                        + client.getId(), e);
+                    listeners.dropped(id, envelope, DropReason.UNDELIVERABLE);
+                } finally {
+                    release((Queued) envelope);
+                }
+            }
+        }
+
+        /**
+         * Drop the entries left on the queue of a stopped lane, releasing their reservations and any
+         * flush() waiting on a marker.
+         * @return number of Envelopes dropped
+         */
+        private int drain() {
+            int dropped = 0;
+            Envelope envelope;
+            while ((envelope = queue.poll()) != null) {
+                if (envelope instanceof Marker) {
+                    ((Marker) envelope).latch.countDown();
+                    continue;
+                }
+                updateStatistics(false);
+                listeners.dropped(id, envelope, DropReason.UNDELIVERABLE);
+                release((Queued) envelope);
+                dropped++;
+            }
+            if (dropped > 0) {
+                log.warn(dropped + " Envelopes queued on lane client " + client.getId()
+                    + " were dropped when client " + id + " closed.");
+            }
+            return dropped;
+        }
+
+        private void release(Queued envelope) {
+            if (budget != null) {
+                budget.release(envelope.size);
+            }
+        }
+    }
+
+    /**
+     * Factory method that partitions by actor.
+     * @param id
+     * @param clients one client per lane
+     * @return PartitionedClient
+     */
+    public static PartitionedClient create(String id, List<? extends CaliperClient> clients) {
+        return new PartitionedClient(id, clients, PartitionKey.ACTOR, LANE_CAPACITY, null);
+    }
+
+    /**
+     * Factory method.
+     * @param id
+     * @param clients one client per lane
+     * @param partitionKey
+     * @param laneCapacity number of Envelopes queued per lane
+     * @return PartitionedClient
+     */
+    public static PartitionedClient create(String id, List<? extends CaliperClient> clients,
+                                           PartitionKey partitionKey, int laneCapacity) {
+        return new PartitionedClient(id, clients, partitionKey, laneCapacity, null);
+    }
+
+    /**
+     * Factory method that accounts queued Envelopes against a memory budget.
+     * @param id
+     * @param clients one client per lane
+     * @param partitionKey
+     * @param laneCapacity number of Envelopes queued per lane
+     * @param budget
+     * @return PartitionedClient
+     */
+    public static PartitionedClient create(String id, List<? extends CaliperClient> clients,
+                                           PartitionKey partitionKey, int laneCapacity, MemoryBudget budget) {
+        return new PartitionedClient(id, clients, partitionKey, laneCapacity, budget);
+    }
+}
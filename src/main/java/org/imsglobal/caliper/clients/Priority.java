@@ -0,0 +1,40 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+/**
+ * Delivery priority classes of a PriorityClient, highest first.
+ */
+public enum Priority {
+    /**
+     * Events acted upon downstream in near real time, e.g., grades and logouts.  Never shed; when the
+     * queue is full, send() waits.
+     */
+    HIGH,
+
+    /**
+     * Events without an assigned priority.
+     */
+    NORMAL,
+
+    /**
+     * High volume, low value events, e.g., page views.
+     */
+    LOW
+}
@@ -0,0 +1,502 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorates a Client with priority lanes.  Each event is assigned a Priority by event type and action
+ * and queued with the other events of its class; send workers drain the queues by smooth weighted
+ * round robin, so a flood of low priority events cannot hold up high priority ones.
+ *
+ * Under backpressure, NORMAL and LOW Envelopes arriving at a full queue are shed: handed to the spill
+ * Client (e.g., a FileClient) if one is provided or else dropped.  LOW traffic goes first: NORMAL
+ * Envelopes may use room left in the LOW queue and, once both are full, evict the most recently queued
+ * LOW Envelope rather than be shed themselves.  HIGH Envelopes are never shed; send() waits for room
+ * instead.  If a MemoryBudget is configured, the estimated size of each queued
+ * Envelope is reserved against it until delivery: NORMAL Envelopes that do not fit are shed, LOW ones
+ * are shed as soon as the budget passes its high-water mark, and HIGH ones are always admitted.
+ * Delivery is asynchronous, so delivery failures are logged rather than thrown.  The decorator shares
+ * the delegate's identifier and Statistics.
+ */
+public class PriorityClient implements CaliperClient {
+    private final CaliperClient delegate;
+    private final CaliperClient spill;
+    private final PriorityOptions options;
+    private final MemoryBudget budget;
+    private final Map<Priority, ArrayDeque<Envelope>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Integer> currentWeights = new EnumMap<>(Priority.class);
+    private final List<Thread> workers = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private int queued;
+    private int inFlight;
+    private boolean closed;
+
+    private static final Logger log = LoggerFactory.getLogger(PriorityClient.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory methods.
+     * @param delegate
+     * @param options
+     * @param spill
+     */
+    private PriorityClient(CaliperClient delegate, PriorityOptions options, CaliperClient spill) {
+        this.delegate = delegate;
+        this.spill = spill;
+        this.options = options;
+        this.budget = options.getMemoryBudget();
+
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<Envelope>());
+            currentWeights.put(priority, 0);
+        }
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("caliper-priority-" + delegate.getId() + "-%d")
+            .setDaemon(true)
+            .build();
+        for (int i = 0; i < options.getWorkers(); i++) {
+            Thread worker = threadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    drain();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return delegate.getId();
+    }
+
+    /**
+     * Retrieve options
+     * @return options
+     */
+    public CaliperClientOptions getOptions() {
+        return delegate.getOptions();
+    }
+
+    /**
+     * Get statistics.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    /**
+     * Get listeners, shared with the delegate.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return delegate.getListeners();
+    }
+
+    /**
+     * Get the spill client.
+     * @return spill or null if shed Envelopes are dropped
+     */
+    @Nullable
+    public CaliperClient getSpill() {
+        return spill;
+    }
+
+    /**
+     * Get the number of Envelopes queued for a class.
+     * @param priority
+     * @return queue depth
+     */
+    public int getQueued(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Split the Envelope data by priority and queue each part on its class.
+     * @param envelope
+     */
+    @Override
+    public void send(Envelope envelope) {
+        Map<Priority, List<CaliperSendable>> parts = new EnumMap<>(Priority.class);
+        for (CaliperSendable item : envelope.getData()) {
+            Priority priority = (item instanceof CaliperEvent)
+                ? options.priorityOf((CaliperEvent) item) : Priority.NORMAL;
+            List<CaliperSendable> part = parts.get(priority);
+            if (part == null) {
+                part = new ArrayList<>();
+                parts.put(priority, part);
+            }
+            part.add(item);
+        }
+
+        Map<Priority, Queued> queuedParts = new EnumMap<>(Priority.class);
+        for (Map.Entry<Priority, List<CaliperSendable>> entry : parts.entrySet()) {
+            long size = 0;
+            if (budget != null) {
+                size = MemoryBudget.ENVELOPE_SIZE;
+                for (CaliperSendable item : entry.getValue()) {
+                    size += budget.sizeOf(item);
+                }
+            }
+            queuedParts.put(entry.getKey(), new Queued(envelope.getSensorId(), envelope.getSendTime(),
+                envelope.getDataVersion(), entry.getValue(), size));
+        }
+
+        List<Envelope> shed = new ArrayList<>();
+        lock.lock();
+        try {
+            // Wait for HIGH room before queuing anything, so that no part is queued if close() intervenes
+            if (queuedParts.containsKey(Priority.HIGH)) {
+                while (!closed && queues.get(Priority.HIGH).size() >= options.getCapacity(Priority.HIGH)) {
+                    notFull.awaitUninterruptibly();
+                }
+            }
+            if (closed) {
+                throw new IllegalStateException("PriorityClient " + getId() + " is closed.");
+            }
+
+            for (Map.Entry<Priority, Queued> entry : queuedParts.entrySet()) {
+                Priority priority = entry.getKey();
+                Queued part = entry.getValue();
+
+                if (!reserve(priority, part.size)) {
+                    shed.add(part);
+                } else if (!makeRoom(priority, shed)) {
+                    if (budget != null) {
+                        budget.release(part.size);
+                    }
+                    shed.add(part);
+                } else {
+                    queues.get(priority).add(part);
+                    getListeners().enqueued(getId(), part);
+                    queued++;
+                    notEmpty.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Envelope part : shed) {
+            shed(part);
+        }
+    }
+
+    /**
+     * Open the connections of the delegate and the spill Client ahead of the first Envelope.
+     */
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+        if (spill != null) {
+            spill.warmUp();
+        }
+    }
+
+    /**
+     * Wait, up to the timeout, until the queues are drained, then flush the delegate and spill client.
+     * @param timeout
+     * @param unit
+     * @return true if everything was delivered before the timeout elapsed
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (queued > 0 || inFlight > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                idle.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+
+        boolean flushed = delegate.flush(remaining(deadline), TimeUnit.NANOSECONDS);
+        if (spill != null) {
+            flushed &= spill.flush(remaining(deadline), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Stop accepting Envelopes, drain the queues, stop the workers and close the delegate and spill
+     * client.
+     * @param timeout
+     * @param unit
+     * @return true if everything was delivered before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            for (Thread worker : workers) {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining(deadline))));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        boolean flushed = flush(remaining(deadline), TimeUnit.NANOSECONDS);
+        flushed &= delegate.close(remaining(deadline), TimeUnit.NANOSECONDS);
+        if (spill != null) {
+            flushed &= spill.close(remaining(deadline), TimeUnit.NANOSECONDS);
+        }
+        return flushed;
+    }
+
+    /**
+     * Worker loop: take Envelopes by weighted round robin and deliver them until closed and drained.
+     */
+    private void drain() {
+        while (true) {
+            Envelope envelope;
+            lock.lock();
+            try {
+                while (queued == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (queued == 0) {
+                    return;
+                }
+
+                Priority priority = nextPriority();
+                envelope = queues.get(priority).poll();
+                queued--;
+                inFlight++;
+                if (priority == Priority.HIGH) {
+                    notFull.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                delegate.send(envelope);
+            } catch (RuntimeException e) {
+                log.warn("Envelope of " + envelope.getData().size() + " items could not be delivered by client "
+                    + getId(), e);
+                getListeners().dropped(getId(), envelope, DropReason.UNDELIVERABLE);
+            } finally {
+                if (budget != null) {
+                    budget.release(((Queued) envelope).size);
+                }
+                lock.lock();
+                try {
+                    inFlight--;
+                    if (queued == 0 && inFlight == 0) {
+                        idle.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserve the size of an Envelope against the memory budget, if any, according to its priority.
+     * @param priority
+     * @param size
+     * @return true if reserved, false if the Envelope must be shed
+     */
+    private boolean reserve(Priority priority, long size) {
+        if (budget == null) {
+            return true;
+        }
+        switch (priority) {
+            case HIGH:
+                budget.reserve(size);
+                return true;
+            case LOW:
+                return !budget.isAboveHighWaterMark() && budget.tryReserve(size);
+            default:
+                return budget.tryReserve(size);
+        }
+    }
+
+    /**
+     * Check that the queue of a class has room for another Envelope.  NORMAL Envelopes may use room left
+     * in the LOW queue and, failing that, evict the most recently queued LOW Envelope.  Called with the
+     * lock held.
+     * @param priority
+     * @param shed collects evicted Envelopes, to be shed once the lock is released
+     * @return true if there is room
+     */
+    private boolean makeRoom(Priority priority, List<Envelope> shed) {
+        if (priority == Priority.HIGH) {
+            return queues.get(priority).size() < options.getCapacity(priority);
+        }
+
+        ArrayDeque<Envelope> low = queues.get(Priority.LOW);
+        boolean sharedRoom = queues.get(Priority.NORMAL).size() + low.size()
+            < (long) options.getCapacity(Priority.NORMAL) + options.getCapacity(Priority.LOW);
+        if (priority == Priority.LOW) {
+            return sharedRoom && low.size() < options.getCapacity(Priority.LOW);
+        }
+        if (sharedRoom) {
+            return true;
+        }
+        Envelope evicted = low.pollLast();
+        if (evicted == null) {
+            return false;
+        }
+        queued--;
+        if (budget != null) {
+            budget.release(((Queued) evicted).size);
+        }
+        shed.add(evicted);
+        return true;
+    }
+
+    /**
+     * Smooth weighted round robin over the non-empty queues.  Called with the lock held.
+     * @return priority of the queue to take from
+     */
+    private Priority nextPriority() {
+        Priority best = null;
+        int total = 0;
+        for (Priority priority : Priority.values()) {
+            if (queues.get(priority).isEmpty()) {
+                continue;
+            }
+            int weight = options.getWeight(priority);
+            int current = currentWeights.get(priority) + weight;
+            currentWeights.put(priority, current);
+            total += weight;
+            if (best == null || current > currentWeights.get(best)) {
+                best = priority;
+            }
+        }
+        currentWeights.put(best, currentWeights.get(best) - total);
+        return best;
+    }
+
+    /**
+     * Hand a shed Envelope to the spill client or drop it.
+     * @param envelope
+     */
+    private void shed(Envelope envelope) {
+        getStatistics().updateShed(envelope.getData().size());
+        if (spill != null) {
+            spill.send(envelope);
+        } else {
+            getListeners().dropped(getId(), envelope, DropReason.SHED);
+            if (log.isDebugEnabled()) {
+                log.debug("Queue or memory budget full for client " + getId() + "; envelope of "
+                    + envelope.getData().size() + " items dropped.");
+            }
+        }
+    }
+
+    /**
+     * Queue entry that carries the size reserved for it against the memory budget.
+     */
+    private static class Queued extends Envelope {
+        private final long size;
+
+        private Queued(String sensorId, DateTime sendTime, String dataVersion, List<CaliperSendable> data,
+                       long size) {
+            super(sensorId, sendTime, dataVersion, data);
+            this.size = size;
+        }
+    }
+
+    /**
+     * @param deadline
+     * @return nanoseconds remaining until the deadline, never negative
+     */
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * Factory method that drops shed Envelopes.
+     * @param delegate
+     * @param options
+     * @return PriorityClient
+     */
+    public static PriorityClient create(CaliperClient delegate, PriorityOptions options) {
+        return new PriorityClient(delegate, options, null);
+    }
+
+    /**
+     * Factory method that spills shed Envelopes to another Client.
+     * @param delegate
+     * @param options
+     * @param spill
+     * @return PriorityClient
+     */
+    public static PriorityClient create(CaliperClient delegate, PriorityOptions options, CaliperClient spill) {
+        return new PriorityClient(delegate, options, spill);
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.collect.ImmutableMap;
+import org.imsglobal.caliper.actions.CaliperAction;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.events.CaliperEventType;
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Priority lane options.  Priorities are assigned by event type, optionally narrowed by action; an
+ * assignment for a type and action takes precedence over one for the type alone.  Review the default
+ * weights and capacities against the relative volumes of each class.
+ */
+public class PriorityOptions {
+    private final ImmutableMap<String, Priority> priorities;
+    private final ImmutableMap<Priority, Integer> weights;
+    private final ImmutableMap<Priority, Integer> capacities;
+    private final int workers;
+    private final MemoryBudget memoryBudget;
+
+    /**
+     * Default draining weights: the number of Envelopes taken from a class for every one taken from a
+     * class of weight 1 while both are backlogged.
+     */
+    public static final int HIGH_WEIGHT = 8;
+    public static final int NORMAL_WEIGHT = 4;
+    public static final int LOW_WEIGHT = 1;
+
+    /**
+     * Default number of Envelopes queued per class.
+     */
+    public static final int CAPACITY = 1000;
+
+    /**
+     * Default number of send workers.
+     */
+    public static final int WORKERS = 1;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private PriorityOptions(OptionsBuilder builder) {
+        this.priorities = ImmutableMap.copyOf(builder.priorities);
+
+        Map<Priority, Integer> weights = new EnumMap<>(Priority.class);
+        Map<Priority, Integer> capacities = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            weights.put(priority, SensorValidator.chkPositiveIntValue(valueOf(builder.weights, priority),
+                defaultWeight(priority)));
+            capacities.put(priority, SensorValidator.chkPositiveIntValue(valueOf(builder.capacities, priority),
+                CAPACITY));
+        }
+        this.weights = ImmutableMap.copyOf(weights);
+        this.capacities = ImmutableMap.copyOf(capacities);
+        this.workers = SensorValidator.chkPositiveIntValue(builder.workers, WORKERS);
+        this.memoryBudget = builder.memoryBudget;
+    }
+
+    private static int valueOf(Map<Priority, Integer> map, Priority priority) {
+        Integer value = map.get(priority);
+        return value != null ? value : 0;
+    }
+
+    private static int defaultWeight(Priority priority) {
+        switch (priority) {
+            case HIGH:
+                return HIGH_WEIGHT;
+            case LOW:
+                return LOW_WEIGHT;
+            default:
+                return NORMAL_WEIGHT;
+        }
+    }
+
+    /**
+     * Resolve the priority of an event.
+     * @param event
+     * @return priority, NORMAL if none is assigned
+     */
+    public Priority priorityOf(CaliperEvent event) {
+        if (event.getType() == null) {
+            return Priority.NORMAL;
+        }
+        Priority priority = null;
+        if (event.getAction() != null) {
+            priority = priorities.get(key(event.getType(), event.getAction()));
+        }
+        if (priority == null) {
+            priority = priorities.get(key(event.getType(), null));
+        }
+        return priority != null ? priority : Priority.NORMAL;
+    }
+
+    /**
+     * Get the draining weight of a class.
+     * @param priority
+     * @return weight
+     */
+    public int getWeight(Priority priority) {
+        return weights.get(priority);
+    }
+
+    /**
+     * Get the number of Envelopes queued for a class.
+     * @param priority
+     * @return capacity
+     */
+    public int getCapacity(Priority priority) {
+        return capacities.get(priority);
+    }
+
+    /**
+     * Get the number of send workers.
+     * @return workers
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Get the budget against which queued Envelopes are accounted.
+     * @return budget or null if unaccounted
+     */
+    public MemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    private static String key(CaliperEventType type, CaliperAction action) {
+        return type.value() + "\n" + (action != null ? action.value() : "");
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private Map<String, Priority> priorities = new HashMap<>();
+        private Map<Priority, Integer> weights = new EnumMap<>(Priority.class);
+        private Map<Priority, Integer> capacities = new EnumMap<>(Priority.class);
+        private int workers = 0;
+        private MemoryBudget memoryBudget = null;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * Assign a priority to every event of a type.
+         * @param type
+         * @param priority
+         * @return builder
+         */
+        public OptionsBuilder priority(final CaliperEventType type, final Priority priority) {
+            return priority(type, null, priority);
+        }
+
+        /**
+         * Assign a priority to the events of a type with the given action.
+         * @param type
+         * @param action
+         * @param priority
+         * @return builder
+         */
+        public OptionsBuilder priority(final CaliperEventType type, final CaliperAction action,
+                                       final Priority priority) {
+            checkArgument(type != null && priority != null, "Event type and priority must be specified.");
+            this.priorities.put(key(type, action), priority);
+            return this;
+        }
+
+        /**
+         * @param priority
+         * @param weight
+         * @return builder
+         */
+        public OptionsBuilder weight(final Priority priority, final int weight) {
+            this.weights.put(priority, weight);
+            return this;
+        }
+
+        /**
+         * @param priority
+         * @param capacity
+         * @return builder
+         */
+        public OptionsBuilder capacity(final Priority priority, final int capacity) {
+            this.capacities.put(priority, capacity);
+            return this;
+        }
+
+        /**
+         * @param workers
+         * @return builder
+         */
+        public OptionsBuilder workers(final int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * @param memoryBudget
+         * @return builder
+         */
+        public OptionsBuilder memoryBudget(final MemoryBudget memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public PriorityOptions build() {
+            return new PriorityOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
@@ -0,0 +1,385 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.databind.ParallelEnvelopeWriter;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Runtime shared by many Sensors in one JVM, e.g., one per tenant institution, each with its own
+ * identifier, API key and hosts.  Rather than each Sensor owning a connection pool and threads, Sensors
+ * attach to the runtime and send through a TenantClient that queues Envelopes with it.  The runtime
+ * owns one connection pool (with a per-route limit), one envelope writer, one set of worker threads
+ * and, optionally, one memory budget.
+ *
+ * Workers serve tenants round-robin, one Envelope per turn, and deliver at most maxInFlightPerTenant
+ * Envelopes of a tenant at a time; each tenant's queue is bounded.  A noisy tenant thus fills its own
+ * queue and waits its turn rather than starving the others.  Statistics are kept per tenant.
+ */
+public class SensorRuntime {
+    private final SensorRuntimeOptions options;
+    private final CloseableHttpClient httpClient;
+    private final ParallelEnvelopeWriter writer;
+    private final MemoryBudget budget;
+    private final Map<String, TenantClient> tenants = new LinkedHashMap<>();
+    private final ArrayDeque<TenantClient> ready = new ArrayDeque<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private boolean closed;
+
+    private static final Logger log = LoggerFactory.getLogger(SensorRuntime.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param options
+     */
+    private SensorRuntime(SensorRuntimeOptions options) {
+        this.options = options;
+        this.budget = options.getMemoryBudget();
+        this.writer = ParallelEnvelopeWriter.create(options.getParallelSerializationThreshold());
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(options.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(options.getMaxConnectionsPerRoute());
+        this.httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .build();
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("caliper-runtime-%d")
+            .setDaemon(true)
+            .build();
+        for (int i = 0; i < options.getWorkerThreads(); i++) {
+            Thread worker = threadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    drain();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Get the options.
+     * @return options
+     */
+    public SensorRuntimeOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Get the memory budget shared by all tenants.
+     * @return memory budget or null if queued Envelopes are unaccounted
+     */
+    public MemoryBudget getMemoryBudget() {
+        return budget;
+    }
+
+    /**
+     * Attach a Sensor: create a TenantClient that posts to the endpoint described by the options over
+     * the shared connection pool and register it with the Sensor.  The client takes the Sensor's
+     * identifier, which must be unique within the runtime.
+     * @param sensor
+     * @param clientOptions
+     * @return tenant client
+     */
+    public TenantClient attach(Sensor sensor, HttpClientOptions clientOptions) {
+        checkArgument(sensor != null, "Sensor must be specified.");
+        checkArgument(clientOptions != null, "Client options must be specified.");
+
+        TenantClient tenant = new TenantClient(this,
+            HttpClient.create(sensor.getId(), clientOptions, httpClient, writer));
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("SensorRuntime is closed.");
+            }
+            checkArgument(!tenants.containsKey(tenant.getId()), "Sensor " + tenant.getId() + " is already attached.");
+            tenants.put(tenant.getId(), tenant);
+        } finally {
+            lock.unlock();
+        }
+        sensor.registerClient(tenant);
+        return tenant;
+    }
+
+    /**
+     * Get the attached tenants keyed by Sensor identifier.
+     * @return tenants
+     */
+    public Map<String, TenantClient> getTenants() {
+        lock.lock();
+        try {
+            return ImmutableMap.copyOf(tenants);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get statistics keyed by Sensor identifier.
+     * @return statistics
+     */
+    public Map<String, Statistics> getTenantStatistics() {
+        Map<String, Statistics> statistics = new LinkedHashMap<>();
+        for (TenantClient tenant : getTenants().values()) {
+            statistics.put(tenant.getId(), tenant.getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Queue an Envelope of a tenant.  If a memory budget is configured, the Envelope is serialized here,
+     * once, and the size of the serialized form is reserved against the budget.
+     * @param tenant
+     * @param envelope
+     */
+    void enqueue(TenantClient tenant, Envelope envelope) {
+        String json = null;
+        long size = 0;
+        if (budget != null) {
+            json = tenant.serialize(envelope);
+            size = MemoryBudget.ENVELOPE_SIZE + 2L * json.length();
+            if (!budget.tryReserve(size)) {
+                reject(tenant, envelope, "Memory budget exhausted; tenant " + tenant.getId() + " cannot queue "
+                    + size + " bytes (" + budget.getUsedBytes() + " of " + budget.getMaxBytes() + " bytes used).");
+            }
+        }
+
+        lock.lock();
+        try {
+            if (closed || tenant.closed) {
+                release(size);
+                throw new IllegalStateException("Client " + tenant.getId() + " is closed.");
+            }
+            if (tenant.queue.size() >= options.getTenantQueueCapacity()) {
+                release(size);
+                reject(tenant, envelope, "Queue of tenant " + tenant.getId() + " is full ("
+                    + tenant.queue.size() + " envelopes).");
+            }
+            tenant.queue.addLast(new TenantClient.Queued(envelope, json, size));
+            schedule(tenant);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release bytes reserved against the memory budget, if any.
+     * @param size
+     */
+    private void release(long size) {
+        if (budget != null) {
+            budget.release(size);
+        }
+    }
+
+    /**
+     * Count, report and reject an Envelope that cannot be queued.
+     * @param tenant
+     * @param envelope
+     * @param message
+     * @throws BufferFullException
+     */
+    private static void reject(TenantClient tenant, Envelope envelope, String message) {
+        tenant.getStatistics().updateBudgetRejected(1);
+        tenant.getListeners().dropped(tenant.getId(), envelope, DropReason.BUFFER_FULL);
+        throw new BufferFullException(message);
+    }
+
+    /**
+     * Put the tenant at the back of the round-robin if it has queued Envelopes, may deliver another and
+     * is not already waiting its turn.  Caller holds the lock.
+     * @param tenant
+     */
+    private void schedule(TenantClient tenant) {
+        if (!tenant.ready && !tenant.queue.isEmpty() && tenant.inFlight < options.getMaxInFlightPerTenant()) {
+            tenant.ready = true;
+            ready.addLast(tenant);
+            notEmpty.signal();
+        }
+    }
+
+    /**
+     * Worker loop: take one Envelope from the tenant whose turn it is and deliver it.
+     */
+    private void drain() {
+        while (true) {
+            TenantClient tenant;
+            TenantClient.Queued queued;
+            lock.lock();
+            try {
+                while (ready.isEmpty() && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (ready.isEmpty()) {
+                    return;
+                }
+                tenant = ready.pollFirst();
+                tenant.ready = false;
+                queued = tenant.queue.pollFirst();
+                tenant.inFlight++;
+                schedule(tenant);
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                tenant.deliver(queued);
+            } catch (RuntimeException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Delivery failed for tenant " + tenant.getId(), e);
+                }
+            } finally {
+                release(queued.size);
+                lock.lock();
+                try {
+                    tenant.inFlight--;
+                    schedule(tenant);
+                    idle.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait, up to the timeout, for a tenant's queued Envelopes to be delivered.
+     * @param tenant
+     * @param timeout
+     * @param unit
+     * @return true if delivered before the timeout elapsed
+     */
+    boolean flush(TenantClient tenant, long timeout, TimeUnit unit) {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!tenant.queue.isEmpty() || tenant.inFlight > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting a tenant's Envelopes, wait for its queue to drain and detach it.
+     * @param tenant
+     * @param timeout
+     * @param unit
+     * @return true if delivered before the timeout elapsed
+     */
+    boolean detach(TenantClient tenant, long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            tenant.closed = true;
+        } finally {
+            lock.unlock();
+        }
+        boolean flushed = flush(tenant, timeout, unit);
+        lock.lock();
+        try {
+            tenants.remove(tenant.getId());
+        } finally {
+            lock.unlock();
+        }
+        return flushed;
+    }
+
+    /**
+     * Close every tenant, stop the workers once the queues are drained and close the connection pool.
+     * @param timeout
+     * @param unit
+     * @return true if all queued Envelopes were delivered before the timeout elapsed
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean flushed = true;
+        for (TenantClient tenant : getTenants().values()) {
+            flushed &= tenant.close(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Unable to close connection pool of SensorRuntime", e);
+        }
+        return flushed;
+    }
+
+    /**
+     * Factory method.
+     * @param options
+     * @return SensorRuntime
+     */
+    public static SensorRuntime create(SensorRuntimeOptions options) {
+        return new SensorRuntime(options);
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.databind.ParallelEnvelopeWriter;
+import org.imsglobal.caliper.validators.SensorValidator;
+
+/**
+ * SensorRuntime options.  Review default constants and size the pool and workers to the number of
+ * tenants and endpoints served by the JVM.
+ */
+public class SensorRuntimeOptions {
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final int workerThreads;
+    private final int maxInFlightPerTenant;
+    private final int tenantQueueCapacity;
+    private final int parallelSerializationThreshold;
+    private final MemoryBudget memoryBudget;
+
+    /**
+     * Default size of the shared connection pool and the maximum number of its connections open to a
+     * single endpoint.
+     */
+    public static final int MAX_CONNECTIONS = 200;
+    public static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+
+    /**
+     * Default number of threads that deliver Envelopes on behalf of all tenants.
+     */
+    public static final int WORKER_THREADS = 4;
+
+    /**
+     * Default maximum number of Envelopes of a single tenant being delivered at a time.
+     */
+    public static final int MAX_IN_FLIGHT_PER_TENANT = 2;
+
+    /**
+     * Default maximum number of Envelopes queued per tenant.
+     */
+    public static final int TENANT_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private SensorRuntimeOptions(OptionsBuilder builder) {
+        this.maxConnections = SensorValidator.chkPositiveIntValue(builder.maxConnections, MAX_CONNECTIONS);
+        this.maxConnectionsPerRoute = Math.min(SensorValidator.chkPositiveIntValue(builder.maxConnectionsPerRoute,
+            MAX_CONNECTIONS_PER_ROUTE), this.maxConnections);
+        this.workerThreads = SensorValidator.chkPositiveIntValue(builder.workerThreads, WORKER_THREADS);
+        this.maxInFlightPerTenant = SensorValidator.chkPositiveIntValue(builder.maxInFlightPerTenant,
+            MAX_IN_FLIGHT_PER_TENANT);
+        this.tenantQueueCapacity = SensorValidator.chkPositiveIntValue(builder.tenantQueueCapacity,
+            TENANT_QUEUE_CAPACITY);
+        this.parallelSerializationThreshold = SensorValidator.chkPositiveIntValue(
+            builder.parallelSerializationThreshold, ParallelEnvelopeWriter.THRESHOLD);
+        this.memoryBudget = builder.memoryBudget;
+    }
+
+    /**
+     * Get the maximum number of pooled connections shared by all tenants.
+     * @return max connections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Get the maximum number of pooled connections open to a single endpoint.
+     * @return max connections per route
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Get the number of worker threads.
+     * @return worker threads
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * Get the maximum number of Envelopes of a single tenant being delivered at a time.
+     * @return max in flight per tenant
+     */
+    public int getMaxInFlightPerTenant() {
+        return maxInFlightPerTenant;
+    }
+
+    /**
+     * Get the maximum number of Envelopes queued per tenant.
+     * @return tenant queue capacity
+     */
+    public int getTenantQueueCapacity() {
+        return tenantQueueCapacity;
+    }
+
+    /**
+     * Get the minimum number of items of an Envelope serialized in parallel.
+     * @return parallel serialization threshold
+     */
+    public int getParallelSerializationThreshold() {
+        return parallelSerializationThreshold;
+    }
+
+    /**
+     * Get the budget against which queued Envelopes are accounted.  If a budget is configured, each
+     * Envelope is serialized once, on enqueue, and its exact size is reserved; the serialized form is
+     * then posted by the worker.
+     * @return memory budget or null if queued Envelopes are unaccounted
+     */
+    public MemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private int maxConnections = 0;
+        private int maxConnectionsPerRoute = 0;
+        private int workerThreads = 0;
+        private int maxInFlightPerTenant = 0;
+        private int tenantQueueCapacity = 0;
+        private int parallelSerializationThreshold = 0;
+        private MemoryBudget memoryBudget = null;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param maxConnections
+         * @return builder
+         */
+        public OptionsBuilder maxConnections(final int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * @param maxConnectionsPerRoute
+         * @return builder
+         */
+        public OptionsBuilder maxConnectionsPerRoute(final int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * @param workerThreads
+         * @return builder
+         */
+        public OptionsBuilder workerThreads(final int workerThreads) {
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * @param maxInFlightPerTenant
+         * @return builder
+         */
+        public OptionsBuilder maxInFlightPerTenant(final int maxInFlightPerTenant) {
+            this.maxInFlightPerTenant = maxInFlightPerTenant;
+            return this;
+        }
+
+        /**
+         * @param tenantQueueCapacity
+         * @return builder
+         */
+        public OptionsBuilder tenantQueueCapacity(final int tenantQueueCapacity) {
+            this.tenantQueueCapacity = tenantQueueCapacity;
+            return this;
+        }
+
+        /**
+         * @param parallelSerializationThreshold
+         * @return builder
+         */
+        public OptionsBuilder parallelSerializationThreshold(final int parallelSerializationThreshold) {
+            this.parallelSerializationThreshold = parallelSerializationThreshold;
+            return this;
+        }
+
+        /**
+         * @param memoryBudget
+         * @return builder
+         */
+        public OptionsBuilder memoryBudget(final MemoryBudget memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public SensorRuntimeOptions build() {
+            return new SensorRuntimeOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
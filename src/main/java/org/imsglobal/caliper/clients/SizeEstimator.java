@@ -0,0 +1,80 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.databind.CaliperObjectMapper;
+import org.imsglobal.caliper.databind.RawJson;
+
+import java.io.IOException;
+
+/**
+ * Estimates the memory (bytes) retained by a buffered event or entity, for accounting against a
+ * MemoryBudget.  Pre-serialized RawJson data are always measured exactly.
+ */
+public interface SizeEstimator {
+
+    /**
+     * Estimate the size of an event or entity.
+     * @param item
+     * @return size (bytes)
+     */
+    long sizeOf(CaliperSendable item);
+
+    /**
+     * Measures the serialized size of each item.  Accurate, but pays the cost of serialization, so it must
+     * be chosen explicitly with MemoryBudget.create(maxBytes, SERIALIZED); prefer serializing on enqueue,
+     * which measures items as a side effect, where throughput matters.
+     */
+    SizeEstimator SERIALIZED = new SizeEstimator() {
+        @Override
+        public long sizeOf(CaliperSendable item) {
+            if (item instanceof RawJson) {
+                return ((RawJson) item).length();
+            }
+            CountingOutputStream out = new CountingOutputStream(ByteStreams.nullOutputStream());
+            try {
+                CaliperObjectMapper.writer().writeValue(out, item);
+            } catch (IOException e) {
+                return MemoryBudget.ITEM_SIZE;
+            }
+            return out.getCount();
+        }
+    };
+
+    /**
+     * Assumes every item other than pre-serialized RawJson retains the same number of bytes.  Cheap, but
+     * only as accurate as the estimate.
+     * @param bytes estimated size of an item
+     * @return estimator
+     */
+    static SizeEstimator fixed(final long bytes) {
+        return new SizeEstimator() {
+            @Override
+            public long sizeOf(CaliperSendable item) {
+                if (item instanceof RawJson) {
+                    return ((RawJson) item).length();
+                }
+                return bytes;
+            }
+        };
+    }
+}
@@ -0,0 +1,392 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.databind.ParallelEnvelopeWriter;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.imsglobal.caliper.validators.SensorValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams Envelopes to a local collector over a socket, avoiding the HTTP and TLS overhead of
+ * HttpClient.  Each Envelope is written as a frame: a 4-byte big-endian length followed by the
+ * serialized JSON (UTF-8).  Writes are pipelined; the collector acknowledges cumulatively, at a time
+ * of its choosing, by writing the 8-byte big-endian count of frames it has received on the
+ * connection.  At most maxInFlight frames may be unacknowledged, after which send() waits.
+ *
+ * Frames still unacknowledged when the connection fails are counted as failed; the next send()
+ * reconnects.
+ */
+public class SocketClient implements CaliperClient {
+    private final String id;
+    private final SocketClientOptions options;
+    private final Statistics statistics;
+    private final SendListeners listeners = new SendListeners();
+    private final ParallelEnvelopeWriter writer;
+    private final ThreadFactory threadFactory;
+    private final Object writeLock = new Object();
+    private final Object ackLock = new Object();
+    private volatile Connection connection;
+    private volatile boolean closed;
+
+    private static final Logger log = LoggerFactory.getLogger(SocketClient.class);
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param id
+     * @param options
+     */
+    private SocketClient(String id, SocketClientOptions options) {
+        SensorValidator.chkId(id, this.getClass().getSimpleName());
+        SensorValidator.chkOptions(options);
+
+        this.id = id;
+        this.options = options;
+        this.statistics = new Statistics();
+        this.writer = ParallelEnvelopeWriter.create(options.getParallelSerializationThreshold());
+        this.threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("caliper-socket-" + id + "-%d")
+            .setDaemon(true)
+            .build();
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Retrieve options
+     * @return options
+     */
+    public SocketClientOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Get statistics.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Get listeners.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Write the Envelope to the collector without waiting for it to be acknowledged.
+     * @param envelope
+     */
+    @Override
+    public void send(Envelope envelope) {
+        if (closed) {
+            throw new IllegalStateException("SocketClient " + id + " is closed.");
+        }
+
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(envelope);
+        } catch (IOException e) {
+            statistics.updateMeasures(1);
+            statistics.updateFailed(1);
+            CaliperClientException failure = new SerializationException("WARN: Envelope serialization failed; "
+                + e.getMessage(), e);
+            listeners.failed(id, envelope, failure);
+            throw failure;
+        }
+        listeners.serialized(id, envelope, json.length);
+
+        ByteBuffer frame = ByteBuffer.allocate(4 + json.length);
+        frame.putInt(json.length).put(json).flip();
+
+        synchronized (writeLock) {
+            if (closed) {
+                // close() failed the last connection while this send waited for the lock
+                throw new IllegalStateException("SocketClient " + id + " is closed.");
+            }
+            Connection conn = null;
+            boolean counted = false;
+            try {
+                conn = connect();
+                conn.awaitWindow();
+                statistics.updateMeasures(1);
+                synchronized (ackLock) {
+                    conn.written++;
+                    conn.unacknowledged.addLast(new Unacknowledged(envelope, System.nanoTime()));
+                }
+                counted = true;
+                while (frame.hasRemaining()) {
+                    conn.channel.write(frame);
+                }
+            } catch (IOException e) {
+                if (conn != null) {
+                    conn.fail(e);
+                }
+                CaliperClientException failure = new CaliperClientException("WARN: Socket write failed; "
+                    + e.getMessage(), e);
+                if (!counted) {
+                    // Counted frames are reported as lost by the failed connection
+                    statistics.updateMeasures(1);
+                    statistics.updateFailed(1);
+                    listeners.failed(id, envelope, failure);
+                }
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Wait, up to the timeout, until every Envelope written has been acknowledged by the collector.
+     * @param timeout
+     * @param unit
+     * @return true if all Envelopes were acknowledged before the timeout elapsed
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        Connection conn = connection;
+        if (conn == null) {
+            return true;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (ackLock) {
+            try {
+                while (!conn.failed && conn.acked < conn.written) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(ackLock, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return !conn.failed;
+        }
+    }
+
+    /**
+     * Stop accepting Envelopes, wait for outstanding acknowledgements and close the connection.
+     * @param timeout
+     * @param unit
+     * @return true if all Envelopes were acknowledged before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        closed = true;
+        boolean flushed = flush(timeout, unit);
+        synchronized (writeLock) {
+            Connection conn = connection;
+            if (conn != null) {
+                conn.fail(null);
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Return the current connection, opening a new one if there is none or the last one failed.
+     * @return connection
+     * @throws IOException
+     */
+    private Connection connect() throws IOException {
+        Connection conn = connection;
+        if (conn == null || conn.failed) {
+            conn = new Connection(SocketChannel.open(options.getAddress()));
+            threadFactory.newThread(conn).start();
+            connection = conn;
+        }
+        return conn;
+    }
+
+    /**
+     * A connection to the collector.  The write side is driven by send(); the read side runs on its own
+     * thread, consuming acknowledgements.  Counters are guarded by ackLock.
+     */
+    private class Connection implements Runnable {
+        private final SocketChannel channel;
+        private final ArrayDeque<Unacknowledged> unacknowledged = new ArrayDeque<>();
+        private long written;
+        private long acked;
+        private boolean failed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Wait until fewer than maxInFlight frames are unacknowledged.
+         * @throws IOException
+         */
+        private void awaitWindow() throws IOException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getAckTimeout());
+            synchronized (ackLock) {
+                try {
+                    while (!failed && written - acked >= options.getMaxInFlight()) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new SocketTimeoutException("No acknowledgement received within "
+                                + options.getAckTimeout() + "ms");
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(ackLock, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while awaiting acknowledgement", e);
+                }
+                if (failed) {
+                    throw new IOException("Connection to collector failed");
+                }
+            }
+        }
+
+        /**
+         * Close the channel and report unacknowledged frames as failed.
+         * @param cause or null if the client was closed
+         */
+        private void fail(Exception cause) {
+            long lost;
+            List<Unacknowledged> frames;
+            synchronized (ackLock) {
+                if (failed) {
+                    return;
+                }
+                lost = written - acked;
+                frames = new ArrayList<>(unacknowledged);
+                unacknowledged.clear();
+                for (long i = 0; i < lost; i++) {
+                    statistics.updateFailed(1);
+                }
+                failed = true;
+                ackLock.notifyAll();
+            }
+
+            if (!frames.isEmpty() && !listeners.isEmpty()) {
+                CaliperClientException failure = new CaliperClientException("WARN: Envelope not acknowledged; "
+                    + ((cause != null) ? cause.getMessage() : "client closed"), cause);
+                for (Unacknowledged frame : frames) {
+                    listeners.failed(id, frame.envelope, failure);
+                }
+            }
+
+            if (cause != null) {
+                log.warn("Connection to collector " + options.getAddress() + " failed with " + lost
+                    + " unacknowledged envelopes", cause);
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Failure closing connection to collector", e);
+            }
+        }
+
+        @Override
+        public void run() {
+            ByteBuffer ack = ByteBuffer.allocate(8);
+            try {
+                while (true) {
+                    ack.clear();
+                    while (ack.hasRemaining()) {
+                        if (channel.read(ack) < 0) {
+                            throw new EOFException("Collector closed the connection");
+                        }
+                    }
+                    ack.flip();
+                    acknowledge(ack.getLong());
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void acknowledge(long count) {
+            long delta;
+            List<Unacknowledged> frames = new ArrayList<>();
+            synchronized (ackLock) {
+                delta = Math.min(count, written) - acked;
+                if (delta <= 0) {
+                    return;
+                }
+                for (long i = 0; i < delta; i++) {
+                    frames.add(unacknowledged.pollFirst());
+                    statistics.updateSuccessful(1);
+                }
+                acked += delta;
+                ackLock.notifyAll();
+            }
+
+            long now = System.nanoTime();
+            for (Unacknowledged frame : frames) {
+                listeners.sent(id, frame.envelope, 0, now - frame.writtenAt);
+            }
+        }
+    }
+
+    /**
+     * A frame written but not yet acknowledged.
+     */
+    private static final class Unacknowledged {
+        private final Envelope envelope;
+        private final long writtenAt;
+
+        private Unacknowledged(Envelope envelope, long writtenAt) {
+            this.envelope = envelope;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    /**
+     * Factory method.
+     * @param id
+     * @param options
+     * @return SocketClient
+     */
+    public static SocketClient create(String id, SocketClientOptions options) {
+        return new SocketClient(id, options);
+    }
+}
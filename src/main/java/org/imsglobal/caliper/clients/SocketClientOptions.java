@@ -0,0 +1,166 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.config.Timeout;
+import org.imsglobal.caliper.databind.ParallelEnvelopeWriter;
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import java.net.SocketAddress;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Socket client options.  The collector address may be any SocketAddress supported by
+ * SocketChannel.open(SocketAddress), e.g., a loopback InetSocketAddress or, when running on Java 16
+ * or later, a UnixDomainSocketAddress.
+ */
+public class SocketClientOptions implements CaliperClientOptions {
+    private final SocketAddress address;
+    private final int maxInFlight;
+    private final int ackTimeout;
+    private final int parallelSerializationThreshold;
+
+    /**
+     * Default number of Envelopes written but not yet acknowledged by the collector.
+     */
+    public static final int MAX_IN_FLIGHT = 1024;
+
+    /**
+     * Default time (ms) to wait for an acknowledgement when the in-flight window is full.
+     */
+    public static final int ACK_TIMEOUT = Timeout.SOCKET_TIMEOUT.value();
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private SocketClientOptions(OptionsBuilder builder) {
+        checkArgument(builder.address != null, "Collector address must be specified.");
+
+        this.address = builder.address;
+        this.maxInFlight = SensorValidator.chkPositiveIntValue(builder.maxInFlight, MAX_IN_FLIGHT);
+        this.ackTimeout = SensorValidator.chkPositiveIntValue(builder.ackTimeout, ACK_TIMEOUT);
+        this.parallelSerializationThreshold = SensorValidator.chkPositiveIntValue(
+            builder.parallelSerializationThreshold, ParallelEnvelopeWriter.THRESHOLD);
+    }
+
+    /**
+     * Get the collector address.
+     * @return address
+     */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Get the number of Envelopes that may be written before an acknowledgement is required.
+     * @return max in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Get the time (ms) to wait for an acknowledgement when the in-flight window is full.
+     * @return ack timeout
+     */
+    public int getAckTimeout() {
+        return ackTimeout;
+    }
+
+    /**
+     * Get the minimum number of items of an Envelope serialized in parallel.
+     * @return parallel serialization threshold
+     */
+    public int getParallelSerializationThreshold() {
+        return parallelSerializationThreshold;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private SocketAddress address;
+        private int maxInFlight = 0;
+        private int ackTimeout = 0;
+        private int parallelSerializationThreshold = 0;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param address
+         * @return builder
+         */
+        public OptionsBuilder address(final SocketAddress address) {
+            this.address = address;
+            return this;
+        }
+
+        /**
+         * @param maxInFlight
+         * @return builder
+         */
+        public OptionsBuilder maxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * @param ackTimeout
+         * @return builder
+         */
+        public OptionsBuilder ackTimeout(final int ackTimeout) {
+            this.ackTimeout = ackTimeout;
+            return this;
+        }
+
+        /**
+         * Minimum number of items of an Envelope serialized in parallel; Integer.MAX_VALUE disables
+         * parallel serialization.
+         * @param parallelSerializationThreshold
+         * @return builder
+         */
+        public OptionsBuilder parallelSerializationThreshold(final int parallelSerializationThreshold) {
+            this.parallelSerializationThreshold = parallelSerializationThreshold;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public SocketClientOptions build() {
+            return new SocketClientOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
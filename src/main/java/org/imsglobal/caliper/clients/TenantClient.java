@@ -0,0 +1,178 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.imsglobal.caliper.statistics.Statistics;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client of a Sensor attached to a SensorRuntime.  send() queues the Envelope with the runtime and
+ * returns; the runtime's workers post it to the tenant's endpoint over the shared connection pool.
+ * Statistics and listeners are kept per tenant.
+ */
+public class TenantClient implements CaliperClient {
+    private final SensorRuntime runtime;
+    private final HttpClient delegate;
+
+    // Guarded by the runtime's lock
+    final ArrayDeque<Queued> queue = new ArrayDeque<>();
+    int inFlight;
+    boolean ready;
+    boolean closed;
+
+    /**
+     * Constructor.  Scope is package-private; tenants are created by SensorRuntime.attach().
+     * @param runtime
+     * @param delegate
+     */
+    TenantClient(SensorRuntime runtime, HttpClient delegate) {
+        this.runtime = runtime;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Get identifier.
+     * @return id
+     */
+    @Nonnull
+    public String getId() {
+        return delegate.getId();
+    }
+
+    /**
+     * Retrieve options
+     * @return options
+     */
+    public HttpClientOptions getOptions() {
+        return delegate.getOptions();
+    }
+
+    /**
+     * Get statistics of this tenant.
+     * @return statistics
+     */
+    @Nonnull
+    public Statistics getStatistics() {
+        return delegate.getStatistics();
+    }
+
+    /**
+     * Get listeners of this tenant.
+     * @return listeners
+     */
+    @Nonnull
+    public SendListeners getListeners() {
+        return delegate.getListeners();
+    }
+
+    /**
+     * Get the runtime the tenant is attached to.
+     * @return runtime
+     */
+    @Nonnull
+    public SensorRuntime getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Queue the Envelope for delivery.
+     * @param envelope
+     * @throws BufferFullException if the tenant's queue or the runtime's memory budget is full
+     */
+    @Override
+    public void send(Envelope envelope) {
+        runtime.enqueue(this, envelope);
+    }
+
+    /**
+     * Open the delegate's connections ahead of the first Envelope.
+     */
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+    }
+
+    /**
+     * Wait, up to the timeout, for the tenant's queued Envelopes to be delivered.
+     * @param timeout
+     * @param unit
+     * @return true if all queued Envelopes were delivered before the timeout elapsed
+     */
+    @Override
+    public boolean flush(long timeout, TimeUnit unit) {
+        return runtime.flush(this, timeout, unit);
+    }
+
+    /**
+     * Stop accepting Envelopes, deliver the queued ones and detach from the runtime.  The shared
+     * connection pool and workers are left running.
+     * @param timeout
+     * @param unit
+     * @return true if all queued Envelopes were delivered before the timeout elapsed
+     */
+    @Override
+    public boolean close(long timeout, TimeUnit unit) {
+        boolean flushed = runtime.detach(this, timeout, unit);
+        delegate.close(timeout, unit);
+        return flushed;
+    }
+
+    /**
+     * Serialize the Envelope for the tenant's endpoint.
+     * @param envelope
+     * @return json
+     */
+    String serialize(Envelope envelope) {
+        return delegate.serialize(envelope);
+    }
+
+    /**
+     * Post a queued Envelope, serialized on enqueue or now, to the tenant's endpoint.  Called by the
+     * runtime's workers.
+     * @param queued
+     */
+    void deliver(Queued queued) {
+        if (queued.json != null) {
+            delegate.send(queued.envelope, queued.json);
+        } else {
+            delegate.send(queued.envelope);
+        }
+    }
+
+    /**
+     * Queue entry that carries the serialized Envelope and the size reserved for it against the memory
+     * budget, if a budget is configured.
+     */
+    static final class Queued {
+        final Envelope envelope;
+        final String json;
+        final long size;
+
+        Queued(Envelope envelope, String json, long size) {
+            this.envelope = envelope;
+            this.json = json;
+            this.size = size;
+        }
+    }
+}
@@ -28,11 +28,14 @@ import javax.annotation.Nonnull;
 public class JsonldStringContext implements JsonldContext, CaliperCoercible {
 
     @JsonProperty("@context")
-    private String id;
+    private final String id;
 
     @JsonIgnore
     private final boolean coercedToId = true;
 
+    private static final JsonldStringContext DEFAULT =
+        new JsonldStringContext(Config.JSONLD_EXTERNAL_CALIPER_CONTEXT);
+
     /**
      * Constructor.  Rendered private to force use of factory methods.
      */
@@ -63,14 +66,18 @@ public class JsonldStringContext implements JsonldContext, CaliperCoercible {
      * @return JsonldStringContext
      */
     public static JsonldStringContext create(String id) {
+        if (Config.JSONLD_EXTERNAL_CALIPER_CONTEXT.equals(id)) {
+            return DEFAULT;
+        }
         return new JsonldStringContext(id);
     }
 
     /**
-     * Factory method that returns the default IMS Caliper external context IRI.
+     * Factory method that returns the default IMS Caliper external context IRI.  The context is
+     * immutable and a single shared instance is returned.
      * @return
      */
     public static JsonldStringContext getDefault() {
-        return new JsonldStringContext(Config.JSONLD_EXTERNAL_CALIPER_CONTEXT);
+        return DEFAULT;
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.databind;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.ISO8601DateFormat;
+import com.fasterxml.jackson.datatype.joda.JodaModule;
+
+/**
+ * Caliper-friendly ObjectMapper shared by the Sensor clients.  The mapper is configured once and is
+ * thread-safe thereafter, so its serializer caches are built up once rather than per Envelope.  Do not
+ * reconfigure the shared instance; use copy() to derive a mapper with different settings.
+ */
+public final class CaliperObjectMapper {
+    private static final ObjectMapper mapper = create();
+    private static final ObjectWriter writer = mapper.writer();
+
+    /**
+     * Constructor.  Scope is private; the class exposes static accessors only.
+     */
+    private CaliperObjectMapper() {
+
+    }
+
+    /**
+     * Retrieve the shared mapper.
+     * @return mapper
+     */
+    public static ObjectMapper getInstance() {
+        return mapper;
+    }
+
+    /**
+     * Retrieve a writer of the shared mapper.
+     * @return writer
+     */
+    public static ObjectWriter writer() {
+        return writer;
+    }
+
+    /**
+     * Resolve and cache the serializers of the shared mapper for the given types, so that Jackson's
+     * introspection of the model does not happen on the first Envelope.  Types that cannot be serialized
+     * are skipped.
+     * @param types
+     * @return number of types resolved
+     */
+    public static int warmUp(Iterable<Class<?>> types) {
+        int resolved = 0;
+        for (Class<?> type : types) {
+            if (mapper.canSerialize(type)) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Create a new Caliper-friendly mapper.
+     * @return mapper
+     */
+    public static ObjectMapper create() {
+        SimpleFilterProvider provider = new SimpleFilterProvider()
+            .setFailOnUnknownId(true);
+
+        return new ObjectMapper()
+            .setDateFormat(new ISO8601DateFormat())
+            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .setFilterProvider(provider)
+            .registerModules(new JodaModule(), new JxnCoercibleSimpleModule());
+    }
+}
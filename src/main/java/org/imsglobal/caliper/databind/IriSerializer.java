@@ -0,0 +1,62 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.databind;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.imsglobal.caliper.entities.IriPool;
+
+import java.io.IOException;
+
+/**
+ * Writes an identifier, using the encoding cached by the IriPool if the identifier is pooled.
+ */
+public class IriSerializer extends StdSerializer<String> {
+
+    private static final long serialVersionUID = -6412283176253940721L;
+
+    /**
+     * Constructor
+     */
+    public IriSerializer() {
+        super(String.class);
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writeIri(value, gen);
+    }
+
+    /**
+     * Write an identifier as a JSON string.
+     * @param value
+     * @param gen
+     * @throws IOException
+     */
+    static void writeIri(String value, JsonGenerator gen) throws IOException {
+        SerializableString encoded = IriPool.getGlobal().encoded(value);
+        if (encoded != null) {
+            gen.writeString(encoded);
+        } else {
+            gen.writeString(value);
+        }
+    }
+}
@@ -51,7 +51,7 @@ public class JxnCoercibleSerializer extends JsonSerializer<CaliperCoercible> {
         //System.out.print("IS_COERCED: " + value.getClass().getSimpleName() + " " + value.isCoercedToId() + "\n");
 
         if (value.isCoercedToId()) {
-            jgen.writeString(value.getId());
+            IriSerializer.writeIri(value.getId(), jgen);
         } else {
             defaultSerializer.serialize(value, jgen, provider);
         }
@@ -0,0 +1,181 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.databind;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Serializes large Envelopes in parallel.  The items of an Envelope holding at least the threshold number
+ * of items are serialized independently on a work-stealing pool into RawJson fragments; the fragments are
+ * then written, in order, inside the Envelope's header and footer by the shared writer, which emits the
+ * separators.  The output is identical to that of the shared writer.  Smaller Envelopes are serialized
+ * on the calling thread.
+ */
+public class ParallelEnvelopeWriter {
+    private final ObjectWriter writer;
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Default minimum number of items of an Envelope serialized in parallel.
+     */
+    public static final int THRESHOLD = 1000;
+
+    /**
+     * Minimum number of items serialized by a single task.
+     */
+    private static final int MIN_ITEMS_PER_TASK = 16;
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory methods.
+     * @param threshold
+     * @param pool
+     */
+    private ParallelEnvelopeWriter(int threshold, ForkJoinPool pool) {
+        checkArgument(threshold > 0, "Threshold must be positive.");
+        checkArgument(pool != null, "Pool must be specified.");
+        this.writer = CaliperObjectMapper.writer();
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Get the minimum number of items of an Envelope serialized in parallel.
+     * @return threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Serialize the Envelope to UTF-8 bytes.
+     * @param envelope
+     * @return serialized Envelope
+     * @throws JsonProcessingException
+     */
+    public byte[] writeValueAsBytes(Envelope envelope) throws JsonProcessingException {
+        return writer.writeValueAsBytes(fragment(envelope));
+    }
+
+    /**
+     * Serialize the Envelope to a String.
+     * @param envelope
+     * @return serialized Envelope
+     * @throws JsonProcessingException
+     */
+    public String writeValueAsString(Envelope envelope) throws JsonProcessingException {
+        return writer.writeValueAsString(fragment(envelope));
+    }
+
+    /**
+     * Replace the items of a large Envelope with their serialized fragments.
+     * @param envelope
+     * @return the Envelope or, if it holds at least the threshold number of items, a copy holding fragments
+     * @throws JsonProcessingException
+     */
+    private Envelope fragment(Envelope envelope) throws JsonProcessingException {
+        List<CaliperSendable> data = envelope.getData();
+        if (data.size() < threshold) {
+            return envelope;
+        }
+
+        CaliperSendable[] fragments = new CaliperSendable[data.size()];
+        int itemsPerTask = Math.max(MIN_ITEMS_PER_TASK, data.size() / (pool.getParallelism() * 4));
+        try {
+            pool.invoke(new FragmentTask(data, fragments, 0, data.size(), itemsPerTask));
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw (JsonProcessingException) e.getCause();
+            }
+            throw e;
+        }
+        return new Envelope(envelope.getSensorId(), envelope.getSendTime(), envelope.getDataVersion(),
+            Arrays.asList(fragments));
+    }
+
+    /**
+     * Serializes a range of items, splitting the range while it exceeds the items per task.
+     */
+    private final class FragmentTask extends RecursiveAction {
+        private static final long serialVersionUID = 4926458186711733040L;
+
+        private final List<CaliperSendable> data;
+        private final CaliperSendable[] fragments;
+        private final int from;
+        private final int to;
+        private final int itemsPerTask;
+
+        private FragmentTask(List<CaliperSendable> data, CaliperSendable[] fragments, int from, int to,
+                             int itemsPerTask) {
+            this.data = data;
+            this.fragments = fragments;
+            this.from = from;
+            this.to = to;
+            this.itemsPerTask = itemsPerTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > itemsPerTask) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new FragmentTask(data, fragments, from, mid, itemsPerTask),
+                    new FragmentTask(data, fragments, mid, to, itemsPerTask));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                CaliperSendable item = data.get(i);
+                try {
+                    fragments[i] = (item instanceof RawJson) ? item : new RawJson(writer.writeValueAsBytes(item));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Factory method that serializes large Envelopes on the common pool.
+     * @param threshold minimum number of items of an Envelope serialized in parallel
+     * @return ParallelEnvelopeWriter
+     */
+    public static ParallelEnvelopeWriter create(int threshold) {
+        return new ParallelEnvelopeWriter(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Factory method.
+     * @param threshold minimum number of items of an Envelope serialized in parallel
+     * @param pool
+     * @return ParallelEnvelopeWriter
+     */
+    public static ParallelEnvelopeWriter create(int threshold, ForkJoinPool pool) {
+        return new ParallelEnvelopeWriter(threshold, pool);
+    }
+}
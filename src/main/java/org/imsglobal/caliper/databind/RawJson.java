@@ -0,0 +1,302 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.databind;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.imsglobal.caliper.CaliperSendable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A JSON value that has already been serialized to UTF-8.  The bytes are written verbatim wherever the
+ * value appears, e.g., as an item of an Envelope's data, so that pre-serialized events can be stitched
+ * into an Envelope without being deserialized or serialized again.  The bytes must hold exactly one
+ * well-formed JSON value; they are validated by validate(), at most once per instance, or on creation by
+ * validated().  Builders that splice a RawJson into an event or entity validate it.
+ */
+public class RawJson extends JsonSerializable.Base implements CaliperSendable, SerializableString {
+    private final byte[] utf8;
+    private String value;
+    private volatile boolean valid;
+    private volatile Map<String, Object> map;
+
+    /**
+     * Constructor
+     * @param utf8 serialized JSON value
+     */
+    public RawJson(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    /**
+     * Constructor
+     * @param json serialized JSON value
+     */
+    public RawJson(String json) {
+        this.utf8 = json.getBytes(StandardCharsets.UTF_8);
+        this.value = json;
+    }
+
+    /**
+     * Get the number of bytes of the serialized value.
+     * @return length
+     */
+    public int length() {
+        return utf8.length;
+    }
+
+    /**
+     * Factory method that checks once that the bytes hold exactly one well-formed JSON value, so that they
+     * can be spliced verbatim into every Envelope thereafter.
+     * @param utf8 serialized JSON value
+     * @return RawJson
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static RawJson validated(byte[] utf8) {
+        checkArgument(utf8 != null, "JSON value must be specified.");
+        return new RawJson(utf8).validate();
+    }
+
+    /**
+     * Factory method that checks once that the string holds exactly one well-formed JSON value.
+     * @param json serialized JSON value
+     * @return RawJson
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static RawJson validated(String json) {
+        checkArgument(json != null, "JSON value must be specified.");
+        RawJson raw = validated(json.getBytes(StandardCharsets.UTF_8));
+        raw.value = json;
+        return raw;
+    }
+
+    /**
+     * Factory method that serializes a value once, e.g., LTI launch claims that are constant for a session.
+     * @param value
+     * @return RawJson
+     * @throws IllegalArgumentException if the value cannot be serialized
+     */
+    public static RawJson of(Object value) {
+        try {
+            RawJson raw = new RawJson(CaliperObjectMapper.writer().writeValueAsBytes(value));
+            raw.valid = true;
+            return raw;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Value cannot be serialized: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Check that the bytes hold exactly one well-formed JSON value.  The check runs on the first call only,
+     * so that a value shared by many events is parsed once.
+     * @return this
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public RawJson validate() {
+        if (valid) {
+            return this;
+        }
+        try (JsonParser parser = CaliperObjectMapper.getInstance().getFactory().createParser(utf8)) {
+            checkArgument(parser.nextToken() != null, "JSON value must not be empty.");
+            parser.skipChildren();
+            checkArgument(parser.nextToken() == null, "JSON value must not be followed by other content.");
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON value: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        valid = true;
+        return this;
+    }
+
+    /**
+     * @return true if the value is a JSON object
+     */
+    public boolean isObject() {
+        int i = skipWhitespace(0);
+        return i < utf8.length && utf8[i] == '{';
+    }
+
+    /**
+     * @return true if the value is a JSON object without members, i.e., "{}"
+     */
+    public boolean isEmptyObject() {
+        int i = skipWhitespace(0);
+        if (i >= utf8.length || utf8[i] != '{') {
+            return false;
+        }
+        i = skipWhitespace(i + 1);
+        return i < utf8.length && utf8[i] == '}';
+    }
+
+    /**
+     * @param from index of the first byte to examine
+     * @return index of the first byte at or after from that is not whitespace
+     */
+    private int skipWhitespace(int from) {
+        int i = from;
+        while (i < utf8.length && (utf8[i] == ' ' || utf8[i] == '\t' || utf8[i] == '\n' || utf8[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Parse the value, which must be a JSON object, into an unmodifiable map.  The value is parsed on the
+     * first call only; later calls return the same map.
+     * @return map
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toMap() {
+        Map<String, Object> parsed = map;
+        if (parsed == null) {
+            try {
+                parsed = Collections.unmodifiableMap(CaliperObjectMapper.getInstance().readValue(utf8, Map.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            map = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * An empty JSON object counts as empty, so that it is omitted under NON_EMPTY inclusion just as an
+     * empty map would be.
+     * @param serializers
+     * @return true if the value is "{}"
+     */
+    @Override
+    public boolean isEmpty(SerializerProvider serializers) {
+        return isEmptyObject();
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(this);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+        throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public String getValue() {
+        if (value == null) {
+            value = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+        return new SerializedString(getValue()).asQuotedChars();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return new SerializedString(getValue()).asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        return new SerializedString(getValue()).appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        return new SerializedString(getValue()).appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String str = getValue();
+        if (offset + str.length() > buffer.length) {
+            return -1;
+        }
+        str.getChars(0, str.length(), buffer, offset);
+        return str.length();
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        return new SerializedString(getValue()).writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+        return new SerializedString(getValue()).putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) throws IOException {
+        if (utf8.length > buffer.remaining()) {
+            return -1;
+        }
+        buffer.put(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
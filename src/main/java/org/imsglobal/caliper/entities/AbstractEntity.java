@@ -20,7 +20,10 @@ package org.imsglobal.caliper.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.imsglobal.caliper.context.JsonldContext;
+import org.imsglobal.caliper.databind.IriSerializer;
+import org.imsglobal.caliper.databind.RawJson;
 import org.imsglobal.caliper.validators.EntityValidator;
 import org.joda.time.DateTime;
 
@@ -28,6 +31,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Map;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * This class provides a skeletal implementation of the Entity interface
  * in order to minimize the effort required to implement the interface.
@@ -41,6 +46,7 @@ public abstract class AbstractEntity implements CaliperEntity, CaliperCoercible
     private final boolean coercedToId;
 
     @JsonProperty("id")
+    @JsonSerialize(using = IriSerializer.class)
     protected final String id;
 
     @JsonProperty("type")
@@ -59,7 +65,7 @@ public abstract class AbstractEntity implements CaliperEntity, CaliperCoercible
     private final DateTime dateModified;
 
     @JsonProperty("extensions")
-    private final Map<String, Object> extensions;
+    private final Object extensions;
 
     /**
      * @param builder apply builder object properties to the object.
@@ -76,7 +82,7 @@ public abstract class AbstractEntity implements CaliperEntity, CaliperCoercible
         this.description = builder.description;
         this.dateCreated = builder.dateCreated;
         this.dateModified = builder.dateModified;
-        this.extensions = builder.extensions;
+        this.extensions = builder.rawExtensions != null ? builder.rawExtensions : builder.extensions;
     }
 
     /**
@@ -145,11 +151,14 @@ public abstract class AbstractEntity implements CaliperEntity, CaliperCoercible
     }
 
     /**
+     * Extensions supplied as pre-encoded JSON are parsed on the first call.
      * @return custom extensions object.
      */
+    @JsonIgnore
     @Nullable
+    @SuppressWarnings("unchecked")
     public Map<String, Object> getExtensions() {
-        return extensions;
+        return extensions instanceof RawJson ? ((RawJson) extensions).toMap() : (Map<String, Object>) extensions;
     }
 
     /**
@@ -166,6 +175,7 @@ public abstract class AbstractEntity implements CaliperEntity, CaliperCoercible
         private DateTime dateCreated;
         private DateTime dateModified;
         private Map<String, Object> extensions;
+        private RawJson rawExtensions;
 
         /**
          * Constructor
@@ -196,11 +206,12 @@ public abstract class AbstractEntity implements CaliperEntity, CaliperCoercible
         }
 
         /**
+         * The identifier is interned if the IriPool is enabled.
          * @param id
          * @return builder.
          */
         public T id(String id) {
-            this.id = id;
+            this.id = IriPool.getGlobal().intern(id);
             return self();
         }
 
@@ -255,6 +266,20 @@ public abstract class AbstractEntity implements CaliperEntity, CaliperCoercible
          */
         public T extensions(Map<String, Object> extensions) {
             this.extensions = extensions;
+            this.rawExtensions = null;
+            return self();
+        }
+
+        /**
+         * Extensions supplied as a pre-encoded JSON object are written verbatim rather than serialized
+         * per send.  The value is validated once.
+         * @param extensions
+         * @return builder.
+         */
+        public T extensions(RawJson extensions) {
+            checkArgument(extensions == null || extensions.validate().isObject(), "Extensions must be a JSON object.");
+            this.rawExtensions = extensions;
+            this.extensions = null;
             return self();
         }
     }
@@ -0,0 +1,145 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.entities;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Collection helpers for Entity and Event builders.  Builder collections are allocated on first use
+ * rather than eagerly, so that properties left unset cost nothing; an ImmutableList handed to an empty
+ * builder is retained as is and is not copied again when the object is built.  Properties never set
+ * resolve to the shared empty ImmutableList or ImmutableMap.
+ */
+public final class BuilderCollections {
+
+    /**
+     * Constructor.  Scope is private; static methods only.
+     */
+    private BuilderCollections() {
+
+    }
+
+    /**
+     * Append a value to a builder list, allocating the list on first use.
+     * @param list current builder list, may be null
+     * @param value
+     * @param <E> element type
+     * @return builder list
+     */
+    @Nonnull
+    public static <E> List<E> add(@Nullable List<E> list, E value) {
+        List<E> target = mutable(list, 1);
+        target.add(value);
+        return target;
+    }
+
+    /**
+     * Append values to a builder list.  If the builder list is empty and the values are already an
+     * ImmutableList the values are retained rather than copied.
+     * @param list current builder list, may be null
+     * @param values values to append, may be null
+     * @param <E> element type
+     * @return builder list, possibly null if no values have been appended
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public static <E> List<E> addAll(@Nullable List<E> list, @Nullable List<? extends E> values) {
+        if (values == null || values.isEmpty()) {
+            return list;
+        }
+        if ((list == null || list.isEmpty()) && values instanceof ImmutableList) {
+            return (List<E>) values;
+        }
+        List<E> target = mutable(list, values.size());
+        target.addAll(values);
+        return target;
+    }
+
+    /**
+     * Resolve a builder list to an ImmutableList.  ImmutableList.copyOf() returns an ImmutableList
+     * argument without copying it.
+     * @param list builder list, may be null
+     * @param <E> element type
+     * @return immutable list
+     */
+    @Nonnull
+    public static <E> ImmutableList<E> toImmutableList(@Nullable List<E> list) {
+        return list == null || list.isEmpty() ? ImmutableList.<E>of() : ImmutableList.copyOf(list);
+    }
+
+    /**
+     * Resolve a builder list or a StreamedCollection to the value of a collection property.  The two
+     * cannot be combined.
+     * @param list builder list, may be null
+     * @param streamed streamed collection, may be null
+     * @param name property name
+     * @param <E> element type
+     * @return ImmutableList or StreamedCollection
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public static <E> Iterable<E> toIterable(@Nullable List<E> list, @Nullable StreamedCollection<? extends E> streamed,
+                                             String name) {
+        if (streamed == null) {
+            return toImmutableList(list);
+        }
+        checkState(list == null || list.isEmpty(), "Streamed " + name + " cannot be combined with listed " + name + ".");
+        return (Iterable<E>) streamed;
+    }
+
+    /**
+     * Resolve a builder map to an ImmutableMap.
+     * @param map builder map, may be null
+     * @param <K> key type
+     * @param <V> value type
+     * @return immutable map
+     */
+    @Nonnull
+    public static <K, V> ImmutableMap<K, V> toImmutableMap(@Nullable Map<K, V> map) {
+        return map == null || map.isEmpty() ? ImmutableMap.<K, V>of() : ImmutableMap.copyOf(map);
+    }
+
+    /**
+     * Return the builder list if it can be appended to, otherwise a mutable copy.
+     * @param list
+     * @param extra number of elements about to be appended
+     * @param <E> element type
+     * @return mutable list
+     */
+    private static <E> List<E> mutable(@Nullable List<E> list, int extra) {
+        if (list instanceof ArrayList) {
+            return list;
+        }
+        if (list == null) {
+            return new ArrayList<>(Math.max(extra, 4));
+        }
+        List<E> copy = new ArrayList<>(list.size() + extra);
+        copy.addAll(list);
+        return copy;
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.entities;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Optional, bounded interning pool for Entity identifiers.  Identifiers of actors, edApps, course
+ * sections, memberships and sessions recur across events but are typically rebuilt per event by string
+ * concatenation; when the pool is enabled, AbstractEntity.Builder.id() replaces each identifier with a
+ * canonical instance so that queued events share a single copy.  The pool also keeps the JSON-escaped
+ * UTF-8 encoding of each identifier, which the serializer writes instead of encoding the identifier again.
+ *
+ * The pool is disabled until enable() is called.  It holds at most the configured number of identifiers,
+ * evicting the least recently used; an evicted identifier remains valid wherever it is referenced, it is
+ * simply no longer shared with identifiers built afterwards.
+ */
+public final class IriPool {
+    private volatile Cache<String, SerializedString> cache;
+
+    /**
+     * Default maximum number of pooled identifiers.
+     */
+    public static final int MAX_SIZE = 10000;
+
+    private static final IriPool GLOBAL = new IriPool();
+
+    /**
+     * Constructor.  Scope is private; the pool is shared across the JVM.
+     */
+    private IriPool() {
+
+    }
+
+    /**
+     * Get the pool shared across the JVM.
+     * @return global pool
+     */
+    public static IriPool getGlobal() {
+        return GLOBAL;
+    }
+
+    /**
+     * Enable the pool with the default maximum size.
+     */
+    public void enable() {
+        enable(MAX_SIZE);
+    }
+
+    /**
+     * Enable the pool, discarding any identifiers pooled so far.
+     * @param maxSize maximum number of pooled identifiers
+     */
+    public synchronized void enable(int maxSize) {
+        checkArgument(maxSize > 0, "Pool size must be positive.");
+        cache = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .build();
+    }
+
+    /**
+     * Disable the pool and discard the pooled identifiers.
+     */
+    public synchronized void disable() {
+        cache = null;
+    }
+
+    /**
+     * @return true if identifiers are interned
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Get the number of pooled identifiers.
+     * @return size
+     */
+    public long size() {
+        Cache<String, SerializedString> current = cache;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Return the canonical instance of an identifier, pooling it if it is not yet pooled.
+     * @param iri
+     * @return canonical identifier, or the identifier itself if the pool is disabled
+     */
+    @Nullable
+    public String intern(@Nullable String iri) {
+        Cache<String, SerializedString> current = cache;
+        if (current == null || iri == null) {
+            return iri;
+        }
+        SerializedString pooled = current.getIfPresent(iri);
+        if (pooled == null) {
+            SerializedString encoded = new SerializedString(iri);
+            pooled = current.asMap().putIfAbsent(iri, encoded);
+            if (pooled == null) {
+                pooled = encoded;
+            }
+        }
+        return pooled.getValue();
+    }
+
+    /**
+     * Get the pre-encoded form of a pooled identifier.
+     * @param iri
+     * @return encoded identifier or null if the identifier is not pooled
+     */
+    @Nullable
+    public SerializableString encoded(@Nullable String iri) {
+        Cache<String, SerializedString> current = cache;
+        if (current == null || iri == null) {
+            return null;
+        }
+        return current.getIfPresent(iri);
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.entities;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A sized collection property whose items are not copied into the Entity.  The items are pulled from the
+ * source Iterable, or from a supplier invoked for each traversal, and streamed straight into the JSON
+ * generator when the Entity is serialized, so that a course-level collection or roster of thousands of
+ * items is never held twice.  The size is declared up front; it decides whether the property is empty
+ * and is passed to the generator as an array size hint.  The source must yield the same items each time
+ * it is traversed, since an Envelope may be serialized more than once (e.g., on retry).
+ * @param <E> item type
+ */
+public final class StreamedCollection<E> extends JsonSerializable.Base implements Iterable<E> {
+    private final int size;
+    private final Supplier<? extends Iterable<? extends E>> source;
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory methods.
+     * @param size
+     * @param source
+     */
+    private StreamedCollection(int size, Supplier<? extends Iterable<? extends E>> source) {
+        checkArgument(size >= 0, "Size must not be negative.");
+        this.size = size;
+        this.source = checkNotNull(source, "Source must be specified.");
+    }
+
+    /**
+     * Get the declared number of items.
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if no items are declared
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Iterate over the source items.
+     * @return iterator
+     */
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        return (Iterator<E>) source.get().iterator();
+    }
+
+    /**
+     * Copy the items into an ImmutableList.
+     * @return immutable list
+     */
+    @Nonnull
+    public ImmutableList<E> toList() {
+        return ImmutableList.copyOf(this);
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartArray(this, size);
+        for (E item : this) {
+            serializers.defaultSerializeValue(item, gen);
+        }
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+        throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider serializers) {
+        return size == 0;
+    }
+
+    /**
+     * Factory method that streams the items of an Iterable.
+     * @param size number of items
+     * @param items
+     * @param <E> item type
+     * @return StreamedCollection
+     */
+    public static <E> StreamedCollection<E> of(int size, Iterable<? extends E> items) {
+        checkNotNull(items, "Items must be specified.");
+        return new StreamedCollection<>(size, () -> items);
+    }
+
+    /**
+     * Factory method that streams the items supplied anew for each traversal, e.g., by a database cursor.
+     * @param size number of items
+     * @param supplier
+     * @param <E> item type
+     * @return StreamedCollection
+     */
+    public static <E> StreamedCollection<E> supplied(int size, Supplier<? extends Iterable<? extends E>> supplier) {
+        return new StreamedCollection<>(size, supplier);
+    }
+}
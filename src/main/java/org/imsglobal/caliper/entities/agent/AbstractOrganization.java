@@ -18,11 +18,13 @@
 
 package org.imsglobal.caliper.entities.agent;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import org.imsglobal.caliper.entities.AbstractEntity;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.EntityType;
+import org.imsglobal.caliper.entities.StreamedCollection;
 
 import javax.annotation.Nullable;
 import java.util.List;
@@ -37,7 +39,7 @@ public abstract class AbstractOrganization extends AbstractEntity implements Cal
     private final CaliperOrganization subOrganizationOf;
 
     @JsonProperty("members")
-    private final ImmutableList<CaliperAgent> members;
+    private final Iterable<CaliperAgent> members;
 
     /**
      * @param builder apply builder object properties to the object.
@@ -45,7 +47,7 @@ public abstract class AbstractOrganization extends AbstractEntity implements Cal
     protected AbstractOrganization(Builder<?> builder) {
         super(builder);
         this.subOrganizationOf = builder.subOrganizationOf;
-        this.members = ImmutableList.copyOf(builder.members);
+        this.members = BuilderCollections.toIterable(builder.members, builder.streamedMembers, "members");
     }
 
     /**
@@ -58,12 +60,14 @@ public abstract class AbstractOrganization extends AbstractEntity implements Cal
 
     /**
      * Return an immutable list of the Collection's items.
+     * If the members are streamed they are copied into a new list on each call.
      * @return the items
      */
+    @JsonIgnore
     @Override
     @Nullable
     public ImmutableList<CaliperAgent> getMembers() {
-        return members;
+        return ImmutableList.copyOf(members);
     }
 
     /**
@@ -72,7 +76,8 @@ public abstract class AbstractOrganization extends AbstractEntity implements Cal
      */
     public static abstract class Builder<T extends Builder<T>> extends AbstractEntity.Builder<T> {
         private CaliperOrganization subOrganizationOf;
-        private List<CaliperAgent> members = Lists.newArrayList();
+        private List<CaliperAgent> members;
+        private StreamedCollection<? extends CaliperAgent> streamedMembers;
 
         /**
          * Constructor
@@ -95,9 +100,17 @@ public abstract class AbstractOrganization extends AbstractEntity implements Cal
          * @return builder.
          */
         public T members(List<CaliperAgent> members) {
-            if(members != null){
-                this.members.addAll(members);
-            }
+            this.members = BuilderCollections.addAll(this.members, members);
+            return self();
+        }
+
+        /**
+         * Stream the members at serialization time rather than copying them into the object.
+         * @param members
+         * @return builder.
+         */
+        public T members(StreamedCollection<? extends CaliperAgent> members) {
+            this.streamedMembers = members;
             return self();
         }
 
@@ -106,7 +119,7 @@ public abstract class AbstractOrganization extends AbstractEntity implements Cal
          * @return builder.
          */
         public T member(CaliperAgent member) {
-            this.members.add(member);
+            this.members = BuilderCollections.add(this.members, member);
             return self();
         }
     }
@@ -20,8 +20,8 @@ package org.imsglobal.caliper.entities.agent;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import org.imsglobal.caliper.entities.AbstractEntity;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.EntityType;
 
 import javax.annotation.Nonnull;
@@ -56,7 +56,7 @@ public class Membership extends AbstractEntity {
 
         this.member = builder.member;
         this.organization = builder.organization;
-        this.roles = ImmutableList.copyOf(builder.roles);
+        this.roles = BuilderCollections.toImmutableList(builder.roles);
         this.status = builder.status;
     }
 
@@ -99,7 +99,7 @@ public class Membership extends AbstractEntity {
     public static abstract class Builder<T extends Builder<T>> extends AbstractEntity.Builder<T> {
         private CaliperAgent member;
         private CaliperOrganization organization;
-        private List<Role> roles = Lists.newArrayList();
+        private List<Role> roles;
         private Status status;
 
         /**
@@ -132,9 +132,7 @@ public class Membership extends AbstractEntity {
          * @return builder.
          */
         public T roles(List<Role> roles) {
-            if(roles != null) {
-                this.roles.addAll(roles);
-            }
+            this.roles = BuilderCollections.addAll(this.roles, roles);
             return self();
         }
 
@@ -143,7 +141,7 @@ public class Membership extends AbstractEntity {
          * @return builder.
          */
         public T role(Role role) {
-            this.roles.add(role);
+            this.roles = BuilderCollections.add(this.roles, role);
             return self();
         }
 
@@ -20,7 +20,7 @@ package org.imsglobal.caliper.entities.annotation;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.EntityType;
 import org.imsglobal.caliper.entities.agent.CaliperAgent;
 
@@ -37,7 +37,7 @@ public class SharedAnnotation extends Annotation {
      */
     protected SharedAnnotation(Builder<?> builder) {
         super(builder);
-        this.withAgents = ImmutableList.copyOf(builder.withAgents);
+        this.withAgents = BuilderCollections.toImmutableList(builder.withAgents);
     }
 
     /**
@@ -54,7 +54,7 @@ public class SharedAnnotation extends Annotation {
      * @param <T> builder.
      */
     public static abstract class Builder<T extends Builder<T>> extends Annotation.Builder<T> {
-        private List<CaliperAgent> withAgents = Lists.newArrayList();
+        private List<CaliperAgent> withAgents;
 
         /**
          * Constructor
@@ -68,9 +68,7 @@ public class SharedAnnotation extends Annotation {
          * @return shared agents.
          */
         public T withAgents(List<CaliperAgent> withAgents) {
-            if(withAgents != null) {
-                this.withAgents.addAll(withAgents);
-            }
+            this.withAgents = BuilderCollections.addAll(this.withAgents, withAgents);
             return self();
         }
 
@@ -20,7 +20,7 @@ package org.imsglobal.caliper.entities.annotation;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.EntityType;
 
 import javax.annotation.Nullable;
@@ -36,7 +36,7 @@ public class TagAnnotation extends Annotation {
      */
     protected TagAnnotation(Builder<?> builder) {
         super(builder);
-        this.tags = ImmutableList.copyOf(builder.tags);
+        this.tags = BuilderCollections.toImmutableList(builder.tags);
     }
 
     /**
@@ -53,7 +53,7 @@ public class TagAnnotation extends Annotation {
      * @param <T> builder.
      */
     public static abstract class Builder<T extends Builder<T>> extends Annotation.Builder<T> {
-        private List<String> tags = Lists.newArrayList();
+        private List<String> tags;
 
         /**
          * Constructor
@@ -67,9 +67,7 @@ public class TagAnnotation extends Annotation {
          * @return annotation tags.
          */
         public T tags(List<String> tags) {
-            if(tags != null) {
-                this.tags.addAll(tags);
-            }
+            this.tags = BuilderCollections.addAll(this.tags, tags);
             return self();
         }
 
@@ -18,12 +18,14 @@
 
 package org.imsglobal.caliper.entities.resource;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import org.imsglobal.caliper.entities.AbstractEntity;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.CaliperEntity;
 import org.imsglobal.caliper.entities.EntityType;
+import org.imsglobal.caliper.entities.StreamedCollection;
 import org.imsglobal.caliper.entities.agent.CaliperAgent;
 import org.joda.time.DateTime;
 
@@ -40,13 +42,13 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
     private final String mediaType;
 
     @JsonProperty("creators")
-    private final ImmutableList<CaliperAgent> creators;
+    private final Iterable<CaliperAgent> creators;
 
     @JsonProperty("learningObjectives")
     private final ImmutableList<LearningObjective> learningObjectives;
 
     @JsonProperty("keywords")
-    private final ImmutableList<String> keywords;
+    private final Iterable<String> keywords;
 
     @JsonProperty("isPartOf")
     private final CaliperEntity isPartOf;
@@ -64,9 +66,9 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
         super(builder);
 
         this.mediaType = builder.mediaType;
-        this.creators = ImmutableList.copyOf(builder.creators);
-        this.learningObjectives = ImmutableList.copyOf(builder.learningObjectives);
-        this.keywords = ImmutableList.copyOf(builder.keywords);
+        this.creators = BuilderCollections.toIterable(builder.creators, builder.streamedCreators, "creators");
+        this.learningObjectives = BuilderCollections.toImmutableList(builder.learningObjectives);
+        this.keywords = BuilderCollections.toIterable(builder.keywords, builder.streamedKeywords, "keywords");
         this.isPartOf = builder.isPartOf;
         this.datePublished = builder.datePublished;
         this.version = builder.version;
@@ -82,11 +84,13 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
 
     /**
      * Return an immutable view of the creators list.
+     * If the creators are streamed they are copied into a new list on each call.
      * @return the creators of this resource
      */
+    @JsonIgnore
     @Nullable
     public ImmutableList<CaliperAgent> getCreators() {
-        return creators;
+        return ImmutableList.copyOf(creators);
     }
 
     /**
@@ -100,11 +104,13 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
 
     /**
      * Return an immutable view of the keywords list.
+     * If the keywords are streamed they are copied into a new list on each call.
      * @return the keywords
      */
+    @JsonIgnore
     @Nullable
     public ImmutableList<String> getKeywords() {
-        return keywords;
+        return ImmutableList.copyOf(keywords);
     }
 
     /**
@@ -137,9 +143,11 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
      */
     public static abstract class Builder<T extends Builder<T>> extends AbstractEntity.Builder<T>  {
         private String mediaType;
-        private List<CaliperAgent> creators = Lists.newArrayList();
-        private List<LearningObjective> learningObjectives = Lists.newArrayList();
-        private List<String> keywords = Lists.newArrayList();
+        private List<CaliperAgent> creators;
+        private StreamedCollection<? extends CaliperAgent> streamedCreators;
+        private List<LearningObjective> learningObjectives;
+        private List<String> keywords;
+        private StreamedCollection<? extends String> streamedKeywords;
         private CaliperEntity isPartOf;
         private DateTime datePublished;
         private String version;
@@ -165,9 +173,17 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
          * @return builder.
          */
         public T creators(List<CaliperAgent> creators) {
-            if(creators != null) {
-                this.creators.addAll(creators);
-            }
+            this.creators = BuilderCollections.addAll(this.creators, creators);
+            return self();
+        }
+
+        /**
+         * Stream the creators at serialization time rather than copying them into the object.
+         * @param creators
+         * @return builder.
+         */
+        public T creators(StreamedCollection<? extends CaliperAgent> creators) {
+            this.streamedCreators = creators;
             return self();
         }
 
@@ -176,7 +192,7 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
          * @return builder.
          */
         public T creator(CaliperAgent creator) {
-            this.creators.add(creator);
+            this.creators = BuilderCollections.add(this.creators, creator);
             return self();
         }
 
@@ -185,9 +201,7 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
          * @return builder.
          */
         public T learningObjectives(List<LearningObjective> learningObjectives) {
-            if(learningObjectives != null) {
-                this.learningObjectives.addAll(learningObjectives);
-            }
+            this.learningObjectives = BuilderCollections.addAll(this.learningObjectives, learningObjectives);
             return self();
         }
 
@@ -196,7 +210,7 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
          * @return builder.
          */
         public T learningObjective(LearningObjective learningObjective) {
-            this.learningObjectives.add(learningObjective);
+            this.learningObjectives = BuilderCollections.add(this.learningObjectives, learningObjective);
             return self();
         }
 
@@ -205,9 +219,17 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
          * @return builder.
          */
         public T keywords(List<String> keywords) {
-            if(keywords != null) {
-                this.keywords.addAll(keywords);
-            }
+            this.keywords = BuilderCollections.addAll(this.keywords, keywords);
+            return self();
+        }
+
+        /**
+         * Stream the keywords at serialization time rather than copying them into the object.
+         * @param keywords
+         * @return builder.
+         */
+        public T keywords(StreamedCollection<? extends String> keywords) {
+            this.streamedKeywords = keywords;
             return self();
         }
 
@@ -216,7 +238,7 @@ public abstract class AbstractDigitalResource extends AbstractEntity implements
          * @return builder.
          */
         public T keyword(String keyword) {
-            this.keywords.add(keyword);
+            this.keywords = BuilderCollections.add(this.keywords, keyword);
             return self();
         }
 
@@ -20,7 +20,7 @@ package org.imsglobal.caliper.entities.resource;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.CaliperCollection;
 import org.imsglobal.caliper.entities.EntityType;
 
@@ -40,7 +40,7 @@ public class Assessment extends AssignableDigitalResource implements CaliperAsse
      */
     protected Assessment(Builder<?> builder) {
         super(builder);
-        this.items = ImmutableList.copyOf(builder.items);
+        this.items = BuilderCollections.toImmutableList(builder.items);
     }
 
     /**
@@ -58,7 +58,7 @@ public class Assessment extends AssignableDigitalResource implements CaliperAsse
      * @param <T> builder
      */
     public static abstract class Builder<T extends Builder<T>> extends AssignableDigitalResource.Builder<T>  {
-        private List<AssessmentItem> items = Lists.newArrayList();
+        private List<AssessmentItem> items;
 
         /**
          * Initialize type with default value.
@@ -72,9 +72,7 @@ public class Assessment extends AssignableDigitalResource implements CaliperAsse
          * @return builder.
          */
         public T items(List<AssessmentItem> items) {
-            if(items != null) {
-                this.items.addAll(items);
-            }
+            this.items = BuilderCollections.addAll(this.items, items);
             return self();
         }
 
@@ -83,7 +81,7 @@ public class Assessment extends AssignableDigitalResource implements CaliperAsse
          * @return builder.
          */
         public T item(AssessmentItem item) {
-            this.items.add(item);
+            this.items = BuilderCollections.add(this.items, item);
             return self();
         }
 
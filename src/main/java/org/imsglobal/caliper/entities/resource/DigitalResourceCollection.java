@@ -18,11 +18,13 @@
 
 package org.imsglobal.caliper.entities.resource;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.CaliperCollection;
 import org.imsglobal.caliper.entities.EntityType;
+import org.imsglobal.caliper.entities.StreamedCollection;
 
 import javax.annotation.Nullable;
 import java.util.List;
@@ -30,7 +32,7 @@ import java.util.List;
 public class DigitalResourceCollection extends DigitalResource implements CaliperCollection {
 
     @JsonProperty("items")
-    private final ImmutableList<CaliperDigitalResource> items;
+    private final Iterable<CaliperDigitalResource> items;
 
     /**
      * @param builder apply builder object properties to the object.
@@ -38,17 +40,19 @@ public class DigitalResourceCollection extends DigitalResource implements Calipe
     protected DigitalResourceCollection(Builder<?> builder) {
         super(builder);
 
-        this.items = ImmutableList.copyOf(builder.items);
+        this.items = BuilderCollections.toIterable(builder.items, builder.streamedItems, "items");
     }
 
     /**
      * Return an immutable list of the Collection's items.
+     * If the items are streamed they are copied into a new list on each call.
      * @return the items
      */
+    @JsonIgnore
     @Override
     @Nullable
     public ImmutableList<CaliperDigitalResource> getItems() {
-        return items;
+        return ImmutableList.copyOf(items);
     }
 
     /**
@@ -56,7 +60,8 @@ public class DigitalResourceCollection extends DigitalResource implements Calipe
      * @param <T> builder.
      */
     public static abstract class Builder<T extends Builder<T>> extends DigitalResource.Builder<T> {
-        private List<CaliperDigitalResource> items = Lists.newArrayList();
+        private List<CaliperDigitalResource> items;
+        private StreamedCollection<? extends CaliperDigitalResource> streamedItems;
 
         /**
          * Constructor
@@ -70,9 +75,17 @@ public class DigitalResourceCollection extends DigitalResource implements Calipe
          * @return builder.
          */
         public T items(List<CaliperDigitalResource> items) {
-            if(items != null) {
-                this.items.addAll(items);
-            }
+            this.items = BuilderCollections.addAll(this.items, items);
+            return self();
+        }
+
+        /**
+         * Stream the items at serialization time rather than copying them into the object.
+         * @param items
+         * @return builder.
+         */
+        public T items(StreamedCollection<? extends CaliperDigitalResource> items) {
+            this.streamedItems = items;
             return self();
         }
 
@@ -81,7 +94,7 @@ public class DigitalResourceCollection extends DigitalResource implements Calipe
          * @return builder.
          */
         public T item(CaliperDigitalResource item) {
-            this.items.add(item);
+            this.items = BuilderCollections.add(this.items, item);
             return self();
         }
 
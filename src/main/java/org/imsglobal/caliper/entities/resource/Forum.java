@@ -20,7 +20,7 @@ package org.imsglobal.caliper.entities.resource;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.CaliperCollection;
 import org.imsglobal.caliper.entities.EntityType;
 
@@ -38,7 +38,7 @@ public class Forum extends DigitalResource implements CaliperCollection {
     protected Forum(Builder<?> builder) {
         super(builder);
 
-        this.items = ImmutableList.copyOf(builder.items);
+        this.items = BuilderCollections.toImmutableList(builder.items);
     }
 
     /**
@@ -56,7 +56,7 @@ public class Forum extends DigitalResource implements CaliperCollection {
      * @param <T> builder.
      */
     public static abstract class Builder<T extends Builder<T>> extends DigitalResource.Builder<T> {
-        private List<Thread> items = Lists.newArrayList();
+        private List<Thread> items;
 
         /**
          * Constructor
@@ -70,9 +70,7 @@ public class Forum extends DigitalResource implements CaliperCollection {
          * @return builder.
          */
         public T items(List<Thread> items) {
-            if(items != null) {
-                this.items.addAll(items);
-            }
+            this.items = BuilderCollections.addAll(this.items, items);
             return self();
         }
 
@@ -81,7 +79,7 @@ public class Forum extends DigitalResource implements CaliperCollection {
          * @return builder.
          */
         public T item(Thread item) {
-            this.items.add(item);
+            this.items = BuilderCollections.add(this.items, item);
             return self();
         }
 
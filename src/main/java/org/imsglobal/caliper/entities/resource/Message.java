@@ -20,7 +20,7 @@ package org.imsglobal.caliper.entities.resource;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.EntityType;
 
 import javax.annotation.Nullable;
@@ -45,7 +45,7 @@ public class Message extends DigitalResource {
 
         this.replyTo = builder.replyTo;
         this.body = builder.body;
-        this.attachments = ImmutableList.copyOf(builder.attachments);
+        this.attachments = BuilderCollections.toImmutableList(builder.attachments);
     }
 
     /**
@@ -78,7 +78,7 @@ public class Message extends DigitalResource {
     public static abstract class Builder<T extends Builder<T>> extends DigitalResource.Builder<T> {
         private Message replyTo;
         private String body;
-        private List<CaliperDigitalResource> attachments = Lists.newArrayList();
+        private List<CaliperDigitalResource> attachments;
 
         /**
          * Constructor
@@ -110,9 +110,7 @@ public class Message extends DigitalResource {
          * @return builder.
          */
         public T attachments(List<CaliperDigitalResource> attachments) {
-            if(attachments != null) {
-                this.attachments.addAll(attachments);
-            }
+            this.attachments = BuilderCollections.addAll(this.attachments, attachments);
             return self();
         }
 
@@ -121,7 +119,7 @@ public class Message extends DigitalResource {
          * @return builder.
          */
         public T attachment(CaliperDigitalResource attachment) {
-            this.attachments.add(attachment);
+            this.attachments = BuilderCollections.add(this.attachments, attachment);
             return self();
         }
 
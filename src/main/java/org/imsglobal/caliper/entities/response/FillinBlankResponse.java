@@ -20,7 +20,7 @@ package org.imsglobal.caliper.entities.response;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.EntityType;
 import javax.annotation.Nullable;
 import java.util.List;
@@ -39,7 +39,7 @@ public class FillinBlankResponse extends Response {
      */
     protected FillinBlankResponse(Builder<?> builder) {
         super(builder);
-        this.values = ImmutableList.copyOf(builder.values);
+        this.values = BuilderCollections.toImmutableList(builder.values);
     }
 
     /**
@@ -55,7 +55,7 @@ public class FillinBlankResponse extends Response {
      * @param <T> builder
      */
     public static abstract class Builder<T extends Builder<T>> extends Response.Builder<T>  {
-        private List<String> values = Lists.newArrayList();
+        private List<String> values;
 
         /**
          * Initialize type with default value.
@@ -69,9 +69,7 @@ public class FillinBlankResponse extends Response {
          * @return builder.
          */
         public T values(List<String> values) {
-            if(values != null) {
-                this.values.addAll(values);
-            }
+            this.values = BuilderCollections.addAll(this.values, values);
             return self();
         }
 
@@ -80,7 +78,7 @@ public class FillinBlankResponse extends Response {
          * @return builder.
          */
         public T value(String value) {
-            this.values.add(value);
+            this.values = BuilderCollections.add(this.values, value);
             return self();
         }
 
@@ -20,7 +20,7 @@ package org.imsglobal.caliper.entities.response;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.EntityType;
 import org.imsglobal.caliper.entities.TimePeriod;
 import javax.annotation.Nullable;
@@ -40,7 +40,7 @@ public class MultipleResponseResponse extends Response {
      */
     protected MultipleResponseResponse(Builder<?> builder) {
         super(builder);
-        this.values = ImmutableList.copyOf(builder.values);
+        this.values = BuilderCollections.toImmutableList(builder.values);
     }
 
     /**
@@ -56,7 +56,7 @@ public class MultipleResponseResponse extends Response {
      * @param <T> builder
      */
     public static abstract class Builder<T extends Builder<T>> extends Response.Builder<T>  {
-        private List<String> values = Lists.newArrayList();
+        private List<String> values;
         private TimePeriod timePeriod = new TimePeriod();
 
         /**
@@ -71,9 +71,7 @@ public class MultipleResponseResponse extends Response {
          * @return builder.
          */
         public T values(List<String> values) {
-            if(values != null) {
-                this.values.addAll(values);
-            }
+            this.values = BuilderCollections.addAll(this.values, values);
             return self();
         }
 
@@ -82,7 +80,7 @@ public class MultipleResponseResponse extends Response {
          * @return builder.
          */
         public T value(String value) {
-            this.values.add(value);
+            this.values = BuilderCollections.add(this.values, value);
             return self();
         }
 
@@ -19,6 +19,7 @@
 package org.imsglobal.caliper.entities.session;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.imsglobal.caliper.databind.RawJson;
 import org.imsglobal.caliper.entities.AbstractEntity;
 import org.imsglobal.caliper.entities.EntityType;
 import javax.annotation.Nullable;
@@ -59,10 +60,15 @@ public class LtiSession extends Session {
         }
 
         /**
+         * A RawJson value, e.g., the launch claims rendered once per session with RawJson.of(), is
+         * written verbatim rather than serialized per event.  The value is validated once.
          * @param messageParameters
          * @return builder.
          */
         public T messageParameters(Object messageParameters) {
+            if (messageParameters instanceof RawJson) {
+                ((RawJson) messageParameters).validate();
+            }
             this.messageParameters = messageParameters;
             return self();
         }
@@ -20,11 +20,11 @@ package org.imsglobal.caliper.events;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.imsglobal.caliper.actions.CaliperAction;
 import org.imsglobal.caliper.context.JsonldContext;
+import org.imsglobal.caliper.databind.RawJson;
+import org.imsglobal.caliper.entities.BuilderCollections;
 import org.imsglobal.caliper.entities.CaliperEntity;
 import org.imsglobal.caliper.entities.CaliperGeneratable;
 import org.imsglobal.caliper.entities.CaliperReferrer;
@@ -43,6 +43,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Map;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * This class provides a skeletal implementation of the Event interface
  * in order to minimize the effort required to implement the interface.
@@ -95,8 +97,7 @@ public abstract class AbstractEvent implements CaliperEvent {
     private final LtiSession federatedSession;
 
     @JsonProperty("extensions")
-    //private final Object extensions;
-    private final Map<String, Object> extensions;
+    private final Object extensions;
 
     @JsonIgnore
     private static final Logger log = LoggerFactory.getLogger(AbstractEvent.class);
@@ -125,7 +126,8 @@ public abstract class AbstractEvent implements CaliperEvent {
         this.membership = builder.membership;
         this.session = builder.session;
         this.federatedSession = builder.federatedSession;
-        this.extensions = ImmutableMap.copyOf(builder.extensions);
+        this.extensions = builder.rawExtensions != null
+            ? builder.rawExtensions : BuilderCollections.toImmutableMap(builder.extensions);
     }
 
     /**
@@ -262,16 +264,13 @@ public abstract class AbstractEvent implements CaliperEvent {
     }
 
     /**
-     * Custom properties.  Optional.
+     * Custom properties.  Optional.  Extensions supplied as pre-encoded JSON are parsed on the first call.
      * @return extensions
      */
-    /**
-    public Object getExtensions() {
-        return extensions;
-    }
-     */
+    @JsonIgnore
+    @SuppressWarnings("unchecked")
     public Map<String, Object> getExtensions() {
-        return extensions;
+        return extensions instanceof RawJson ? ((RawJson) extensions).toMap() : (Map<String, Object>) extensions;
     }
 
     /**
@@ -294,8 +293,8 @@ public abstract class AbstractEvent implements CaliperEvent {
         private Membership membership;
         private Session session;
         private LtiSession federatedSession;
-        //private Object extensions;
-        private Map<String, Object> extensions = Maps.newHashMap();
+        private Map<String, Object> extensions;
+        private RawJson rawExtensions;
 
         protected abstract T self();
 
@@ -445,15 +444,22 @@ public abstract class AbstractEvent implements CaliperEvent {
          * @param extensions
          * @return builder.
          */
-        /**
-        public T extensions(Object extensions) {
+        public T extensions(Map<String, Object> extensions) {
             this.extensions = extensions;
+            this.rawExtensions = null;
             return self();
         }
-         */
 
-        public T extensions(Map<String, Object> extensions) {
-            this.extensions = extensions;
+        /**
+         * Extensions supplied as a pre-encoded JSON object, e.g., LTI launch claims rendered once per
+         * session, are written verbatim rather than serialized per event.  The value is validated once.
+         * @param extensions
+         * @return builder.
+         */
+        public T extensions(RawJson extensions) {
+            checkArgument(extensions == null || extensions.validate().isObject(), "Extensions must be a JSON object.");
+            this.rawExtensions = extensions;
+            this.extensions = null;
             return self();
         }
     }
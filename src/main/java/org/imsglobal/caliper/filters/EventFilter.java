@@ -0,0 +1,107 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.filters;
+
+import com.google.common.collect.ImmutableList;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.events.CaliperEvent;
+
+import java.util.List;
+
+/**
+ * An ordered list of FilterRules applied to events before they are serialized.  The first rule that
+ * matches an event decides whether it is kept; events matched by no rule, and entities, are kept.
+ */
+public class EventFilter {
+    private final ImmutableList<FilterRule> rules;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private EventFilter(Builder builder) {
+        this.rules = builder.rules.build();
+    }
+
+    /**
+     * @return rules in evaluation order
+     */
+    public List<FilterRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Decide whether an event or entity is sent.
+     * @param sendable
+     * @return true if kept
+     */
+    public boolean accept(CaliperSendable sendable) {
+        if (!(sendable instanceof CaliperEvent)) {
+            return true;
+        }
+
+        CaliperEvent event = (CaliperEvent) sendable;
+        for (FilterRule rule : rules) {
+            if (rule.matches(event)) {
+                return rule.accept(event);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builder class provides a fluid interface for adding rules.
+     */
+    public static class Builder {
+        private ImmutableList.Builder<FilterRule> rules = ImmutableList.builder();
+
+        /**
+         * Constructor
+         */
+        public Builder() {
+
+        }
+
+        /**
+         * Append a rule.  Rules are evaluated in the order added.
+         * @param rule
+         * @return builder
+         */
+        public Builder rule(FilterRule rule) {
+            this.rules.add(rule);
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of EventFilter.
+         */
+        public EventFilter build() {
+            return new EventFilter(this);
+        }
+    }
+
+    /**
+     * Static factory method.
+     * @return a new instance of the builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
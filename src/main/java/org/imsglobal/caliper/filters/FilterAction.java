@@ -0,0 +1,45 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.filters;
+
+/**
+ * The action a FilterRule applies to the events it matches.
+ */
+public enum FilterAction {
+    /**
+     * Send the event.
+     */
+    KEEP,
+
+    /**
+     * Discard the event.
+     */
+    DROP,
+
+    /**
+     * Send the event with the rule's probability.
+     */
+    SAMPLE,
+
+    /**
+     * Send the event if its actor falls within the rule's sample.  Sampling is deterministic: all of a
+     * learner's matching events are either kept or dropped.
+     */
+    SAMPLE_BY_ACTOR
+}
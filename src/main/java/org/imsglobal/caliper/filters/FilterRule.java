@@ -0,0 +1,270 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.filters;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.imsglobal.caliper.actions.CaliperAction;
+import org.imsglobal.caliper.entities.CaliperEntityType;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.events.CaliperEventType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A rule matching events on event type, action, object type and edApp.  Criteria left unset match any
+ * value.  A matching event is kept, dropped or sampled according to the rule's FilterAction.
+ */
+public class FilterRule {
+    private final CaliperEventType eventType;
+    private final CaliperAction action;
+    private final CaliperEntityType objectType;
+    private final String edApp;
+    private final FilterAction filterAction;
+    private final double rate;
+
+    private static final HashFunction HASH = Hashing.murmur3_32();
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private FilterRule(Builder builder) {
+        checkArgument(builder.filterAction != null, "Filter action must be specified.");
+        checkArgument(builder.rate >= 0.0 && builder.rate <= 1.0, "Sampling rate must be between 0 and 1.");
+
+        this.eventType = builder.eventType;
+        this.action = builder.action;
+        this.objectType = builder.objectType;
+        this.edApp = builder.edApp;
+        this.filterAction = builder.filterAction;
+        this.rate = builder.rate;
+    }
+
+    /**
+     * @return event type or null if any
+     */
+    public CaliperEventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return action or null if any
+     */
+    public CaliperAction getAction() {
+        return action;
+    }
+
+    /**
+     * @return object type or null if any
+     */
+    public CaliperEntityType getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * @return edApp identifier or null if any
+     */
+    public String getEdApp() {
+        return edApp;
+    }
+
+    /**
+     * @return filter action
+     */
+    public FilterAction getFilterAction() {
+        return filterAction;
+    }
+
+    /**
+     * @return fraction of matching events (or actors) kept when sampling
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Returns true if the event satisfies every criterion of the rule.
+     * @param event
+     * @return true if matched
+     */
+    public boolean matches(CaliperEvent event) {
+        if (eventType != null && (event.getType() == null || !eventType.value().equals(event.getType().value()))) {
+            return false;
+        }
+        if (action != null && (event.getAction() == null || !action.value().equals(event.getAction().value()))) {
+            return false;
+        }
+        if (objectType != null && (event.getObject() == null || event.getObject().getType() == null
+            || !objectType.value().equals(event.getObject().getType().value()))) {
+            return false;
+        }
+        if (edApp != null && (event.getEdApp() == null || !edApp.equals(event.getEdApp().getId()))) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decide whether a matching event is kept.
+     * @param event
+     * @return true if the event is kept
+     */
+    public boolean accept(CaliperEvent event) {
+        switch (filterAction) {
+            case KEEP:
+                return true;
+            case DROP:
+                return false;
+            case SAMPLE:
+                return ThreadLocalRandom.current().nextDouble() < rate;
+            case SAMPLE_BY_ACTOR:
+                return event.getActor() != null && bucketOf(event.getActor().getId()) < rate;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Map a key onto [0, 1).
+     * @param key
+     * @return bucket
+     */
+    static double bucketOf(String key) {
+        if (key == null) {
+            return 1.0;
+        }
+        int hash = HASH.hashString(key, StandardCharsets.UTF_8).asInt();
+        return (hash & 0xffffffffL) / (double) (1L << 32);
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting rule properties.
+     */
+    public static class Builder {
+        private CaliperEventType eventType;
+        private CaliperAction action;
+        private CaliperEntityType objectType;
+        private String edApp;
+        private FilterAction filterAction;
+        private double rate = 1.0;
+
+        /**
+         * Constructor
+         */
+        public Builder() {
+
+        }
+
+        /**
+         * @param eventType
+         * @return builder
+         */
+        public Builder eventType(CaliperEventType eventType) {
+            this.eventType = eventType;
+            return this;
+        }
+
+        /**
+         * @param action
+         * @return builder
+         */
+        public Builder action(CaliperAction action) {
+            this.action = action;
+            return this;
+        }
+
+        /**
+         * @param objectType
+         * @return builder
+         */
+        public Builder objectType(CaliperEntityType objectType) {
+            this.objectType = objectType;
+            return this;
+        }
+
+        /**
+         * @param edApp identifier of the edApp
+         * @return builder
+         */
+        public Builder edApp(String edApp) {
+            this.edApp = edApp;
+            return this;
+        }
+
+        /**
+         * Keep matching events.
+         * @return builder
+         */
+        public Builder keep() {
+            this.filterAction = FilterAction.KEEP;
+            return this;
+        }
+
+        /**
+         * Drop matching events.
+         * @return builder
+         */
+        public Builder drop() {
+            this.filterAction = FilterAction.DROP;
+            return this;
+        }
+
+        /**
+         * Keep each matching event with the given probability.
+         * @param rate between 0 and 1
+         * @return builder
+         */
+        public Builder sample(double rate) {
+            this.filterAction = FilterAction.SAMPLE;
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Keep the matching events of the given fraction of actors.
+         * @param rate between 0 and 1
+         * @return builder
+         */
+        public Builder sampleByActor(double rate) {
+            this.filterAction = FilterAction.SAMPLE_BY_ACTOR;
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of FilterRule.
+         */
+        public FilterRule build() {
+            return new FilterRule(this);
+        }
+    }
+
+    /**
+     * Static factory method.
+     * @return a new instance of the builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+}
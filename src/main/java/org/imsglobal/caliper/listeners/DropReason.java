@@ -0,0 +1,49 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.listeners;
+
+/**
+ * Why an event or entity left the send path without being delivered.
+ */
+public enum DropReason {
+    /**
+     * Rejected or sampled out by the Sensor's EventFilter.
+     */
+    FILTERED,
+
+    /**
+     * Shed by a PriorityClient under backpressure with no spill Client.
+     */
+    SHED,
+
+    /**
+     * Rejected by a CircuitBreakerClient while its circuit was open, with no fallback Client.
+     */
+    CIRCUIT_OPEN,
+
+    /**
+     * Rejected because a buffer or memory budget was full.
+     */
+    BUFFER_FULL,
+
+    /**
+     * Delivery failed and will not be retried.
+     */
+    UNDELIVERABLE
+}
@@ -0,0 +1,115 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.listeners;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+
+/**
+ * Callback invoked at well-defined points of the send path, e.g., to trace delivery in an external
+ * tracing system.  Every method has an empty default implementation, so a listener implements only the
+ * points it cares about.  The source of each callback is the identifier of the Sensor or Client that
+ * reports it.
+ *
+ * Callbacks run synchronously on the sending or delivering thread and must therefore be fast; an
+ * exception thrown by a listener is logged and otherwise ignored.  Listeners are registered with
+ * Sensor.getListeners() or CaliperClient.getListeners(); decorating Clients share the listeners of the
+ * Client they decorate.
+ */
+public interface SendListener {
+
+    /**
+     * An Envelope was passed to Sensor.send().
+     * @param source
+     * @param envelope
+     */
+    default void onAccepted(String source, Envelope envelope) {
+
+    }
+
+    /**
+     * An Envelope was handed to a Client or buffered by it for asynchronous delivery.
+     * @param source
+     * @param envelope
+     */
+    default void onEnqueued(String source, Envelope envelope) {
+
+    }
+
+    /**
+     * Buffered data was assembled into a batch for delivery.
+     * @param source
+     * @param batch
+     */
+    default void onBatched(String source, Envelope batch) {
+
+    }
+
+    /**
+     * An Envelope, or its data, was serialized.
+     * @param source
+     * @param envelope
+     * @param bytes size of the serialized form
+     */
+    default void onSerialized(String source, Envelope envelope, long bytes) {
+
+    }
+
+    /**
+     * An Envelope was delivered.
+     * @param source
+     * @param envelope
+     * @param statusCode status code returned by the endpoint, or 0 if the transport has none
+     * @param latency time (ns) taken by the delivery
+     */
+    default void onSent(String source, Envelope envelope, int statusCode, long latency) {
+
+    }
+
+    /**
+     * Delivery of an Envelope failed and is being retried, e.g., against another endpoint.
+     * @param source
+     * @param envelope
+     * @param attempt number of the attempt that failed, starting at 1
+     * @param cause
+     */
+    default void onRetried(String source, Envelope envelope, int attempt, Throwable cause) {
+
+    }
+
+    /**
+     * Delivery of an Envelope failed.
+     * @param source
+     * @param envelope
+     * @param cause
+     */
+    default void onFailed(String source, Envelope envelope, Throwable cause) {
+
+    }
+
+    /**
+     * An event or entity was dropped.
+     * @param source
+     * @param item
+     * @param reason
+     */
+    default void onDropped(String source, CaliperSendable item, DropReason reason) {
+
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.listeners;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The listeners registered with a Sensor or Client, and the dispatch of callbacks to them.  Listeners
+ * are held in a copy-on-write array, so dispatch takes no lock and, with no listeners registered, costs
+ * a volatile read and an empty loop.  Callers guard hooks whose arguments are expensive to compute with
+ * isEmpty().  An exception thrown by a listener is logged and never propagates into the send path.
+ */
+public final class SendListeners {
+    private volatile SendListener[] listeners = EMPTY;
+    private final boolean immutable;
+
+    private static final SendListener[] EMPTY = new SendListener[0];
+
+    /**
+     * Listeners of a Client that reports no callbacks.  Registration is not supported.
+     */
+    public static final SendListeners NONE = new SendListeners(true);
+
+    private static final Logger log = LoggerFactory.getLogger(SendListeners.class);
+
+    /**
+     * Constructor
+     */
+    public SendListeners() {
+        this(false);
+    }
+
+    private SendListeners(boolean immutable) {
+        this.immutable = immutable;
+    }
+
+    /**
+     * Register a listener.
+     * @param listener
+     */
+    public synchronized void add(SendListener listener) {
+        checkArgument(listener != null, "Listener must be specified.");
+        if (immutable) {
+            throw new UnsupportedOperationException("Listeners are not supported by this client.");
+        }
+        SendListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Unregister a listener.
+     * @param listener
+     * @return true if the listener was registered
+     */
+    public synchronized boolean remove(SendListener listener) {
+        List<SendListener> current = Arrays.asList(listeners);
+        int index = current.indexOf(listener);
+        if (index < 0) {
+            return false;
+        }
+        SendListener[] updated = new SendListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, updated, 0, index);
+        System.arraycopy(listeners, index + 1, updated, index, updated.length - index);
+        listeners = updated;
+        return true;
+    }
+
+    /**
+     * Get the registered listeners.
+     * @return listeners
+     */
+    public List<SendListener> getListeners() {
+        return Arrays.asList(listeners.clone());
+    }
+
+    /**
+     * Returns true if no listeners are registered.
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    public void accepted(String source, Envelope envelope) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onAccepted(source, envelope);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    public void enqueued(String source, Envelope envelope) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onEnqueued(source, envelope);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    public void batched(String source, Envelope batch) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onBatched(source, batch);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    public void serialized(String source, Envelope envelope, long bytes) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onSerialized(source, envelope, bytes);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    public void sent(String source, Envelope envelope, int statusCode, long latency) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onSent(source, envelope, statusCode, latency);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    public void retried(String source, Envelope envelope, int attempt, Throwable cause) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onRetried(source, envelope, attempt, cause);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    public void failed(String source, Envelope envelope, Throwable cause) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onFailed(source, envelope, cause);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    public void dropped(String source, CaliperSendable item, DropReason reason) {
+        for (SendListener listener : listeners) {
+            try {
+                listener.onDropped(source, item, reason);
+            } catch (RuntimeException e) {
+                failed(listener, e);
+            }
+        }
+    }
+
+    /**
+     * Report each item of an Envelope as dropped.
+     * @param source
+     * @param envelope
+     * @param reason
+     */
+    public void dropped(String source, Envelope envelope, DropReason reason) {
+        if (listeners.length == 0) {
+            return;
+        }
+        for (CaliperSendable item : envelope.getData()) {
+            dropped(source, item, reason);
+        }
+    }
+
+    private static void failed(SendListener listener, RuntimeException e) {
+        log.warn("Listener " + listener.getClass().getName() + " failed; ignored.", e);
+    }
+}
@@ -0,0 +1,346 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.clients.CaliperClient;
+import org.imsglobal.caliper.clients.MemoryBudget;
+import org.imsglobal.caliper.statistics.RollingStatistic;
+import org.imsglobal.caliper.statistics.RollingStatistics;
+import org.imsglobal.caliper.statistics.Statistic;
+import org.imsglobal.caliper.statistics.Statistics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Renders Sensor, Client and memory budget statistics in the OpenMetrics text format, e.g., for scraping
+ * by Prometheus.  For each statistic:
+ *
+ * - statistics that record a histogram (sizes and latencies) become histograms, with cumulative buckets
+ *   taken from the rolling statistic, and a sum and count;
+ * - statistics that record values, e.g., the batch size and linger chosen by the adaptive controller,
+ *   also export their last value as a gauge;
+ * - all other statistics become counters of the updates recorded;
+ * - the 1, 5 and 15 minute moving average rates of every statistic become a gauge.
+ *
+ * Memory budgets contribute gauges of used, peak and maximum bytes.  Sources are read at scrape time from
+ * lock-free snapshots, so Clients registered after the exporter are included and scraping does not block
+ * the send path.  Output can be written to any Writer or served with MetricsServer.
+ */
+public class OpenMetricsExporter {
+    private final List<Sensor> sensors = new CopyOnWriteArrayList<>();
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+    private final Map<String, MemoryBudget> budgets = new LinkedHashMap<>();
+
+    /**
+     * Content type of the exposition.
+     */
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final String PREFIX = "caliper_";
+    private static final int[] RATE_WINDOWS = RollingStatistic.WINDOWS;
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     */
+    private OpenMetricsExporter() {
+
+    }
+
+    /**
+     * Export the statistics of a Sensor and of each of its Clients, labelled by sensor and client id.
+     * @param sensor
+     * @return this exporter
+     */
+    public OpenMetricsExporter addSensor(Sensor sensor) {
+        checkArgument(sensor != null, "Sensor must be specified.");
+        sensors.add(sensor);
+        return this;
+    }
+
+    /**
+     * Export a Statistics instance under the given labels, e.g., the per-endpoint statistics of an
+     * HttpClient.
+     * @param labels
+     * @param statistics
+     * @return this exporter
+     */
+    public OpenMetricsExporter addStatistics(Map<String, String> labels, Statistics statistics) {
+        checkArgument(statistics != null, "Statistics must be specified.");
+        sources.add(new Source(ImmutableMap.copyOf(labels), statistics));
+        return this;
+    }
+
+    /**
+     * Export the gauges of a memory budget, labelled by name.
+     * @param name
+     * @param budget
+     * @return this exporter
+     */
+    public synchronized OpenMetricsExporter addMemoryBudget(String name, MemoryBudget budget) {
+        checkArgument(budget != null, "Memory budget must be specified.");
+        budgets.put(name, budget);
+        return this;
+    }
+
+    /**
+     * Write the exposition.
+     * @param out
+     * @throws IOException
+     */
+    public void write(Writer out) throws IOException {
+        Map<String, Family> families = new LinkedHashMap<>();
+        for (Source source : sources()) {
+            collect(families, source);
+        }
+        synchronized (this) {
+            for (Map.Entry<String, MemoryBudget> entry : budgets.entrySet()) {
+                Map<String, String> labels = ImmutableMap.of("budget", entry.getKey());
+                MemoryBudget budget = entry.getValue();
+                family(families, "memory_budget_used_bytes", "gauge", "Bytes reserved by buffered data.")
+                    .add("", labels, budget.getUsedBytes());
+                family(families, "memory_budget_peak_bytes", "gauge", "Peak bytes reserved by buffered data.")
+                    .add("", labels, budget.getPeakBytes());
+                family(families, "memory_budget_max_bytes", "gauge", "Memory budget.")
+                    .add("", labels, budget.getMaxBytes());
+            }
+        }
+
+        for (Family family : families.values()) {
+            family.write(out);
+        }
+        out.write("# EOF\n");
+    }
+
+    /**
+     * Render the exposition as a String.
+     * @return exposition
+     */
+    public String scrape() {
+        StringWriter out = new StringWriter();
+        try {
+            write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return the sources to scrape, with the Sensors expanded into their current Clients
+     */
+    private List<Source> sources() {
+        List<Source> all = new ArrayList<>();
+        for (Sensor sensor : sensors) {
+            all.add(new Source(ImmutableMap.of("sensor", sensor.getId(), "client", ""),
+                sensor.getSensorStatistics()));
+            for (CaliperClient client : sensor.getClients().values()) {
+                all.add(new Source(ImmutableMap.of("sensor", sensor.getId(), "client", client.getId()),
+                    client.getStatistics()));
+            }
+        }
+        all.addAll(sources);
+        return all;
+    }
+
+    /**
+     * Add the samples of a Statistics instance to their families.
+     * @param families
+     * @param source
+     */
+    private static void collect(Map<String, Family> families, Source source) {
+        RollingStatistics rolling = source.statistics.getRolling();
+        for (Map.Entry<String, Statistic> entry : source.statistics.entrySet()) {
+            String name = nameOf(entry.getKey());
+            RollingStatistic statistic = rolling.find(entry.getKey());
+            RollingStatistic.Snapshot snapshot = (statistic != null) ? statistic.snapshot() : null;
+
+            long[] buckets = (snapshot != null) ? snapshot.getBuckets() : null;
+            if (buckets != null) {
+                Family family = family(families, name, "histogram", entry.getKey() + " distribution.");
+                // The last bucket is unbounded; finite buckets are emitted up to the highest one in use
+                long cumulative = 0;
+                int last = buckets.length - 2;
+                while (last > 0 && buckets[last] == 0) {
+                    last--;
+                }
+                for (int b = 0; b <= last; b++) {
+                    cumulative += buckets[b];
+                    family.add("_bucket", with(source.labels, "le", format(RollingStatistic.upperBoundOf(b))),
+                        cumulative);
+                }
+                for (int b = last + 1; b < buckets.length; b++) {
+                    cumulative += buckets[b];
+                }
+                family.add("_bucket", with(source.labels, "le", "+Inf"), cumulative);
+                family.add("_sum", source.labels, snapshot.getSum());
+                family.add("_count", source.labels, cumulative);
+            } else if (!Statistics.isValue(entry.getKey())) {
+                family(families, name, "counter", entry.getKey() + " count.")
+                    .add("_total", source.labels, entry.getValue().getCount());
+            }
+            if (Statistics.isValue(entry.getKey()) && entry.getValue().getCount() > 0) {
+                family(families, name + "_last", "gauge", entry.getKey() + " last value.")
+                    .add("", source.labels, entry.getValue().getLast());
+            }
+            if (snapshot == null) {
+                continue;
+            }
+
+            Family rates = family(families, name + "_rate", "gauge",
+                entry.getKey() + " moving average rate per second.");
+            for (int minutes : RATE_WINDOWS) {
+                rates.add("", with(source.labels, "window", minutes + "m"), snapshot.getEwmaRate(minutes));
+            }
+        }
+    }
+
+    /**
+     * Get or add a metric family.  A name is exported with one type only, since two TYPE lines for the same
+     * family make the exposition invalid.
+     * @param families
+     * @param name
+     * @param type
+     * @param help
+     * @return family
+     * @throws IllegalStateException if the family was already added with another type
+     */
+    private static Family family(Map<String, Family> families, String name, String type, String help) {
+        Family family = families.get(name);
+        if (family == null) {
+            family = new Family(PREFIX + name, type, help);
+            families.put(name, family);
+        }
+        checkState(family.type.equals(type), "Metric %s is exported as both %s and %s.",
+            family.name, family.type, type);
+        return family;
+    }
+
+    /**
+     * Map a statistic name, e.g., "Circuit Half-Opened", onto a metric name, e.g., "circuit_half_opened".
+     * @param key
+     * @return metric name
+     */
+    static String nameOf(String key) {
+        StringBuilder name = new StringBuilder(key.length());
+        boolean separator = false;
+        for (char c : key.toLowerCase(Locale.ROOT).toCharArray()) {
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (separator && name.length() > 0) {
+                    name.append('_');
+                }
+                name.append(c);
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+        return name.toString();
+    }
+
+    private static Map<String, String> with(Map<String, String> labels, String name, String value) {
+        Map<String, String> extended = new LinkedHashMap<>(labels);
+        extended.put(name, value);
+        return extended;
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Statistics to export under a set of labels.
+     */
+    private static class Source {
+        private final Map<String, String> labels;
+        private final Statistics statistics;
+
+        private Source(Map<String, String> labels, Statistics statistics) {
+            this.labels = labels;
+            this.statistics = statistics;
+        }
+    }
+
+    /**
+     * A metric family and its samples, rendered together as the format requires.
+     */
+    private static class Family {
+        private final String name;
+        private final String type;
+        private final String help;
+        private final StringBuilder samples = new StringBuilder();
+
+        private Family(String name, String type, String help) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+        }
+
+        private Family add(String suffix, Map<String, String> labels, double value) {
+            samples.append(name).append(suffix);
+            if (!labels.isEmpty()) {
+                samples.append('{');
+                boolean first = true;
+                for (Map.Entry<String, String> label : labels.entrySet()) {
+                    if (!first) {
+                        samples.append(',');
+                    }
+                    samples.append(label.getKey()).append("=\"").append(escape(label.getValue())).append('"');
+                    first = false;
+                }
+                samples.append('}');
+            }
+            samples.append(' ').append(format(value)).append('\n');
+            return this;
+        }
+
+        private void write(Writer out) throws IOException {
+            out.write("# TYPE " + name + " " + type + "\n");
+            out.write("# HELP " + name + " " + help + "\n");
+            out.write(samples.toString());
+        }
+    }
+
+    /**
+     * Factory method.
+     * @return exporter
+     */
+    public static OpenMetricsExporter create() {
+        return new OpenMetricsExporter();
+    }
+}
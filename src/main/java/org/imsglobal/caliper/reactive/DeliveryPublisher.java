@@ -0,0 +1,194 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the delivery results of a SensorSubscriber to any number of Subscribers.  Each Subscriber
+ * receives the results published after it subscribed, as fast as it requests them; results it has not
+ * yet requested are buffered up to a bound, beyond which the oldest are dropped, so that a slow results
+ * Subscriber never holds back sending.
+ */
+final class DeliveryPublisher implements Publisher<DeliveryResult> {
+    private final int bufferSize;
+    private final CopyOnWriteArrayList<Inner> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean terminated;
+    private volatile Throwable error;
+
+    /**
+     * Constructor
+     * @param bufferSize
+     */
+    DeliveryPublisher(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super DeliveryResult> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must be specified.");
+        }
+        Inner inner = new Inner(subscriber);
+        subscribers.add(inner);
+        subscriber.onSubscribe(inner);
+        if (terminated) {
+            inner.terminate();
+        }
+    }
+
+    /**
+     * Publish a result to the current Subscribers.
+     * @param result
+     */
+    void publish(DeliveryResult result) {
+        for (Inner inner : subscribers) {
+            inner.offer(result);
+        }
+    }
+
+    /**
+     * Signal the Subscribers that no more results follow.
+     * @param error failure of the upstream Publisher or null
+     */
+    void complete(Throwable error) {
+        this.error = error;
+        this.terminated = true;
+        for (Inner inner : subscribers) {
+            inner.terminate();
+        }
+    }
+
+    /**
+     * Subscription of a single Subscriber.  Signals are emitted by whichever thread wins the drain loop,
+     * so that they are never concurrent.
+     */
+    private final class Inner implements Subscription {
+        private final Subscriber<? super DeliveryResult> subscriber;
+        private final ArrayDeque<DeliveryResult> queue = new ArrayDeque<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        private Inner(Subscriber<? super DeliveryResult> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                // Signalled by the drain loop, so that onError never overlaps an onNext in progress
+                invalidRequest = new IllegalArgumentException("Requested " + n + " results; must be positive.");
+                drain();
+                return;
+            }
+            while (true) {
+                long current = requested.get();
+                long next = current + n;
+                if (requested.compareAndSet(current, next < 0 ? Long.MAX_VALUE : next)) {
+                    break;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscribers.remove(this);
+        }
+
+        private void offer(DeliveryResult result) {
+            synchronized (queue) {
+                if (queue.size() == bufferSize) {
+                    queue.poll();
+                    dropped.incrementAndGet();
+                }
+                queue.offer(result);
+            }
+            drain();
+        }
+
+        private void terminate() {
+            done = true;
+            drain();
+        }
+
+        private DeliveryResult poll() {
+            synchronized (queue) {
+                return queue.poll();
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (queue) {
+                return queue.isEmpty();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                long r = requested.get();
+                long emitted = 0;
+                while (emitted != r && !cancelled && invalidRequest == null) {
+                    DeliveryResult result = poll();
+                    if (result == null) {
+                        break;
+                    }
+                    subscriber.onNext(result);
+                    emitted++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (invalidRequest != null) {
+                    cancel();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                if (done && isEmpty()) {
+                    cancel();
+                    if (error != null) {
+                        subscriber.onError(error);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                if (emitted != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
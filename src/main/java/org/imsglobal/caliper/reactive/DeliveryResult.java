@@ -0,0 +1,84 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+import org.imsglobal.caliper.Envelope;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Outcome of sending an Envelope assembled by a SensorSubscriber.
+ */
+public class DeliveryResult {
+    private final Envelope envelope;
+    private final Throwable failure;
+    private final long latency;
+
+    /**
+     * Constructor
+     * @param envelope
+     * @param failure
+     * @param latency
+     */
+    DeliveryResult(Envelope envelope, Throwable failure, long latency) {
+        this.envelope = envelope;
+        this.failure = failure;
+        this.latency = latency;
+    }
+
+    /**
+     * Get the Envelope.
+     * @return envelope
+     */
+    @Nonnull
+    public Envelope getEnvelope() {
+        return envelope;
+    }
+
+    /**
+     * @return true if the Envelope was sent to every registered Client
+     */
+    public boolean isDelivered() {
+        return failure == null;
+    }
+
+    /**
+     * Get the failure.
+     * @return failure or null if the Envelope was delivered
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Get the time (ns) taken by Sensor.send().
+     * @return latency
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliveryResult{items=" + envelope.getData().size() + ", delivered=" + isDelivered()
+            + ", latency=" + latency + "}";
+    }
+}
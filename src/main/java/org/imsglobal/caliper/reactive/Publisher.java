@@ -0,0 +1,35 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+/**
+ * A provider of a potentially unbounded number of items, published according to the demand signalled by
+ * its Subscribers.  The interface has the signature and contract of java.util.concurrent.Flow.Publisher
+ * and org.reactivestreams.Publisher, neither of which is available on the Java 8 baseline, so that an
+ * adapter to either is a one-line delegation.
+ * @param <T> item type
+ */
+public interface Publisher<T> {
+
+    /**
+     * Request the Publisher to start streaming items to the Subscriber.
+     * @param subscriber
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
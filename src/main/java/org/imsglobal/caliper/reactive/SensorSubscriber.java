@@ -0,0 +1,287 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscribes a Sensor to a reactive pipeline.  Items are assembled into Envelopes of maxEnvelopeItems
+ * and sent with Sensor.send() on the configured executor.  The Subscriber requests items for at most
+ * maxInFlight Envelopes and requests another Envelope's worth only as each send completes, so that
+ * backpressure from the Clients (and thus from the endpoint) propagates to the producer without an
+ * unbounded buffer.  With the default executor an Envelope is sent on the thread that delivered its
+ * last item, or on a shared timer thread if it lingered; a send is then complete once the registered
+ * Clients have accepted it, which for a BatchingClient means buffered.
+ *
+ * The outcome of every send is published by getResults().  A partial Envelope is sent once it has
+ * waited maxLinger for more items, and when the upstream Publisher completes or fails; the items it
+ * lacked are requested again once it has been sent.
+ */
+public class SensorSubscriber implements Subscriber<CaliperSendable> {
+    private final Sensor sensor;
+    private final SubscriberOptions options;
+    private final DeliveryPublisher results;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile Subscription subscription;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private final Object lock = new Object();
+    private List<CaliperSendable> data;
+    private long generation;
+
+    private static final ScheduledExecutorService LINGER = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("caliper-subscriber-linger-%d").setDaemon(true).build());
+
+    /**
+     * Constructor.  Scope is private to force use of the static factory method.
+     * @param sensor
+     * @param options
+     */
+    private SensorSubscriber(Sensor sensor, SubscriberOptions options) {
+        this.sensor = sensor;
+        this.options = options;
+        this.results = new DeliveryPublisher(options.getResultBufferSize());
+        this.data = new ArrayList<>(options.getMaxEnvelopeItems());
+    }
+
+    /**
+     * Get the options.
+     * @return options
+     */
+    public SubscriberOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Get the publisher of delivery results, one per Envelope sent.
+     * @return results
+     */
+    public Publisher<DeliveryResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the number of Envelopes being sent.
+     * @return in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        if (subscription == null) {
+            throw new NullPointerException("Subscription must be specified.");
+        }
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request((long) options.getMaxInFlight() * options.getMaxEnvelopeItems());
+    }
+
+    @Override
+    public void onNext(CaliperSendable item) {
+        if (item == null) {
+            throw new NullPointerException("Item must be specified.");
+        }
+        Envelope envelope = null;
+        synchronized (lock) {
+            if (done) {
+                return;
+            }
+            data.add(item);
+            if (data.size() == options.getMaxEnvelopeItems()) {
+                envelope = take();
+            } else if (data.size() == 1) {
+                scheduleLinger(generation);
+            }
+        }
+        if (envelope != null) {
+            dispatch(envelope);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (throwable == null) {
+            throw new NullPointerException("Throwable must be specified.");
+        }
+        error = throwable;
+        terminate();
+    }
+
+    @Override
+    public void onComplete() {
+        terminate();
+    }
+
+    /**
+     * Stop requesting items.  Envelopes in flight are still sent; items of a partially assembled
+     * Envelope are not.
+     */
+    public void cancel() {
+        Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+        done = true;
+        if (inFlight.get() == 0) {
+            completeResults();
+        }
+    }
+
+    /**
+     * Send the partial Envelope, if any, and complete the results once nothing is in flight.
+     */
+    private void terminate() {
+        Envelope envelope = null;
+        synchronized (lock) {
+            if (done) {
+                return;
+            }
+            if (!data.isEmpty()) {
+                envelope = take();
+            }
+            done = true;
+        }
+        if (envelope != null) {
+            dispatch(envelope);
+        }
+        if (inFlight.get() == 0) {
+            completeResults();
+        }
+    }
+
+    /**
+     * Send the partial Envelope of a generation if it is still being assembled once maxLinger elapses.
+     * @param expected generation of the partial Envelope
+     */
+    private void scheduleLinger(final long expected) {
+        LINGER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                Envelope envelope = null;
+                synchronized (lock) {
+                    if (!done && generation == expected && !data.isEmpty()) {
+                        envelope = take();
+                    }
+                }
+                if (envelope != null) {
+                    dispatch(envelope);
+                }
+            }
+        }, options.getMaxLinger(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take the assembled items as an Envelope and count it as in flight.  Callers hold the lock.
+     * @return envelope
+     */
+    private Envelope take() {
+        Envelope envelope = new Envelope(sensor.getId(), DateTime.now(), options.getDataVersion(), data);
+        data = new ArrayList<>(options.getMaxEnvelopeItems());
+        generation++;
+        inFlight.incrementAndGet();
+        return envelope;
+    }
+
+    /**
+     * Hand the assembled Envelope to the executor.
+     * @param envelope
+     */
+    private void dispatch(final Envelope envelope) {
+        try {
+            options.getExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(envelope);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            complete(envelope, e, 0);
+        }
+    }
+
+    /**
+     * Send the Envelope.
+     * @param envelope
+     */
+    private void deliver(Envelope envelope) {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            sensor.send(envelope);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        complete(envelope, failure, System.nanoTime() - start);
+    }
+
+    /**
+     * Publish the outcome of a send and request the items of another Envelope.
+     * @param envelope
+     * @param failure
+     * @param latency
+     */
+    private void complete(Envelope envelope, Throwable failure, long latency) {
+        results.publish(new DeliveryResult(envelope, failure, latency));
+        if (!done) {
+            // Replace the items sent, which are fewer than maxEnvelopeItems if the Envelope lingered
+            subscription.request(envelope.getData().size());
+        }
+        if (inFlight.decrementAndGet() == 0 && done) {
+            completeResults();
+        }
+    }
+
+    /**
+     * Complete the results exactly once.
+     */
+    private void completeResults() {
+        if (completed.compareAndSet(false, true)) {
+            results.complete(error);
+        }
+    }
+
+    /**
+     * Factory method.
+     * @param sensor
+     * @param options
+     * @return SensorSubscriber
+     */
+    public static SensorSubscriber create(Sensor sensor, SubscriberOptions options) {
+        return new SensorSubscriber(sensor, options);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+/**
+ * A receiver of items that signals its demand through a Subscription.  The interface has the signature
+ * and contract of java.util.concurrent.Flow.Subscriber and org.reactivestreams.Subscriber.
+ * @param <T> item type
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Invoked once, before any other signal, with the Subscription used to request items.
+     * @param subscription
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Invoked with the next item, never more often than requested.
+     * @param item
+     */
+    void onNext(T item);
+
+    /**
+     * Invoked when the Publisher fails; no further signals follow.
+     * @param throwable
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Invoked when the Publisher has no more items; no further signals follow.
+     */
+    void onComplete();
+}
@@ -0,0 +1,212 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.validators.SensorValidator;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Options of a SensorSubscriber.
+ */
+public class SubscriberOptions {
+    private final int maxEnvelopeItems;
+    private final int maxLinger;
+    private final int maxInFlight;
+    private final int resultBufferSize;
+    private final Executor executor;
+    private final String dataVersion;
+
+    /**
+     * Default number of items per Envelope.  Items are sent as soon as they arrive; register a
+     * BatchingClient to batch them.
+     */
+    public static final int MAX_ENVELOPE_ITEMS = 1;
+
+    /**
+     * Default time (ms) a partially assembled Envelope waits for more items before it is sent.
+     */
+    public static final int MAX_LINGER = 1000;
+
+    /**
+     * Default number of Envelopes being sent at once.
+     */
+    public static final int MAX_IN_FLIGHT = 16;
+
+    /**
+     * Default number of delivery results buffered per results Subscriber that has not requested them.
+     */
+    public static final int RESULT_BUFFER_SIZE = 256;
+
+    /**
+     * Constructor
+     * @param builder
+     */
+    private SubscriberOptions(OptionsBuilder builder) {
+        this.maxEnvelopeItems = SensorValidator.chkPositiveIntValue(builder.maxEnvelopeItems, MAX_ENVELOPE_ITEMS);
+        this.maxLinger = SensorValidator.chkPositiveIntValue(builder.maxLinger, MAX_LINGER);
+        this.maxInFlight = SensorValidator.chkPositiveIntValue(builder.maxInFlight, MAX_IN_FLIGHT);
+        this.resultBufferSize = SensorValidator.chkPositiveIntValue(builder.resultBufferSize, RESULT_BUFFER_SIZE);
+        this.executor = (builder.executor != null) ? builder.executor : MoreExecutors.directExecutor();
+        this.dataVersion = SensorValidator.chkStrValue(builder.dataVersion, Config.DATA_VERSION);
+    }
+
+    /**
+     * Get the number of items per Envelope.
+     * @return max envelope items
+     */
+    public int getMaxEnvelopeItems() {
+        return maxEnvelopeItems;
+    }
+
+    /**
+     * Get the time (ms) a partially assembled Envelope waits for more items, so that a slow stream does
+     * not hold items back indefinitely.
+     * @return max linger
+     */
+    public int getMaxLinger() {
+        return maxLinger;
+    }
+
+    /**
+     * Get the number of Envelopes being sent at once; the Subscriber requests no more items than fit.
+     * @return max in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Get the number of delivery results buffered per results Subscriber; the oldest are dropped.
+     * @return result buffer size
+     */
+    public int getResultBufferSize() {
+        return resultBufferSize;
+    }
+
+    /**
+     * Get the executor on which Envelopes are sent.
+     * @return executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Get the data version of the Envelopes.
+     * @return data version
+     */
+    public String getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * Builder class provides a fluid interface for setting options properties.
+     */
+    public static class OptionsBuilder {
+        private int maxEnvelopeItems = 0;
+        private int maxLinger = 0;
+        private int maxInFlight = 0;
+        private int resultBufferSize = 0;
+        private Executor executor;
+        private String dataVersion;
+
+        /**
+         * Constructor
+         */
+        public OptionsBuilder() {
+
+        }
+
+        /**
+         * @param maxEnvelopeItems
+         * @return builder
+         */
+        public OptionsBuilder maxEnvelopeItems(final int maxEnvelopeItems) {
+            this.maxEnvelopeItems = maxEnvelopeItems;
+            return this;
+        }
+
+        /**
+         * @param maxLinger (ms)
+         * @return builder
+         */
+        public OptionsBuilder maxLinger(final int maxLinger) {
+            this.maxLinger = maxLinger;
+            return this;
+        }
+
+        /**
+         * @param maxInFlight
+         * @return builder
+         */
+        public OptionsBuilder maxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * @param resultBufferSize
+         * @return builder
+         */
+        public OptionsBuilder resultBufferSize(final int resultBufferSize) {
+            this.resultBufferSize = resultBufferSize;
+            return this;
+        }
+
+        /**
+         * Executor on which Envelopes are sent.  By default Envelopes are sent on the thread that
+         * delivers the last item, which suits non-blocking Clients (e.g., BatchingClient or SocketClient);
+         * provide an executor if the registered Clients block.
+         * @param executor
+         * @return builder
+         */
+        public OptionsBuilder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param dataVersion
+         * @return builder
+         */
+        public OptionsBuilder dataVersion(final String dataVersion) {
+            this.dataVersion = dataVersion;
+            return this;
+        }
+
+        /**
+         * Client invokes build method in order to create an immutable object.
+         * @return a new instance of Options.
+         */
+        public SubscriberOptions build() {
+            return new SubscriberOptions(this);
+        }
+    }
+
+    /**
+     * Static Factory method.
+     * @return new builder instance
+     */
+    public static OptionsBuilder builder() {
+        return new OptionsBuilder();
+    }
+}
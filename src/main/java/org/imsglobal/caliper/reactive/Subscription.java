@@ -0,0 +1,37 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+/**
+ * Link between a Publisher and a Subscriber.  The interface has the signature and contract of
+ * java.util.concurrent.Flow.Subscription and org.reactivestreams.Subscription.
+ */
+public interface Subscription {
+
+    /**
+     * Add to the number of items the Subscriber is ready to receive.
+     * @param n positive number of items
+     */
+    void request(long n);
+
+    /**
+     * Stop receiving items.
+     */
+    void cancel();
+}
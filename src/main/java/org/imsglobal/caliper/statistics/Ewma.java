@@ -0,0 +1,64 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.statistics;
+
+/**
+ * Exponentially weighted moving average of a rate, in the manner of the UNIX load average.  The rate is
+ * fed the number of updates counted during each tick; it is not thread-safe and is ticked by a single
+ * thread at a time.
+ */
+class Ewma {
+    private final double alpha;
+    private volatile double rate;
+    private boolean initialized;
+
+    /**
+     * Interval (seconds) between ticks.
+     */
+    static final int TICK_INTERVAL = 5;
+
+    /**
+     * Constructor
+     * @param minutes period over which the average decays
+     */
+    Ewma(int minutes) {
+        this.alpha = 1 - Math.exp(-TICK_INTERVAL / 60.0 / minutes);
+    }
+
+    /**
+     * Fold the updates counted during a tick into the rate.
+     * @param count
+     */
+    void tick(long count) {
+        double instantRate = count / (double) TICK_INTERVAL;
+        if (initialized) {
+            rate += alpha * (instantRate - rate);
+        } else {
+            rate = instantRate;
+            initialized = true;
+        }
+    }
+
+    /**
+     * @return rate (per second)
+     */
+    double getRate() {
+        return rate;
+    }
+}
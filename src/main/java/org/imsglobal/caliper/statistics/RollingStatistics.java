@@ -0,0 +1,103 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling statistics by name.  Callers resolve a statistic once with get() and keep the returned handle,
+ * so that updates on the hot path involve no map lookup.
+ */
+public class RollingStatistics {
+    private final ConcurrentHashMap<String, RollingStatistic> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve a statistic without a histogram, creating it if necessary.
+     * @param key
+     * @return statistic
+     */
+    public RollingStatistic get(String key) {
+        return get(key, false);
+    }
+
+    /**
+     * Resolve a statistic, creating it if necessary.  Whether a histogram is recorded is fixed when the
+     * statistic is created.
+     * @param key
+     * @param histogram
+     * @return statistic
+     */
+    public RollingStatistic get(String key, boolean histogram) {
+        RollingStatistic statistic = statistics.get(key);
+        if (statistic == null) {
+            RollingStatistic created = new RollingStatistic(histogram);
+            statistic = statistics.putIfAbsent(key, created);
+            if (statistic == null) {
+                statistic = created;
+            }
+        }
+        return statistic;
+    }
+
+    /**
+     * Look up a statistic without creating it.
+     * @param key
+     * @return statistic or null if none was created
+     */
+    public RollingStatistic find(String key) {
+        return statistics.get(key);
+    }
+
+    /**
+     * Take a snapshot of every statistic.
+     * @return snapshots by name
+     */
+    public Map<String, RollingStatistic.Snapshot> snapshot() {
+        Map<String, RollingStatistic.Snapshot> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<String, RollingStatistic> entry : statistics.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * Take a snapshot of every statistic and start each afresh.  Each statistic is reset atomically.
+     * @return snapshots by name
+     */
+    public Map<String, RollingStatistic.Snapshot> snapshotAndReset() {
+        Map<String, RollingStatistic.Snapshot> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<String, RollingStatistic> entry : statistics.entrySet()) {
+            snapshots.put(entry.getKey(), entry.getValue().snapshotAndReset());
+        }
+        return snapshots;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("\n-------- Caliper Java Rolling Statistics --------\n");
+        for (Map.Entry<String, RollingStatistic.Snapshot> entry : snapshot().entrySet()) {
+            builder.append(String.format("%s : %s\n", entry.getKey(), entry.getValue()));
+        }
+        builder.append("-------------------------------------------------\n");
+        return builder.toString();
+    }
+}
@@ -25,31 +25,16 @@ import java.util.concurrent.atomic.AtomicInteger;
  * A statistic that captures properties {min, max, avg, sum, std.dev} of 
  * a series of numeric values.
  *
+ * clear() is atomic with respect to update(): values are swapped out and a writer/reader phaser
+ * waits for the updates already in progress, so every value is counted either before or after it.
  */
 public class Statistic {
 
-    private AtomicDouble sum;
-    private AtomicInteger count;
-
-    private AtomicDouble last;
-
-    // Standard deviation variables based on
-    // http://www.johndcook.com/standard_deviation.html
-    private AtomicBoolean lock;
-
-    private double oldM;
-    private double newM;
-    private double oldS;
-    private double newS;
-
-    private double min;
-    private double max;
+    private volatile Values values = new Values();
+    private final WriterReaderPhaser phaser = new WriterReaderPhaser();
 
     public Statistic() {
-        sum = new AtomicDouble(0.0);
-        count = new AtomicInteger(0);
-        last = new AtomicDouble(0.0);
-        lock = new AtomicBoolean(false);
+
     }
 
     /**
@@ -57,57 +42,17 @@ public class Statistic {
      * @param val
      */
     public void update(double val) {
-
-        int n = count.addAndGet(1);
-
-        if (lock.compareAndSet(false, true)) {
-            if (n == 1) {
-                // this is the first time we are executing, so clear the numbers
-
-                oldM = newM = val;
-                oldS = 0.0;
-
-                min = val;
-                max = val;
-            } else {
-                // this is not our first update
-                newM = oldM + (val - oldM) / n;
-                newS = oldS + (val - oldM) * (val * newM);
-
-                oldM = newM;
-                oldS = newS;
-            }
-
-            if (val < min) {
-                min = val;
-            }
-
-            if (val > max) {
-                max = val;
-            }
-
-            lock.set(false);
+        long epoch = phaser.enter();
+        try {
+            values.update(val);
+        } finally {
+            phaser.exit(epoch);
         }
-
-        sum.addAndGet(val);
-
-        last.set(val);
     }
 
-    public void clear() {
-        count.set(0);
-        sum.set(0.0);
-
-        last.set(0.0);
-
-        min = 0;
-        max = 0;
-
-        oldM = 0;
-        newM = 0;
-        oldS = 0;
-        newS = 0;
-
+    public synchronized void clear() {
+        values = new Values();
+        phaser.flip();
     }
 
     /**
@@ -115,7 +60,7 @@ public class Statistic {
      * @return
      */
     public double getSum() {
-        return sum.get();
+        return values.sum.get();
     }
 
     /**
@@ -123,7 +68,7 @@ public class Statistic {
      * @return
      */
     public int getCount() {
-        return count.get();
+        return values.count.get();
     }
 
     /**
@@ -131,7 +76,9 @@ public class Statistic {
      * @return
      */
     public double getAverage() {
-        return count.get() > 0 ? (sum.get() / count.get()) : 0.0;
+        Values values = this.values;
+        int count = values.count.get();
+        return count > 0 ? (values.sum.get() / count) : 0.0;
     }
 
     /**
@@ -139,7 +86,9 @@ public class Statistic {
      * @return
      */
     public double getVariance() {
-        return (count.get() > 1) ? newS / (count.get() - 1) : 1.0;
+        Values values = this.values;
+        int count = values.count.get();
+        return (count > 1) ? values.newS / (count - 1) : 1.0;
     }
 
     /**
@@ -155,7 +104,7 @@ public class Statistic {
      * @return
      */
     public double getMin() {
-        return min;
+        return values.min;
     }
 
     /**
@@ -163,7 +112,7 @@ public class Statistic {
      * @return
      */
     public double getMax() {
-        return max;
+        return values.max;
     }
 
     /**
@@ -171,13 +120,13 @@ public class Statistic {
      * @return
      */
     public double getLast() {
-        return last.get();
+        return values.last.get();
     }
 
     @Override
     public String toString() {
 
-        if (min == 1.0 && max == 1.0) {
+        if (getMin() == 1.0 && getMax() == 1.0) {
 
             // this is just a count
             return "" + getCount();
@@ -190,4 +139,64 @@ public class Statistic {
 
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Values recorded since creation or the last clear().
+     */
+    private static final class Values {
+        private final AtomicDouble sum = new AtomicDouble(0.0);
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        private final AtomicDouble last = new AtomicDouble(0.0);
+
+        // Standard deviation variables based on
+        // http://www.johndcook.com/standard_deviation.html
+        private final AtomicBoolean lock = new AtomicBoolean(false);
+
+        private double oldM;
+        private double newM;
+        private double oldS;
+        private double newS;
+
+        private double min;
+        private double max;
+
+        private void update(double val) {
+
+            int n = count.addAndGet(1);
+
+            if (lock.compareAndSet(false, true)) {
+                if (n == 1) {
+                    // this is the first time we are executing, so clear the numbers
+
+                    oldM = newM = val;
+                    oldS = 0.0;
+
+                    min = val;
+                    max = val;
+                } else {
+                    // this is not our first update
+                    newM = oldM + (val - oldM) / n;
+                    newS = oldS + (val - oldM) * (val * newM);
+
+                    oldM = newM;
+                    oldS = newS;
+                }
+
+                if (val < min) {
+                    min = val;
+                }
+
+                if (val > max) {
+                    max = val;
+                }
+
+                lock.set(false);
+            }
+
+            sum.addAndGet(val);
+
+            last.set(val);
+        }
+    }
+}
@@ -18,46 +18,287 @@
 
 package org.imsglobal.caliper.statistics;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 
+/**
+ * Named statistics of a Sensor, Client or endpoint.  Each update is recorded both in a lifetime Statistic
+ * and in a RollingStatistic that reports the last 1, 5 and 15 minutes; size and latency statistics also
+ * record a histogram.  Handles are resolved on first use and kept in a slot per statistic, so updates do
+ * not look up the map.
+ */
 public class Statistics extends StatisticsMap {
 
     private static final long serialVersionUID = 5469315718941515883L;
 
-    private static String MEASURE_KEY = "Measure";
-    private static String DESCRIBE_KEY = "Describe";
+    private transient RollingStatistics rolling = new RollingStatistics();
+    private transient volatile Handle[] handles = new Handle[KEY_COUNT];
+
+    private static final Key MEASURE = new Key("Measure", 0, false);
+    private static final Key DESCRIBE = new Key("Describe", 1, false);
+
+    private static final Key SUCCESSFUL = new Key("Successful", 2, false);
+    private static final Key FAILED = new Key("Failed", 3, false);
+
+    private static final Key CIRCUIT_OPENED = new Key("Circuit Opened", 4, false);
+    private static final Key CIRCUIT_HALF_OPENED = new Key("Circuit Half-Opened", 5, false);
+    private static final Key CIRCUIT_CLOSED = new Key("Circuit Closed", 6, false);
+    private static final Key REJECTED = new Key("Rejected", 7, false);
+    private static final Key FALLBACK = new Key("Fallback", 8, false);
+
+    private static final Key BATCH_SIZE = new Key("Batch Size", 9, true);
+    private static final Key BATCH_LINGER = new Key("Batch Linger", 10, true);
+    private static final Key BATCH_SPLIT = new Key("Batch Split", 11, false);
 
-    private static String SUCCESSFUL_KEY = "Successful";
-    private static String FAILED_KEY = "Failed";
+    private static final Key LATENCY = new Key("Latency", 12, true);
+    private static final Key EJECTED = new Key("Ejected", 13, false);
+
+    private static final Key FILTERED = new Key("Filtered", 14, false);
+    private static final Key COALESCED = new Key("Coalesced", 15, false);
+    private static final Key SHED = new Key("Shed", 16, false);
+
+    private static final Key BUDGET_REJECTED = new Key("Budget Rejected", 17, false);
+    private static final Key HIGH_WATER_MARK = new Key("High-Water Mark", 18, false);
+
+    private static final int KEY_COUNT = 19;
 
     public Statistic getDescribes() {
-        return ensure(DESCRIBE_KEY);
+        return ensure(DESCRIBE.name);
     }
 
     public void updateDescribes(double val) {
-        update(DESCRIBE_KEY, val);
+        update(DESCRIBE, val);
     }
 
     public Statistic getMeasures() {
-        return ensure(MEASURE_KEY);
+        return ensure(MEASURE.name);
     }
 
     public void updateMeasures(double val) {
-        update(MEASURE_KEY, val);
+        update(MEASURE, val);
     }
 
     public Statistic getSuccessful() {
-        return ensure(SUCCESSFUL_KEY);
+        return ensure(SUCCESSFUL.name);
     }
 
     public void updateSuccessful(double val) {
-        update(SUCCESSFUL_KEY, val);
+        update(SUCCESSFUL, val);
     }
 
     public Statistic getFailed() {
-        return ensure(FAILED_KEY);
+        return ensure(FAILED.name);
     }
 
     public void updateFailed(double val) {
-        update(FAILED_KEY, val);
+        update(FAILED, val);
+    }
+
+    public Statistic getCircuitOpened() {
+        return ensure(CIRCUIT_OPENED.name);
+    }
+
+    public void updateCircuitOpened(double val) {
+        update(CIRCUIT_OPENED, val);
+    }
+
+    public Statistic getCircuitHalfOpened() {
+        return ensure(CIRCUIT_HALF_OPENED.name);
+    }
+
+    public void updateCircuitHalfOpened(double val) {
+        update(CIRCUIT_HALF_OPENED, val);
+    }
+
+    public Statistic getCircuitClosed() {
+        return ensure(CIRCUIT_CLOSED.name);
+    }
+
+    public void updateCircuitClosed(double val) {
+        update(CIRCUIT_CLOSED, val);
+    }
+
+    public Statistic getRejected() {
+        return ensure(REJECTED.name);
+    }
+
+    public void updateRejected(double val) {
+        update(REJECTED, val);
+    }
+
+    public Statistic getFallback() {
+        return ensure(FALLBACK.name);
+    }
+
+    public void updateFallback(double val) {
+        update(FALLBACK, val);
+    }
+
+    public Statistic getBatchSize() {
+        return ensure(BATCH_SIZE.name);
+    }
+
+    public void updateBatchSize(double val) {
+        update(BATCH_SIZE, val);
+    }
+
+    public Statistic getBatchLinger() {
+        return ensure(BATCH_LINGER.name);
+    }
+
+    public void updateBatchLinger(double val) {
+        update(BATCH_LINGER, val);
+    }
+
+    public Statistic getBatchSplit() {
+        return ensure(BATCH_SPLIT.name);
+    }
+
+    public void updateBatchSplit(double val) {
+        update(BATCH_SPLIT, val);
+    }
+
+    public Statistic getLatency() {
+        return ensure(LATENCY.name);
+    }
+
+    public void updateLatency(double val) {
+        update(LATENCY, val);
+    }
+
+    public Statistic getEjected() {
+        return ensure(EJECTED.name);
+    }
+
+    public void updateEjected(double val) {
+        update(EJECTED, val);
+    }
+
+    public Statistic getFiltered() {
+        return ensure(FILTERED.name);
+    }
+
+    public void updateFiltered(double val) {
+        update(FILTERED, val);
+    }
+
+    public Statistic getCoalesced() {
+        return ensure(COALESCED.name);
+    }
+
+    public void updateCoalesced(double val) {
+        update(COALESCED, val);
+    }
+
+    public Statistic getShed() {
+        return ensure(SHED.name);
+    }
+
+    public void updateShed(double val) {
+        update(SHED, val);
+    }
+
+    public Statistic getBudgetRejected() {
+        return ensure(BUDGET_REJECTED.name);
+    }
+
+    public void updateBudgetRejected(double val) {
+        update(BUDGET_REJECTED, val);
+    }
+
+    public Statistic getHighWaterMark() {
+        return ensure(HIGH_WATER_MARK.name);
+    }
+
+    public void updateHighWaterMark(double val) {
+        update(HIGH_WATER_MARK, val);
+    }
+
+    /**
+     * Whether a statistic records values, e.g., sizes and latencies, rather than counting events.  The
+     * last value of such a statistic is a gauge; the count of its updates is not meaningful on its own.
+     * @param name
+     * @return true if the statistic records values
+     */
+    public static boolean isValue(String name) {
+        return BATCH_SIZE.name.equals(name) || BATCH_LINGER.name.equals(name) || LATENCY.name.equals(name);
+    }
+
+    /**
+     * Get the rolling statistics, by the same names as the lifetime statistics.
+     * @return rolling statistics
+     */
+    public RollingStatistics getRolling() {
+        return rolling;
+    }
+
+    /**
+     * Record a value in the lifetime and rolling statistics through the pre-resolved handle.
+     * @param key
+     * @param val
+     */
+    private void update(Key key, double val) {
+        Handle handle = handles[key.slot];
+        if (handle == null) {
+            handle = new Handle(ensure(key.name), rolling.get(key.name, key.histogram));
+            handles[key.slot] = handle;
+        }
+        handle.statistic.update(val);
+        handle.rolling.update(val);
+    }
+
+    /**
+     * Clear the lifetime statistics; handles are resolved afresh.  An update racing the clear may be
+     * recorded in a Statistic that has been removed; use reset() to zero the statistics without losing
+     * updates.  Rolling statistics are reset with RollingStatistics.snapshotAndReset().
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        handles = new Handle[KEY_COUNT];
+    }
+
+    /**
+     * Zero the lifetime statistics.  Each is reset in place and atomically, so the map keeps its entries,
+     * resolved handles stay valid and every update is counted either before or after the reset.
+     */
+    public void reset() {
+        for (Statistic statistic : values()) {
+            statistic.clear();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        rolling = new RollingStatistics();
+        handles = new Handle[KEY_COUNT];
+    }
+
+    /**
+     * Name and slot of a statistic.
+     */
+    private static final class Key {
+        private final String name;
+        private final int slot;
+        private final boolean histogram;
+
+        private Key(String name, int slot, boolean histogram) {
+            this.name = name;
+            this.slot = slot;
+            this.histogram = histogram;
+        }
+    }
+
+    /**
+     * Resolved lifetime and rolling statistic of a key.
+     */
+    private static final class Handle {
+        private final Statistic statistic;
+        private final RollingStatistic rolling;
+
+        private Handle(Statistic statistic, RollingStatistic rolling) {
+            this.statistic = statistic;
+            this.rolling = rolling;
+        }
     }
-}
\ No newline at end of file
+}
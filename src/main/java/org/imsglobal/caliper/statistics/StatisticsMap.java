@@ -25,19 +25,16 @@ public class StatisticsMap extends ConcurrentHashMap<String, Statistic> {
     private static final long serialVersionUID = -8837006750327885446L;
 
     public Statistic ensure(String key) {
-        if (this.containsKey(key)) return this.get(key);
+        Statistic statistic = this.get(key);
+        if (statistic != null) return statistic;
 
-        Statistic statistic = new Statistic();
-        this.put(key, statistic);
-        return statistic;
+        Statistic created = new Statistic();
+        statistic = this.putIfAbsent(key, created);
+        return statistic != null ? statistic : created;
     }
 
     public void update(String operation, double val) {
-        if (!this.containsKey(operation)) {
-            this.putIfAbsent(operation, new Statistic());
-        }
-
-        this.get(operation).update(val);
+        ensure(operation).update(val);
     }
 
     @Override
@@ -18,6 +18,7 @@
 
 package org.imsglobal.caliper.validators;
 
+import com.google.common.collect.ImmutableSet;
 import org.imsglobal.caliper.events.CaliperEventType;
 import org.imsglobal.caliper.actions.CaliperAction;
 import org.imsglobal.caliper.entities.CaliperGeneratable;
@@ -27,9 +28,13 @@ import org.imsglobal.caliper.events.CaliperEvent;
 import org.imsglobal.caliper.events.EventType;
 import org.imsglobal.caliper.events.SupportedActions;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 public class EventValidator {
+    private static final ConcurrentMap<Class<?>, ImmutableSet<String>> SUPPORTED_ACTIONS = new ConcurrentHashMap<>();
 
     /**
      * Constructor
@@ -71,24 +76,37 @@ public class EventValidator {
     }
 
     /**
-     * Check action
+     * Check action against the actions supported by the Event class.
      * @param action
      * @throws IllegalArgumentException
      */
     public static void checkAction(CaliperAction action, Class<? extends CaliperEvent> clazz) throws IllegalArgumentException {
         checkArgument(action != null, "an action must be specified");
+        checkArgument(supportedActions(clazz).contains(action.value()), "%s action is not supported", action);
+    }
 
-        SupportedActions actions = clazz.getAnnotation(SupportedActions.class);
-        checkArgument(actions != null, "supported actions must be specified");
+    /**
+     * Get the values of the actions supported by an Event class, as declared by its SupportedActions
+     * annotation.  The annotation is read once per class; the table may be built ahead of the first
+     * Event, e.g., by Sensor.warmUp().
+     * @param clazz
+     * @return supported action values
+     * @throws IllegalArgumentException if the class declares no supported actions
+     */
+    public static ImmutableSet<String> supportedActions(Class<? extends CaliperEvent> clazz) throws IllegalArgumentException {
+        ImmutableSet<String> values = SUPPORTED_ACTIONS.get(clazz);
+        if (values == null) {
+            SupportedActions actions = clazz.getAnnotation(SupportedActions.class);
+            checkArgument(actions != null, "supported actions must be specified");
 
-        boolean isSupported = false;
-        for (CaliperAction supportedAction : actions.value()) {
-            if (action.value().equals(supportedAction.value())) {
-                isSupported = true;
-                break;
+            ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+            for (CaliperAction supportedAction : actions.value()) {
+                builder.add(supportedAction.value());
             }
+            values = builder.build();
+            SUPPORTED_ACTIONS.putIfAbsent(clazz, values);
         }
-        checkArgument(isSupported, "%s action is not supported", action);
+        return values;
     }
 
     /**
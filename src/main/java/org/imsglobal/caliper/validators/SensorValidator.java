@@ -21,6 +21,9 @@ package org.imsglobal.caliper.validators;
 import com.google.common.base.Strings;
 import org.imsglobal.caliper.clients.CaliperClientOptions;
 
+import java.net.URI;
+import java.net.URISyntaxException;
+
 import static com.google.common.base.Preconditions.checkArgument;
 
 public class SensorValidator {
@@ -51,6 +54,24 @@ public class SensorValidator {
         checkArgument(!(Strings.isNullOrEmpty(id)), className + " instance id property must be specified.");
     }
 
+    /**
+     * Check if host is null, empty or not an absolute http(s) URL.
+     *
+     * @param host
+     * @throws IllegalArgumentException
+     */
+    public static void chkHost(String host) throws IllegalArgumentException {
+        checkArgument(!(Strings.isNullOrEmpty(host)), "Host must be specified.");
+        URI uri;
+        try {
+            uri = new URI(host);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Host " + host + " is not a valid URL.", e);
+        }
+        checkArgument(("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+            && !(Strings.isNullOrEmpty(uri.getHost())), "Host " + host + " is not an absolute http(s) URL.");
+    }
+
     /**
      * Check options
      *
@@ -71,6 +92,16 @@ public class SensorValidator {
         checkArgument(!(Strings.isNullOrEmpty(id)), "Sensor identifier must be specified");
     }
 
+    /**
+     * Check if percentage falls outside the range 0-100.
+     *
+     * @param percentage
+     * @throws IllegalArgumentException
+     */
+    public static void chkPercentage(int percentage) throws IllegalArgumentException {
+        checkArgument(percentage >= 0 && percentage <= 100, "Percentage must be between 0 and 100.");
+    }
+
     /**
      * Check user-supplied integer value against default config value
      * and return the larger of the two values compared.
@@ -82,6 +113,17 @@ public class SensorValidator {
         return (builderValue > defaultValue) ? builderValue : defaultValue;
     }
 
+    /**
+     * Check user-supplied integer value; if not positive return default config value.
+     * Unlike chkIntValue() the user-supplied value may be smaller than the default.
+     * @param builderValue
+     * @param defaultValue
+     * @return
+     */
+    public static int chkPositiveIntValue(int builderValue, int defaultValue) {
+        return (builderValue > 0) ? builderValue : defaultValue;
+    }
+
     /**
      * Check user-supplied integer value against default config value;
      * if null or empty return default config value.
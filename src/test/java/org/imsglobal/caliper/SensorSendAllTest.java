@@ -0,0 +1,135 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper;
+
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.clients.CaliperClientException;
+import org.imsglobal.caliper.clients.RecordingClient;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.databind.RawJson;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.resource.VideoObject;
+import org.imsglobal.caliper.events.EventType;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.imsglobal.caliper.filters.EventFilter;
+import org.imsglobal.caliper.filters.FilterRule;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class SensorSendAllTest {
+    private static final String BASE_IRI = "https://example.edu";
+
+    private Sensor sensor;
+    private RecordingClient client;
+
+    @Before
+    public void setUp() {
+        sensor = Sensor.create(BASE_IRI.concat("/sensors/1"));
+        client = new RecordingClient("recording");
+        sensor.registerClient(client);
+    }
+
+    @Test
+    public void partitionsDataIntoBoundedEnvelopes() {
+        BulkOptions options = BulkOptions.builder()
+            .maxEnvelopeItems(10)
+            .maxEnvelopeBytes(200)
+            .parallelism(2)
+            .maxInFlight(2)
+            .build();
+
+        BulkResult result = sensor.sendAll(IntStream.range(0, 95)
+            .mapToObj(i -> Person.builder().id(BASE_IRI.concat("/users/" + i)).build()), options);
+
+        assertEquals(95, result.getSent());
+        assertEquals(0, result.getFailed());
+        assertNull(result.getFirstFailure());
+        assertEquals(result.getEnvelopes(), client.getEnvelopes().size());
+
+        Set<String> ids = new HashSet<>();
+        for (Envelope envelope : client.getEnvelopes()) {
+            assertTrue(envelope.getData().size() <= 10);
+            long bytes = 0;
+            for (CaliperSendable item : envelope.getData()) {
+                bytes += ((RawJson) item).length();
+                ids.add(item.toString());
+            }
+            assertTrue(envelope.getData().size() == 1 || bytes <= 200);
+        }
+        assertEquals(95, ids.size());
+    }
+
+    @Test
+    public void sendOffersEnvelopeToEveryClientWhenOneFails() {
+        RecordingClient other = new RecordingClient("other");
+        sensor.registerClient(other);
+        client.failWith(503);
+
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(Person.builder().id(BASE_IRI.concat("/users/1")).build());
+        try {
+            sensor.send(new Envelope(sensor.getId(), DateTime.now(), Config.DATA_VERSION, data));
+            fail("Expected send to fail");
+        } catch (CaliperClientException e) {
+            assertEquals(503, e.getStatusCode());
+        }
+        assertEquals(1, other.getEnvelopes().size());
+    }
+
+    @Test
+    public void countsFailuresAndFilteredItems() {
+        sensor.setFilter(EventFilter.builder()
+            .rule(FilterRule.builder().eventType(EventType.MEDIA).action(Action.CHANGED_VOLUME).drop().build())
+            .build());
+        client.failWith(503);
+
+        List<MediaEvent> events = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            events.add(MediaEvent.builder()
+                .id("urn:uuid:" + UUID.randomUUID())
+                .actor(Person.builder().id(BASE_IRI.concat("/users/" + i)).build())
+                .action(i % 10 == 0 ? Action.CHANGED_VOLUME : Action.STARTED)
+                .object(VideoObject.builder().id(BASE_IRI.concat("/videos/1")).build())
+                .eventTime(DateTime.now())
+                .build());
+        }
+        BulkResult result = sensor.sendAll(events, BulkOptions.builder().maxEnvelopeItems(5).build());
+
+        assertEquals(2, result.getFiltered());
+        assertEquals(18, result.getFailed());
+        assertEquals(0, result.getSent());
+        assertNotNull(result.getFirstFailure());
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.clients.HttpClient;
+import org.imsglobal.caliper.clients.HttpClientOptions;
+import org.imsglobal.caliper.entities.CaliperEntity;
+import org.imsglobal.caliper.entities.EntityType;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.resource.VideoObject;
+import org.imsglobal.caliper.events.AbstractEvent;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.events.EventType;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.imsglobal.caliper.validators.EventValidator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class SensorWarmUpTest {
+    private HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.add(exchange.getRequestMethod() + " " + exchange.getRequestHeaders().getFirst("Authorization"));
+                exchange.sendResponseHeaders(405, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void findsConcreteModelClasses() {
+        List<Class<?>> classes = SensorWarmUp.modelClasses();
+
+        assertTrue(classes.contains(MediaEvent.class));
+        assertTrue(classes.contains(Person.class));
+        assertTrue(classes.contains(VideoObject.class));
+        assertTrue(classes.contains(EntityType.class));
+        assertFalse(classes.contains(AbstractEvent.class));
+    }
+
+    @Test
+    public void listsModelClassesByType() {
+        for (Map.Entry<EventType, Class<? extends CaliperEvent>> entry : SensorWarmUp.eventClasses().entrySet()) {
+            assertEquals(entry.getKey().value(), entry.getValue().getSimpleName());
+        }
+        for (Map.Entry<EntityType, Class<? extends CaliperEntity>> entry : SensorWarmUp.entityClasses().entrySet()) {
+            assertEquals(entry.getKey().value(), entry.getValue().getSimpleName());
+        }
+        assertEquals(EventType.values().length - 1, SensorWarmUp.eventClasses().size());
+    }
+
+    @Test
+    public void warmUpOpensClientConnections() {
+        Sensor sensor = Sensor.create("https://example.edu/sensors/1");
+        sensor.registerClient(HttpClient.create("default", HttpClientOptions.builder()
+            .apiKey("869e5ce5-214c-4e85-86c6-b99e8458a592")
+            .host("http://127.0.0.1:" + server.getAddress().getPort() + "/")
+            .build()));
+
+        sensor.warmUp();
+
+        assertEquals(1, requests.size());
+        assertEquals("OPTIONS 869e5ce5-214c-4e85-86c6-b99e8458a592", requests.get(0));
+        assertTrue(EventValidator.supportedActions(MediaEvent.class).contains(Action.PAUSED.value()));
+        assertEquals(0, sensor.getStatistics().get("default").getMeasures().getCount());
+    }
+}
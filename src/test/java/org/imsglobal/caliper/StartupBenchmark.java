@@ -0,0 +1,167 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper;
+
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.clients.CaliperClient;
+import org.imsglobal.caliper.clients.CaliperClientOptions;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.context.JsonldStringContext;
+import org.imsglobal.caliper.databind.CaliperObjectMapper;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.agent.SoftwareApplication;
+import org.imsglobal.caliper.entities.resource.MediaLocation;
+import org.imsglobal.caliper.entities.resource.VideoObject;
+import org.imsglobal.caliper.entities.session.Session;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.joda.time.DateTime;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how soon a freshly started JVM sends its first event and the latency of the first N events,
+ * each built and serialized through a Sensor.  Run in a new JVM per measurement, with and without
+ * warm-up, e.g.:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes:... org.imsglobal.caliper.StartupBenchmark --warm-up 1000
+ * </pre>
+ *
+ * Not a unit test; startup cost can only be measured in a fresh JVM.
+ */
+public class StartupBenchmark {
+    private static final String BASE_IRI = "https://example.edu";
+
+    public static void main(String[] args) {
+        long mainStart = System.nanoTime();
+        boolean warmUp = Arrays.asList(args).contains("--warm-up");
+        int count = 1000;
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                count = Integer.parseInt(arg);
+            }
+        }
+
+        Sensor sensor = Sensor.create(BASE_IRI.concat("/sensors/1"));
+        sensor.registerClient(new SerializingClient());
+
+        long warmUpNanos = 0;
+        if (warmUp) {
+            long start = System.nanoTime();
+            sensor.warmUp();
+            warmUpNanos = System.nanoTime() - start;
+        }
+
+        long[] latencies = new long[count];
+        long firstEventAt = 0;
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            List<CaliperSendable> data = new ArrayList<>();
+            data.add(event(i));
+            sensor.send(new Envelope(sensor.getId(), DateTime.now(), Config.DATA_VERSION, data));
+            long end = System.nanoTime();
+            latencies[i] = end - start;
+            if (i == 0) {
+                firstEventAt = end;
+            }
+        }
+
+        long uptimeAtMain = ManagementFactory.getRuntimeMXBean().getUptime()
+            - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mainStart);
+        System.out.println("warm-up:                 " + (warmUp ? millis(warmUpNanos) : "off"));
+        System.out.println("JVM start to main:       " + uptimeAtMain + " ms");
+        System.out.println("main to first event:     " + millis(firstEventAt - mainStart));
+        System.out.println("first event latency:     " + millis(latencies[0]));
+
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        System.out.println("first " + count + " events total: " + millis(total));
+        System.out.println("  p50:                   " + millis(sorted[count / 2]));
+        System.out.println("  p99:                   " + millis(sorted[Math.min(count - 1, count * 99 / 100)]));
+        System.out.println("  max:                   " + millis(sorted[count - 1]));
+    }
+
+    private static MediaEvent event(int i) {
+        Person actor = Person.builder().id(BASE_IRI.concat("/users/554433")).build();
+        return MediaEvent.builder()
+            .context(JsonldStringContext.getDefault())
+            .id("urn:uuid:" + UUID.randomUUID())
+            .actor(actor)
+            .action(Action.PAUSED)
+            .object(VideoObject.builder()
+                .id(BASE_IRI.concat("/videos/1225"))
+                .name("American Revolution - Key Figures Video")
+                .duration("PT1H12M27S")
+                .build())
+            .target(MediaLocation.builder()
+                .id(BASE_IRI.concat("/videos/1225"))
+                .currentTime("PT" + i + "S")
+                .build())
+            .eventTime(DateTime.now())
+            .edApp(SoftwareApplication.builder().id(BASE_IRI.concat("/player")).build())
+            .session(Session.builder()
+                .id(BASE_IRI.concat("/sessions/1"))
+                .user(actor)
+                .startedAtTime(new DateTime(0L))
+                .build())
+            .build();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f ms", nanos / 1e6);
+    }
+
+    /**
+     * Serializes each Envelope and discards it.
+     */
+    private static class SerializingClient implements CaliperClient {
+        private final Statistics statistics = new Statistics();
+
+        public String getId() {
+            return "serializing";
+        }
+
+        public CaliperClientOptions getOptions() {
+            return null;
+        }
+
+        public Statistics getStatistics() {
+            return statistics;
+        }
+
+        public void send(Envelope envelope) {
+            try {
+                CaliperObjectMapper.writer().writeValueAsBytes(envelope);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.capture;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.clients.RecordingClient;
+import org.imsglobal.caliper.entities.resource.MediaLocation;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class CaptureRingTest {
+    private static final String BASE_IRI = "https://example.edu";
+    private static final String ACTOR = BASE_IRI.concat("/users/554433");
+    private static final String VIDEO = BASE_IRI.concat("/videos/1225");
+
+    private Sensor sensor;
+    private RecordingClient client;
+
+    @Before
+    public void setUp() {
+        sensor = Sensor.create(BASE_IRI.concat("/sensors/1"));
+        client = new RecordingClient("recording");
+        sensor.registerClient(client);
+    }
+
+    @Test
+    public void sendsCapturedInteractionsAsMediaEvents() {
+        CaptureRing ring = CaptureRing.create(sensor, CaptureOptions.builder()
+            .capacity(64)
+            .maxBatchSize(10)
+            .build());
+
+        for (int i = 0; i < 50; i++) {
+            long seq = ring.tryClaim();
+            ring.slot(seq).action(Action.PAUSED).actorId(ACTOR).objectId(VIDEO)
+                .eventTime(1500000000000L + i).currentTime(i * 1000L);
+            ring.publish(seq);
+        }
+        assertTrue(ring.close(10, TimeUnit.SECONDS));
+
+        int count = 0;
+        for (Envelope envelope : client.getEnvelopes()) {
+            assertTrue(envelope.getData().size() <= 10);
+            for (CaliperSendable item : envelope.getData()) {
+                MediaEvent event = (MediaEvent) item;
+                assertEquals(Action.PAUSED, event.getAction());
+                assertEquals(ACTOR, event.getActor().getId());
+                assertEquals(VIDEO, event.getObject().getId());
+                assertTrue(event.getTarget() instanceof MediaLocation);
+                count++;
+            }
+        }
+        assertEquals(50, count);
+        assertEquals(0, ring.getDropped());
+    }
+
+    @Test
+    public void flushWaitsUntilBatchesAreSent() throws Exception {
+        final CountDownLatch sending = new CountDownLatch(1);
+        RecordingClient slow = new RecordingClient("slow") {
+            @Override
+            public void send(Envelope envelope) {
+                sending.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(envelope);
+            }
+        };
+        sensor = Sensor.create(BASE_IRI.concat("/sensors/2"));
+        sensor.registerClient(slow);
+        CaptureRing ring = CaptureRing.create(sensor, CaptureOptions.builder().capacity(16).build());
+
+        long seq = ring.tryClaim();
+        ring.slot(seq).action(Action.STARTED).actorId(ACTOR).objectId(VIDEO).eventTime(1500000000000L);
+        ring.publish(seq);
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        assertTrue(ring.flush(5, TimeUnit.SECONDS));
+        assertEquals(1, slow.getEnvelopes().size());
+        assertTrue(ring.close(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void dropsWhenFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        CaptureRing ring = CaptureRing.create(sensor, CaptureOptions.builder()
+            .capacity(4)
+            .translator(new SlotTranslator() {
+                @Override
+                public CaliperSendable translate(CaptureSlot slot) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return MediaEventTranslator.create().translate(slot);
+                }
+            })
+            .build());
+
+        for (int i = 0; i < 6; i++) {
+            long seq = ring.tryClaim();
+            if (seq >= 0) {
+                ring.slot(seq).action(Action.STARTED).actorId(ACTOR).objectId(VIDEO).eventTime(1500000000000L);
+                ring.publish(seq);
+            }
+        }
+        assertEquals(2, ring.getDropped());
+
+        release.countDown();
+        assertTrue(ring.close(10, TimeUnit.SECONDS));
+        int count = 0;
+        for (Envelope envelope : client.getEnvelopes()) {
+            count += envelope.getData().size();
+        }
+        assertEquals(4, count);
+    }
+
+    @Test
+    public void capturesWithoutAllocating() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CaptureRing ring = CaptureRing.create(sensor, CaptureOptions.builder()
+            .capacity(1024)
+            .translator(new SlotTranslator() {
+                @Override
+                public CaliperSendable translate(CaptureSlot slot) {
+                    return null;
+                }
+            })
+            .build());
+
+        capture(ring, 20000);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        capture(ring, 100000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        ring.close(10, TimeUnit.SECONDS);
+
+        assertTrue("Allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void capture(CaptureRing ring, int count) {
+        for (int i = 0; i < count; i++) {
+            long seq = ring.tryClaim();
+            if (seq >= 0) {
+                ring.slot(seq).action(Action.JUMPED_TO).actorId(ACTOR).objectId(VIDEO).eventTime(i).currentTime(i);
+                ring.publish(seq);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.databind.CaliperObjectMapper;
+import org.imsglobal.caliper.databind.RawJson;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.imsglobal.caliper.clients.TestEnvelopes.envelope;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class BatchingClientTest {
+    private RecordingClient delegate;
+    private BatchingClient client;
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = new RecordingClient("default");
+        client = BatchingClient.create(delegate, BatchingOptions.builder()
+            .initialBatchSize(10)
+            .minBatchSize(1)
+            .maxBatchSize(40)
+            .initialLinger(1000)
+            .maxLinger(2000)
+            .latencyWindowSize(2)
+            .build());
+    }
+
+    @Test
+    public void batchesDataInOrder() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            client.send(envelope(i, 1));
+        }
+        assertTrue(client.flush(5, TimeUnit.SECONDS));
+
+        int total = 0;
+        int expected = 0;
+        for (Envelope envelope : delegate.getEnvelopes()) {
+            assertTrue(envelope.getData().size() <= 40);
+            for (CaliperSendable item : envelope.getData()) {
+                assertEquals(BASE_IRI + "/users/" + expected++, ((Person) item).getId());
+            }
+            total += envelope.getData().size();
+        }
+        assertEquals(25, total);
+        assertTrue(delegate.getEnvelopes().size() < 25);
+    }
+
+    @Test
+    public void growsWhileHealthy() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            client.send(envelope(i * 10, 10));
+            assertTrue(client.flush(5, TimeUnit.SECONDS));
+        }
+        assertTrue(client.getBatchSize() > 10);
+        assertEquals(client.getBatchSize(), (int) client.getStatistics().getBatchSize().getLast());
+    }
+
+    @Test
+    public void lingersFromEachBatchsOldestEntry() throws Exception {
+        BatchingClient client = BatchingClient.create(delegate, BatchingOptions.builder()
+            .initialBatchSize(5)
+            .minBatchSize(5)
+            .maxBatchSize(5)
+            .initialLinger(100)
+            .minLinger(100)
+            .maxLinger(100)
+            .build());
+        List<CaliperSendable> quiet = new ArrayList<>();
+        quiet.add(Person.builder().id(BASE_IRI + "/users/quiet").build());
+        client.send(new Envelope(BASE_IRI + "/sensors/quiet", DateTime.now(), Config.DATA_VERSION, quiet));
+
+        // A busy sensor keeps triggering size-based drains
+        for (int i = 0; i < 30; i++) {
+            client.send(envelope(i * 5, 5));
+            Thread.sleep(20);
+        }
+
+        boolean delivered = false;
+        for (Envelope envelope : delegate.getEnvelopes()) {
+            delivered |= envelope.getSensorId().equals(BASE_IRI + "/sensors/quiet");
+        }
+        assertTrue(delivered);
+        client.close(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void splitsOversizedBatchesAndBacksOff() throws Exception {
+        delegate.rejectLargerThan(3);
+        client.send(envelope(0, 10));
+        assertTrue(client.flush(5, TimeUnit.SECONDS));
+
+        int total = 0;
+        for (Envelope envelope : delegate.getEnvelopes()) {
+            total += envelope.getData().size();
+        }
+        assertEquals(10, total);
+        assertTrue(client.getStatistics().getBatchSplit().getCount() > 0);
+        assertTrue(client.getBatchSize() < 10);
+    }
+
+    @Test
+    public void serializesOnEnqueueIntoBoundedArena() throws Exception {
+        BatchingClient client = BatchingClient.create(delegate, BatchingOptions.builder()
+            .initialBatchSize(100)
+            .initialLinger(1000)
+            .serializeOnEnqueue(true)
+            .arenaSegmentSize(256)
+            .maxBufferedBytes(1024)
+            .build());
+
+        int sent = 0;
+        try {
+            for (; sent < 100; sent++) {
+                client.send(envelope(sent, 1));
+            }
+            fail("Expected arena to fill up");
+        } catch (BufferFullException expected) {
+            assertTrue(client.getBufferedBytes() > 0 && client.getBufferedBytes() <= 1024);
+        }
+        assertTrue(client.flush(5, TimeUnit.SECONDS));
+        assertEquals(0, client.getBufferedBytes());
+
+        List<CaliperSendable> data = new ArrayList<>();
+        for (Envelope envelope : delegate.getEnvelopes()) {
+            data.addAll(envelope.getData());
+        }
+        assertEquals(sent, data.size());
+        for (int i = 0; i < sent; i++) {
+            assertTrue(data.get(i) instanceof RawJson);
+            assertTrue(data.get(i).toString().contains("\"id\":\"" + BASE_IRI + "/users/" + i + "\""));
+            assertEquals(BASE_IRI + "/users/" + i, PartitionKey.ACTOR.keyOf(data.get(i)));
+        }
+
+        String json = CaliperObjectMapper.writer().writeValueAsString(delegate.getEnvelopes().get(0));
+        assertTrue(json.contains("\"data\":[{\"id\":\"" + BASE_IRI + "/users/0\""));
+    }
+
+    @Test
+    public void sharesMemoryBudgetAcrossClients() throws Exception {
+        MemoryBudget budget = MemoryBudget.create(4096, SizeEstimator.fixed(1024));
+        RecordingClient otherDelegate = new RecordingClient("other");
+        BatchingClient other = BatchingClient.create(otherDelegate, BatchingOptions.builder()
+            .initialBatchSize(100)
+            .initialLinger(1000)
+            .memoryBudget(budget)
+            .build());
+        BatchingClient client = BatchingClient.create(delegate, BatchingOptions.builder()
+            .initialBatchSize(100)
+            .initialLinger(1000)
+            .memoryBudget(budget)
+            .build());
+
+        client.send(envelope(0, 2));
+        other.send(envelope(2, 2));
+        assertEquals(4096, budget.getUsedBytes());
+        assertTrue(budget.isAboveHighWaterMark());
+        try {
+            other.send(envelope(4, 1));
+            fail("Expected memory budget to be exhausted");
+        } catch (BufferFullException expected) {
+            assertEquals(1, budget.getStatistics().getBudgetRejected().getCount());
+        }
+
+        assertTrue(client.flush(5, TimeUnit.SECONDS));
+        assertTrue(other.flush(5, TimeUnit.SECONDS));
+        assertEquals(0, budget.getUsedBytes());
+        assertEquals(4096, budget.getPeakBytes());
+        assertEquals(2, delegate.getEnvelopes().get(0).getData().size());
+        assertTrue(delegate.getEnvelopes().get(0).getData().get(0) instanceof Person);
+        assertEquals(2, otherDelegate.getEnvelopes().get(0).getData().size());
+    }
+
+    @Test
+    public void sensorCloseDeliversBufferedDataAndRejectsSends() throws Exception {
+        Sensor sensor = Sensor.create(BASE_IRI + "/sensors/1");
+        sensor.registerClient(client);
+        sensor.send(client, envelope(0, 5));
+
+        assertTrue(sensor.close(5, TimeUnit.SECONDS));
+        assertEquals(5, delegate.getEnvelopes().get(0).getData().size());
+
+        try {
+            sensor.send(client, envelope(5, 1));
+            fail("Expected closed Sensor to reject envelope");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+}
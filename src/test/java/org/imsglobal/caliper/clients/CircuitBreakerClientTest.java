@@ -0,0 +1,126 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.config.Config;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class CircuitBreakerClientTest {
+    private RecordingClient delegate;
+    private RecordingClient fallback;
+    private CircuitBreakerClient client;
+    private Envelope envelope;
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = new RecordingClient("default");
+        fallback = new RecordingClient("spool");
+
+        CircuitBreakerOptions options = CircuitBreakerOptions.builder()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(50)
+            .permittedCallsInHalfOpenState(2)
+            .build();
+
+        client = CircuitBreakerClient.create(delegate, options, fallback);
+        envelope = new Envelope("https://example.edu/sensors/1", DateTime.now(), Config.DATA_VERSION,
+            new ArrayList<CaliperSendable>());
+    }
+
+    @Test
+    public void circuitOpensAndRoutesToFallback() throws Exception {
+        delegate.failWith(503);
+        for (int i = 0; i < 4; i++) {
+            sendQuietly();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getState());
+        assertEquals(1, client.getStatistics().getCircuitOpened().getCount());
+
+        client.send(envelope);
+        assertEquals(4, delegate.getStatistics().getMeasures().getCount());
+        assertEquals(1, fallback.getEnvelopes().size());
+        assertEquals(1, client.getStatistics().getRejected().getCount());
+    }
+
+    @Test
+    public void probesCloseCircuitAfterWaitDuration() throws Exception {
+        delegate.failWith(500);
+        for (int i = 0; i < 4; i++) {
+            sendQuietly();
+        }
+        Thread.sleep(60);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.getState());
+
+        delegate.succeed();
+        client.send(envelope);
+        client.send(envelope);
+        assertEquals(CircuitBreaker.State.CLOSED, client.getState());
+        assertEquals(2, delegate.getEnvelopes().size());
+        assertEquals(0, fallback.getEnvelopes().size());
+    }
+
+    @Test
+    public void clientErrorsDoNotOpenCircuit() throws Exception {
+        delegate.failWith(400);
+        for (int i = 0; i < 8; i++) {
+            sendQuietly();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.getState());
+    }
+
+    @Test
+    public void serializationFailuresDoNotOpenCircuit() throws Exception {
+        RecordingClient unserializable = new RecordingClient("default") {
+            @Override
+            public void send(Envelope envelope) {
+                throw new SerializationException("WARN: Envelope serialization failed", new IllegalStateException());
+            }
+        };
+        client = CircuitBreakerClient.create(unserializable, CircuitBreakerOptions.builder()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .build(), fallback);
+        for (int i = 0; i < 8; i++) {
+            sendQuietly();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.getState());
+    }
+
+    private void sendQuietly() {
+        try {
+            client.send(envelope);
+            fail("Expected send to fail");
+        } catch (CaliperClientException e) {
+            // expected
+        }
+    }
+}
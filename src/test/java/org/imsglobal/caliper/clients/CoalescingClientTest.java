@@ -0,0 +1,200 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.resource.MediaLocation;
+import org.imsglobal.caliper.entities.resource.VideoObject;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.imsglobal.caliper.listeners.DropReason;
+import org.imsglobal.caliper.listeners.SendListener;
+import org.imsglobal.caliper.listeners.SendListeners;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class CoalescingClientTest {
+    private RecordingClient delegate;
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = new RecordingClient("default");
+    }
+
+    @Test
+    public void coalescesBurstsBeforePause() throws Exception {
+        CoalescingClient client = CoalescingClient.create(delegate, CoalescingOptions.builder().build());
+
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(event(Action.STARTED, 0));
+        for (int i = 1; i <= 5; i++) {
+            data.add(event(Action.CHANGED_VOLUME, i));
+        }
+        for (int i = 6; i <= 8; i++) {
+            data.add(event(Action.JUMPED_TO, i));
+        }
+        data.add(event(Action.PAUSED, 9));
+        client.send(envelope(data));
+
+        List<CaliperSendable> sent = delegate.getEnvelopes().get(0).getData();
+        assertEquals(4, sent.size());
+        assertEquals(Action.STARTED, action(sent.get(0)));
+        assertEquals(Action.CHANGED_VOLUME, action(sent.get(1)));
+        assertEquals(BASE_IRI + "/videos/1?t=5", ((MediaLocation) ((MediaEvent) sent.get(1)).getTarget()).getId());
+        assertEquals(5, ((MediaEvent) sent.get(1)).getExtensions().get(CoalescingClient.COALESCED_COUNT_EXTENSION));
+        assertEquals(Action.JUMPED_TO, action(sent.get(2)));
+        assertEquals(3, ((MediaEvent) sent.get(2)).getExtensions().get(CoalescingClient.COALESCED_COUNT_EXTENSION));
+        assertEquals(Action.PAUSED, action(sent.get(3)));
+        assertEquals(6, client.getStatistics().getCoalesced().getCount());
+    }
+
+    @Test
+    public void releasesHeldEventsAfterWindow() throws Exception {
+        CoalescingClient client = CoalescingClient.create(delegate, CoalescingOptions.builder().window(50).build());
+
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(event(Action.CHANGED_SIZE, 1));
+        client.send(envelope(data));
+        assertTrue(delegate.getEnvelopes().isEmpty());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (delegate.getEnvelopes().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, delegate.getEnvelopes().size());
+        MediaEvent event = (MediaEvent) delegate.getEnvelopes().get(0).getData().get(0);
+        assertNull(event.getExtensions().get(CoalescingClient.COALESCED_COUNT_EXTENSION));
+        assertTrue(client.close(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void reportsUndeliverableReleasedEvents() throws Exception {
+        final SendListeners listeners = new SendListeners();
+        RecordingClient failing = new RecordingClient("default") {
+            @Override
+            public SendListeners getListeners() {
+                return listeners;
+            }
+        };
+        final List<CaliperSendable> dropped = new CopyOnWriteArrayList<>();
+        listeners.add(new SendListener() {
+            @Override
+            public void onDropped(String source, CaliperSendable item, DropReason reason) {
+                assertEquals(DropReason.UNDELIVERABLE, reason);
+                dropped.add(item);
+            }
+        });
+        CoalescingClient client = CoalescingClient.create(failing, CoalescingOptions.builder().build());
+
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(event(Action.CHANGED_VOLUME, 1));
+        data.add(event(Action.CHANGED_VOLUME, 2));
+        client.send(envelope(data));
+        failing.failWith(503);
+        client.flush(5, TimeUnit.SECONDS);
+
+        assertEquals(1, dropped.size());
+        assertEquals(Action.CHANGED_VOLUME, action(dropped.get(0)));
+    }
+
+    @Test
+    public void holdsEventsWhileDelegateSends() throws Exception {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        RecordingClient slow = new RecordingClient("default") {
+            @Override
+            public void send(Envelope envelope) {
+                sending.countDown();
+                try {
+                    proceed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(envelope);
+            }
+        };
+        final CoalescingClient client = CoalescingClient.create(slow, CoalescingOptions.builder().build());
+
+        Thread sender = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                List<CaliperSendable> data = new ArrayList<>();
+                data.add(event(Action.STARTED, 0));
+                client.send(envelope(data));
+            }
+        });
+        sender.start();
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        List<CaliperSendable> held = new ArrayList<>();
+        held.add(event(Action.CHANGED_VOLUME, 1));
+        client.send(envelope(held));
+        List<CaliperSendable> paused = new ArrayList<>();
+        paused.add(event(Action.PAUSED, 2));
+        client.send(envelope(paused));
+        assertTrue(slow.getEnvelopes().isEmpty());
+
+        proceed.countDown();
+        sender.join(5000);
+        assertTrue(client.close(5, TimeUnit.SECONDS));
+
+        List<Envelope> sent = slow.getEnvelopes();
+        assertEquals(2, sent.size());
+        assertEquals(Action.STARTED, action(sent.get(0).getData().get(0)));
+        assertEquals(Action.CHANGED_VOLUME, action(sent.get(1).getData().get(0)));
+        assertEquals(Action.PAUSED, action(sent.get(1).getData().get(1)));
+    }
+
+    private Action action(CaliperSendable item) {
+        return (Action) ((MediaEvent) item).getAction();
+    }
+
+    private MediaEvent event(Action action, int seq) {
+        return MediaEvent.builder()
+            .id("urn:id:" + seq)
+            .actor(Person.builder().id(BASE_IRI + "/users/1").build())
+            .action(action)
+            .object(VideoObject.builder().id(BASE_IRI + "/videos/1").build())
+            .target(MediaLocation.builder().id(BASE_IRI + "/videos/1?t=" + seq).currentTime("PT" + seq + "S").build())
+            .eventTime(DateTime.now())
+            .build();
+    }
+
+    private Envelope envelope(List<CaliperSendable> data) {
+        return new Envelope(BASE_IRI + "/sensors/1", DateTime.now(), Config.DATA_VERSION, data);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.imsglobal.caliper.clients.TestEnvelopes.envelope;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class FileClientTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Test
+    public void rollsSegmentsBySize() throws Exception {
+        FileClient client = FileClient.create("file", FileClientOptions.builder()
+            .directory(folder.getRoot())
+            .maxSegmentSize(1024)
+            .bufferSize(256)
+            .build());
+
+        for (int i = 0; i < 100; i++) {
+            client.send(envelope(i * 2, 2));
+        }
+        assertTrue(client.close(5, TimeUnit.SECONDS));
+
+        List<String> lines = readSegments(false);
+        assertEquals(200, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertTrue(lines.get(i).contains("\"id\":\"" + BASE_IRI + "/users/" + i + "\""));
+        }
+        assertTrue(segments().length > 1);
+        for (File segment : segments()) {
+            assertTrue(segment.length() < 1024 + 256);
+        }
+        assertEquals(100, (int) client.getStatistics().getSuccessful().getCount());
+    }
+
+    @Test
+    public void writesCompressedSegments() throws Exception {
+        FileClient client = FileClient.create("file", FileClientOptions.builder()
+            .directory(folder.getRoot())
+            .compress(true)
+            .fsyncPolicy(FsyncPolicy.ALWAYS)
+            .build());
+
+        client.send(envelope(0, 3));
+        assertTrue(client.close(5, TimeUnit.SECONDS));
+
+        assertEquals(1, segments().length);
+        assertTrue(segments()[0].getName().endsWith(FileClient.COMPRESSED_SEGMENT_SUFFIX));
+        assertEquals(3, readSegments(true).size());
+    }
+
+    private File[] segments() {
+        File[] files = folder.getRoot().listFiles();
+        Arrays.sort(files);
+        for (File file : files) {
+            assertTrue(!file.getName().endsWith(FileClient.IN_PROGRESS_SUFFIX));
+        }
+        return files;
+    }
+
+    private List<String> readSegments(boolean compressed) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (File file : segments()) {
+            InputStream in = new FileInputStream(file);
+            if (compressed) {
+                in = new GZIPInputStream(in);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class HttpClientTest {
+    private List<HttpServer> servers = new ArrayList<>();
+    private List<AtomicInteger> received = new ArrayList<>();
+    private List<String> hosts = new ArrayList<>();
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() throws Exception {
+        startServer(200);
+        startServer(200);
+        startServer(503);
+    }
+
+    @After
+    public void teardown() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void roundRobinFailsOverAndEjectsUnhealthyEndpoint() throws Exception {
+        HttpClient client = HttpClient.create("default", HttpClientOptions.builder()
+            .apiKey("869e5ce5-214c-4e85-86c6-b99e8458a592")
+            .hosts(hosts)
+            .balancingStrategy(BalancingStrategy.ROUND_ROBIN)
+            .ejectionThreshold(2)
+            .build());
+
+        for (int i = 0; i < 30; i++) {
+            client.send(envelope("554433"));
+        }
+
+        assertEquals(30, client.getStatistics().getSuccessful().getCount());
+        assertEquals(30, received.get(0).get() + received.get(1).get());
+        assertTrue(received.get(0).get() > 0 && received.get(1).get() > 0);
+
+        Map<String, Statistics> statistics = client.getEndpointStatistics();
+        assertEquals(2, statistics.get(hosts.get(2)).getFailed().getCount());
+        assertEquals(1, statistics.get(hosts.get(2)).getEjected().getCount());
+    }
+
+    @Test
+    public void consistentHashPinsActorToEndpoint() throws Exception {
+        HttpClient client = HttpClient.create("default", HttpClientOptions.builder()
+            .apiKey("869e5ce5-214c-4e85-86c6-b99e8458a592")
+            .hosts(hosts.subList(0, 2))
+            .balancingStrategy(BalancingStrategy.CONSISTENT_HASH)
+            .build());
+
+        for (int i = 0; i < 10; i++) {
+            client.send(envelope("554433"));
+        }
+
+        assertTrue(received.get(0).get() == 10 || received.get(1).get() == 10);
+    }
+
+    @Test
+    public void failedProbeReejectsEndpoint() throws Exception {
+        Endpoint endpoint = new Endpoint(hosts.get(2), 2, 20);
+        endpoint.onStart();
+        endpoint.onFailure(0);
+        endpoint.onStart();
+        endpoint.onFailure(0);
+        assertFalse(endpoint.isHealthy());
+
+        Thread.sleep(30);
+        assertTrue(endpoint.isHealthy());
+        endpoint.onStart();
+        endpoint.onFailure(0);
+        assertFalse(endpoint.isHealthy());
+        assertEquals(2, endpoint.getStatistics().getEjected().getCount());
+        assertEquals(0, endpoint.getOutstanding());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedHosts() {
+        HttpClientOptions.builder()
+            .hosts(Arrays.asList(hosts.get(0), "127.0.0.1:8080"))
+            .build();
+    }
+
+    private void startServer(final int status) throws IOException {
+        final AtomicInteger count = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                InputStream in = exchange.getRequestBody();
+                while (in.read() != -1) {
+                    // drain request
+                }
+                if (status == 200) {
+                    count.incrementAndGet();
+                }
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+
+        servers.add(server);
+        received.add(count);
+        hosts.add("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    private Envelope envelope(String user) {
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(Person.builder().id(BASE_IRI + "/users/" + user).build());
+        return new Envelope(BASE_IRI + "/sensors/1", DateTime.now(), Config.DATA_VERSION, data);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.resource.Document;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.events.Event;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class PartitionedClientTest {
+    private List<RecordingClient> lanes;
+    private PartitionedClient client;
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() throws Exception {
+        lanes = Arrays.asList(new RecordingClient("lane-0"), new RecordingClient("lane-1"),
+            new RecordingClient("lane-2"), new RecordingClient("lane-3"));
+        client = PartitionedClient.create("default", lanes);
+    }
+
+    @Test
+    public void preservesPerActorOrder() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            List<CaliperSendable> data = new ArrayList<>();
+            for (int actor = 0; actor < 10; actor++) {
+                data.add(event(actor, i));
+            }
+            client.send(new Envelope(BASE_IRI + "/sensors/1", DateTime.now(), Config.DATA_VERSION, data));
+        }
+        assertTrue(client.flush(5, TimeUnit.SECONDS));
+
+        Map<String, String> laneByActor = new HashMap<>();
+        int total = 0;
+        for (RecordingClient lane : lanes) {
+            Map<String, Integer> lastSeq = new HashMap<>();
+            for (Envelope envelope : lane.getEnvelopes()) {
+                for (CaliperSendable item : envelope.getData()) {
+                    CaliperEvent event = (CaliperEvent) item;
+                    String actor = event.getActor().getId();
+                    int seq = Integer.parseInt(event.getId().substring(event.getId().lastIndexOf(':') + 1));
+
+                    String previousLane = laneByActor.put(actor, lane.getId());
+                    assertTrue(previousLane == null || previousLane.equals(lane.getId()));
+
+                    Integer previous = lastSeq.put(actor, seq);
+                    assertTrue(previous == null || previous < seq);
+                    total++;
+                }
+            }
+        }
+        assertEquals(500, total);
+    }
+
+    @Test
+    public void closeReleasesReservationsOfUndeliveredEnvelopes() throws Exception {
+        RecordingClient stalled = new RecordingClient("lane-0") {
+            @Override
+            public void send(Envelope envelope) {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        MemoryBudget budget = MemoryBudget.create(1 << 20);
+        client = PartitionedClient.create("default", Arrays.asList(stalled), PartitionKey.ACTOR, 10, budget);
+        for (int i = 0; i < 5; i++) {
+            List<CaliperSendable> data = new ArrayList<>();
+            data.add(event(0, i));
+            client.send(new Envelope(BASE_IRI + "/sensors/1", DateTime.now(), Config.DATA_VERSION, data));
+        }
+
+        assertFalse(client.close(100, TimeUnit.MILLISECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (budget.getUsedBytes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, budget.getUsedBytes());
+        assertEquals(5, client.getStatistics().getFailed().getCount());
+    }
+
+    private Event event(int actor, int seq) {
+        return Event.builder()
+            .id("urn:id:" + actor + ":" + seq)
+            .actor(Person.builder().id(BASE_IRI + "/users/" + actor).build())
+            .action(Action.CREATED)
+            .object(Document.builder().id(BASE_IRI + "/resources/" + seq).build())
+            .eventTime(DateTime.now())
+            .build();
+    }
+}
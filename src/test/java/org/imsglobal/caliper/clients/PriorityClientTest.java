@@ -0,0 +1,176 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.agent.SoftwareApplication;
+import org.imsglobal.caliper.entities.resource.Document;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.events.Event;
+import org.imsglobal.caliper.events.EventType;
+import org.imsglobal.caliper.events.SessionEvent;
+import org.imsglobal.caliper.events.ViewEvent;
+import org.joda.time.DateTime;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class PriorityClientTest {
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Test
+    public void drainsHighPriorityFirstAndShedsLowPriority() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        RecordingClient delegate = new RecordingClient("default") {
+            @Override
+            public void send(Envelope envelope) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(envelope);
+            }
+        };
+        RecordingClient spill = new RecordingClient("spill");
+
+        PriorityClient client = PriorityClient.create(delegate, PriorityOptions.builder()
+            .priority(EventType.SESSION, Action.LOGGED_OUT, Priority.HIGH)
+            .priority(EventType.VIEW, Priority.LOW)
+            .capacity(Priority.LOW, 2)
+            .build(), spill);
+
+        client.send(envelope(event(0)));
+        while (client.getQueued(Priority.NORMAL) > 0) {
+            Thread.sleep(1);
+        }
+        for (int i = 1; i <= 5; i++) {
+            client.send(envelope(view(i)));
+        }
+        for (int i = 6; i <= 8; i++) {
+            client.send(envelope(logout(i)));
+        }
+        gate.countDown();
+        assertTrue(client.close(5, TimeUnit.SECONDS));
+
+        List<String> order = new ArrayList<>();
+        for (Envelope envelope : delegate.getEnvelopes()) {
+            order.add(((CaliperEvent) envelope.getData().get(0)).getId());
+        }
+        assertEquals("[urn:id:0, urn:id:6, urn:id:7, urn:id:8, urn:id:1, urn:id:2]", order.toString());
+        assertEquals(3, spill.getEnvelopes().size());
+        assertEquals(3, client.getStatistics().getShed().getCount());
+    }
+
+    @Test
+    public void evictsLowPriorityBeforeSheddingNormal() throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        RecordingClient delegate = new RecordingClient("default") {
+            @Override
+            public void send(Envelope envelope) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(envelope);
+            }
+        };
+        RecordingClient spill = new RecordingClient("spill");
+
+        PriorityClient client = PriorityClient.create(delegate, PriorityOptions.builder()
+            .priority(EventType.VIEW, Priority.LOW)
+            .capacity(Priority.NORMAL, 1)
+            .capacity(Priority.LOW, 2)
+            .build(), spill);
+
+        client.send(envelope(event(0)));
+        while (client.getQueued(Priority.NORMAL) > 0) {
+            Thread.sleep(1);
+        }
+        client.send(envelope(view(1)));
+        client.send(envelope(view(2)));
+        for (int i = 3; i <= 6; i++) {
+            client.send(envelope(event(i)));
+        }
+        gate.countDown();
+        assertTrue(client.close(5, TimeUnit.SECONDS));
+
+        assertEquals("[urn:id:0, urn:id:3, urn:id:4, urn:id:5]", ids(delegate.getEnvelopes()).toString());
+        assertEquals("[urn:id:2, urn:id:1, urn:id:6]", ids(spill.getEnvelopes()).toString());
+        assertEquals(3, client.getStatistics().getShed().getCount());
+    }
+
+    private List<String> ids(List<Envelope> envelopes) {
+        List<String> ids = new ArrayList<>();
+        for (Envelope envelope : envelopes) {
+            ids.add(((CaliperEvent) envelope.getData().get(0)).getId());
+        }
+        return ids;
+    }
+
+    private Envelope envelope(CaliperSendable item) {
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(item);
+        return new Envelope(BASE_IRI + "/sensors/1", DateTime.now(), Config.DATA_VERSION, data);
+    }
+
+    private Event event(int seq) {
+        return Event.builder()
+            .id("urn:id:" + seq)
+            .actor(Person.builder().id(BASE_IRI + "/users/1").build())
+            .action(Action.CREATED)
+            .object(Document.builder().id(BASE_IRI + "/resources/" + seq).build())
+            .eventTime(DateTime.now())
+            .build();
+    }
+
+    private ViewEvent view(int seq) {
+        return ViewEvent.builder()
+            .id("urn:id:" + seq)
+            .actor(Person.builder().id(BASE_IRI + "/users/1").build())
+            .action(Action.VIEWED)
+            .object(Document.builder().id(BASE_IRI + "/resources/" + seq).build())
+            .eventTime(DateTime.now())
+            .build();
+    }
+
+    private SessionEvent logout(int seq) {
+        return SessionEvent.builder()
+            .id("urn:id:" + seq)
+            .actor(Person.builder().id(BASE_IRI + "/users/1").build())
+            .action(Action.LOGGED_OUT)
+            .object(SoftwareApplication.builder().id(BASE_IRI).build())
+            .eventTime(DateTime.now())
+            .build();
+    }
+}
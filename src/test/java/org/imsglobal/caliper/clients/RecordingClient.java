@@ -0,0 +1,84 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.statistics.Statistics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Test double that records delivered Envelopes and, when configured with a status code,
+ * fails every send with a CaliperClientException.
+ */
+public class RecordingClient implements CaliperClient {
+    private final String id;
+    private final Statistics statistics = new Statistics();
+    private final List<Envelope> envelopes = new CopyOnWriteArrayList<>();
+    private volatile int failureStatusCode = -1;
+    private volatile int maxDataSize = Integer.MAX_VALUE;
+
+    public RecordingClient(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public CaliperClientOptions getOptions() {
+        return null;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    public List<Envelope> getEnvelopes() {
+        return envelopes;
+    }
+
+    public void failWith(int statusCode) {
+        this.failureStatusCode = statusCode;
+    }
+
+    public void rejectLargerThan(int maxDataSize) {
+        this.maxDataSize = maxDataSize;
+    }
+
+    public void succeed() {
+        this.failureStatusCode = -1;
+    }
+
+    public void send(Envelope envelope) {
+        statistics.updateMeasures(1);
+        if (failureStatusCode >= 0) {
+            statistics.updateFailed(1);
+            throw new CaliperClientException("WARN: HTTP POST failed; status code=" + failureStatusCode,
+                failureStatusCode);
+        }
+        if (envelope.getData().size() > maxDataSize) {
+            statistics.updateFailed(1);
+            throw new CaliperClientException("WARN: HTTP POST failed; status code=413", 413);
+        }
+        envelopes.add(envelope);
+        statistics.updateSuccessful(1);
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class SensorRuntimeTest {
+    private HttpServer server;
+    private String host;
+    private final List<String> apiKeys = new CopyOnWriteArrayList<>();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private SensorRuntime runtime;
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                InputStream in = exchange.getRequestBody();
+                while (in.read() != -1) {
+                    // drain request
+                }
+                apiKeys.add(exchange.getRequestHeaders().getFirst("Authorization"));
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+        host = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @After
+    public void teardown() {
+        release.countDown();
+        if (runtime != null) {
+            runtime.close(10, TimeUnit.SECONDS);
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void servesTenantsRoundRobin() throws Exception {
+        release = new CountDownLatch(1);
+        runtime = SensorRuntime.create(SensorRuntimeOptions.builder()
+            .workerThreads(1)
+            .maxInFlightPerTenant(1)
+            .memoryBudget(MemoryBudget.create(1 << 20))
+            .build());
+        Sensor noisy = Sensor.create(BASE_IRI + "/sensors/noisy");
+        Sensor quiet = Sensor.create(BASE_IRI + "/sensors/quiet");
+        TenantClient noisyClient = runtime.attach(noisy, options("noisy"));
+        TenantClient quietClient = runtime.attach(quiet, options("quiet"));
+
+        for (int i = 0; i < 20; i++) {
+            noisy.send(envelope(noisy));
+        }
+        // Hold the first noisy request until the quiet tenant has queued its Envelopes
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        quiet.send(envelope(quiet));
+        quiet.send(envelope(quiet));
+        release.countDown();
+
+        assertTrue(noisyClient.flush(10, TimeUnit.SECONDS));
+        assertTrue(quietClient.flush(10, TimeUnit.SECONDS));
+
+        assertEquals(22, apiKeys.size());
+        assertEquals("quiet", apiKeys.get(1));
+        assertEquals("quiet", apiKeys.get(3));
+        assertEquals(20, runtime.getTenantStatistics().get(noisy.getId()).getSuccessful().getCount());
+        assertEquals(2, runtime.getTenantStatistics().get(quiet.getId()).getSuccessful().getCount());
+        assertEquals(0, runtime.getMemoryBudget().getUsedBytes());
+    }
+
+    @Test
+    public void rejectsWhenTenantQueueIsFull() throws Exception {
+        release = new CountDownLatch(1);
+        runtime = SensorRuntime.create(SensorRuntimeOptions.builder()
+            .workerThreads(1)
+            .maxInFlightPerTenant(1)
+            .tenantQueueCapacity(1)
+            .memoryBudget(MemoryBudget.create(1 << 20))
+            .build());
+        Sensor sensor = Sensor.create(BASE_IRI + "/sensors/1");
+        TenantClient client = runtime.attach(sensor, options("tenant"));
+
+        client.send(envelope(sensor));
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        client.send(envelope(sensor));
+        try {
+            client.send(envelope(sensor));
+            fail("Expected BufferFullException");
+        } catch (BufferFullException e) {
+            assertEquals(1, client.getStatistics().getBudgetRejected().getCount());
+        }
+
+        release.countDown();
+        assertTrue(client.flush(10, TimeUnit.SECONDS));
+        assertEquals(2, client.getStatistics().getSuccessful().getCount());
+    }
+
+    private HttpClientOptions options(String apiKey) {
+        return HttpClientOptions.builder()
+            .apiKey(apiKey)
+            .host(host)
+            .build();
+    }
+
+    private static Envelope envelope(Sensor sensor) {
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(Person.builder().id(BASE_IRI + "/users/554433").build());
+        return new Envelope(sensor.getId(), DateTime.now(), Config.DATA_VERSION, data);
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.listeners.SendListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.imsglobal.caliper.clients.TestEnvelopes.envelope;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exercises the SocketClient against an in-process collector.  Unix domain sockets require Java 16,
+ * so the collector listens on a loopback TCP port; the framing and acknowledgement protocol is the same.
+ */
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class SocketClientTest {
+    private ServerSocket server;
+    private List<String> received = Collections.synchronizedList(new ArrayList<String>());
+    private volatile boolean acknowledge = true;
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread collector = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                collect();
+            }
+        });
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    public void pipelinesFramesWithBatchedAcks() throws Exception {
+        SocketClient client = SocketClient.create("socket", SocketClientOptions.builder()
+            .address(server.getLocalSocketAddress())
+            .maxInFlight(4)
+            .build());
+        final AtomicInteger sent = new AtomicInteger();
+        client.getListeners().add(new SendListener() {
+            @Override
+            public void onSent(String source, Envelope envelope, int statusCode, long latency) {
+                sent.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            client.send(envelope(i, 1));
+        }
+        assertTrue(client.close(5, TimeUnit.SECONDS));
+
+        assertEquals(20, received.size());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(received.get(i).contains("\"id\":\"" + BASE_IRI + "/users/" + i + "\""));
+        }
+        assertEquals(20, client.getStatistics().getMeasures().getCount());
+        assertEquals(20, client.getStatistics().getSuccessful().getCount());
+        assertEquals(20, sent.get());
+    }
+
+    @Test
+    public void countsUnacknowledgedFramesAsFailed() throws Exception {
+        acknowledge = false;
+        SocketClient client = SocketClient.create("socket", SocketClientOptions.builder()
+            .address(server.getLocalSocketAddress())
+            .build());
+        final List<Envelope> failed = Collections.synchronizedList(new ArrayList<Envelope>());
+        client.getListeners().add(new SendListener() {
+            @Override
+            public void onFailed(String source, Envelope envelope, Throwable cause) {
+                failed.add(envelope);
+            }
+        });
+
+        Envelope first = envelope(0, 1);
+        Envelope second = envelope(1, 1);
+        client.send(first);
+        client.send(second);
+        assertFalse(client.flush(200, TimeUnit.MILLISECONDS));
+        assertFalse(client.close(0, TimeUnit.MILLISECONDS));
+
+        assertEquals(0, client.getStatistics().getSuccessful().getCount());
+        assertEquals(2, client.getStatistics().getFailed().getCount());
+        assertEquals(2, failed.size());
+        assertSame(first, failed.get(0));
+        assertSame(second, failed.get(1));
+    }
+
+    /**
+     * Read frames, acknowledging after every fifth frame and whenever the client pauses.
+     */
+    private void collect() {
+        try (Socket socket = server.accept()) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            long count = 0;
+            while (true) {
+                byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                received.add(new String(frame, StandardCharsets.UTF_8));
+                count++;
+                if (acknowledge && (count % 5 == 0 || in.available() == 0)) {
+                    out.writeLong(count);
+                    out.flush();
+                }
+            }
+        } catch (EOFException e) {
+            // client closed the connection
+        } catch (IOException e) {
+            // server closed
+        }
+    }
+}
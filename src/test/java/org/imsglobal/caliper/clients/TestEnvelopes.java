@@ -0,0 +1,50 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.clients;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test fixtures shared by the client tests.
+ */
+public class TestEnvelopes {
+    public static final String BASE_IRI = "https://example.edu";
+
+    /**
+     * Create an Envelope holding Persons with consecutive user ids, so that tests can check the order
+     * in which items are delivered.
+     * @param first user id of the first Person
+     * @param count number of Persons
+     * @return Envelope
+     */
+    public static Envelope envelope(int first, int count) {
+        List<CaliperSendable> data = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            data.add(Person.builder().id(BASE_IRI + "/users/" + i).build());
+        }
+        return new Envelope(BASE_IRI + "/sensors/1", DateTime.now(), Config.DATA_VERSION, data);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.databind;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.resource.VideoObject;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class ParallelEnvelopeWriterTest {
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Test
+    public void parallelOutputMatchesSerialOutput() throws Exception {
+        List<CaliperSendable> data = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            data.add(MediaEvent.builder()
+                .id("urn:uuid:" + i)
+                .actor(Person.builder().id(BASE_IRI.concat("/users/" + i)).build())
+                .action(Action.STARTED)
+                .object(VideoObject.builder().id(BASE_IRI.concat("/videos/été")).build())
+                .eventTime(new DateTime(2016, 11, 15, 10, 15, 0, 0, DateTimeZone.UTC))
+                .build());
+        }
+        data.add(new RawJson("{\"id\":\"urn:uuid:raw\"}"));
+        Envelope envelope = new Envelope(BASE_IRI.concat("/sensors/1"),
+            new DateTime(2016, 11, 15, 10, 16, 0, 0, DateTimeZone.UTC), Config.DATA_VERSION, data);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelEnvelopeWriter writer = ParallelEnvelopeWriter.create(10, pool);
+            assertEquals(CaliperObjectMapper.writer().writeValueAsString(envelope), writer.writeValueAsString(envelope));
+            assertArrayEquals(CaliperObjectMapper.writer().writeValueAsBytes(envelope), writer.writeValueAsBytes(envelope));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
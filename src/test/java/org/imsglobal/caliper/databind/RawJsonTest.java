@@ -0,0 +1,107 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.databind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import org.imsglobal.caliper.TestUtils;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.session.LtiSession;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class RawJsonTest {
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validatedRejectsMalformedValue() {
+        RawJson.validated("{\"roles\": [\"Learner\"}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validatedRejectsTrailingContent() {
+        RawJson.validated("{\"roles\": [\"Learner\"]} {}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void extensionsRejectUnvalidatedMalformedValue() {
+        LtiSession.builder()
+            .id(BASE_IRI.concat("/lti/sessions/b533eb02823f31024e6b7f53436c42fb99b31241"))
+            .extensions(new RawJson("{\"job\": {\"id\": \"08c1233d\"}"));
+    }
+
+    @Test
+    public void preEncodedValuesAreSplicedVerbatim() throws Exception {
+        Map<String, Object> claims = ImmutableMap.<String, Object>of(
+            "https://purl.imsglobal.org/spec/lti/claim/message_type", "LtiResourceLinkRequest",
+            "https://purl.imsglobal.org/spec/lti/claim/roles", new String[] {"Learner"});
+        Map<String, Object> extensions = ImmutableMap.<String, Object>of("job", ImmutableMap.of("id", "08c1233d"));
+
+        LtiSession mapped = LtiSession.builder()
+            .id(BASE_IRI.concat("/lti/sessions/b533eb02823f31024e6b7f53436c42fb99b31241"))
+            .user(Person.builder().id(BASE_IRI.concat("/users/554433")).coercedToId(true).build())
+            .messageParameters(claims)
+            .extensions(extensions)
+            .build();
+        LtiSession raw = LtiSession.builder()
+            .id(BASE_IRI.concat("/lti/sessions/b533eb02823f31024e6b7f53436c42fb99b31241"))
+            .user(Person.builder().id(BASE_IRI.concat("/users/554433")).coercedToId(true).build())
+            .messageParameters(RawJson.of(claims))
+            .extensions(RawJson.validated("{\"job\": {\"id\": \"08c1233d\"}}"))
+            .build();
+
+        ObjectMapper mapper = TestUtils.createCaliperObjectMapper();
+        JSONAssert.assertEquals(mapper.writeValueAsString(mapped), mapper.writeValueAsString(raw),
+            JSONCompareMode.STRICT);
+        assertEquals(extensions, raw.getExtensions());
+    }
+
+    @Test
+    public void emptyObjectIsOmittedLikeEmptyMap() throws Exception {
+        LtiSession mapped = LtiSession.builder()
+            .id(BASE_IRI.concat("/lti/sessions/b533eb02823f31024e6b7f53436c42fb99b31241"))
+            .extensions(ImmutableMap.<String, Object>of())
+            .build();
+        LtiSession raw = LtiSession.builder()
+            .id(BASE_IRI.concat("/lti/sessions/b533eb02823f31024e6b7f53436c42fb99b31241"))
+            .extensions(RawJson.validated(" { } "))
+            .build();
+
+        ObjectMapper mapper = TestUtils.createCaliperObjectMapper();
+        JSONAssert.assertEquals(mapper.writeValueAsString(mapped), mapper.writeValueAsString(raw),
+            JSONCompareMode.STRICT);
+    }
+
+    @Test
+    public void extensionsAreParsedOnce() {
+        LtiSession raw = LtiSession.builder()
+            .id(BASE_IRI.concat("/lti/sessions/b533eb02823f31024e6b7f53436c42fb99b31241"))
+            .extensions(RawJson.validated("{\"job\": {\"id\": \"08c1233d\"}}"))
+            .build();
+        assertSame(raw.getExtensions(), raw.getExtensions());
+    }
+}
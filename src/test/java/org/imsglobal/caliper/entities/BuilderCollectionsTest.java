@@ -0,0 +1,68 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.entities;
+
+import com.google.common.collect.ImmutableList;
+import org.imsglobal.caliper.context.JsonldStringContext;
+import org.imsglobal.caliper.entities.agent.CaliperAgent;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.resource.Document;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class BuilderCollectionsTest {
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Test
+    public void unsetCollectionsShareEmptyImmutables() {
+        Document document = Document.builder().id(BASE_IRI.concat("/docs/1")).build();
+
+        assertSame(ImmutableList.of(), document.getCreators());
+        assertSame(ImmutableList.of(), document.getKeywords());
+        assertSame(ImmutableList.of(), document.getLearningObjectives());
+    }
+
+    @Test
+    public void immutableCollectionsAreNotCopied() {
+        Person author = Person.builder().id(BASE_IRI.concat("/users/1")).build();
+        Person editor = Person.builder().id(BASE_IRI.concat("/users/2")).build();
+        ImmutableList<String> keywords = ImmutableList.of("caliper", "analytics");
+
+        Document document = Document.builder()
+            .id(BASE_IRI.concat("/docs/1"))
+            .keywords(keywords)
+            .creator(author)
+            .creators(ImmutableList.<CaliperAgent>of(editor))
+            .build();
+
+        assertSame(keywords, document.getKeywords());
+        assertEquals(2, document.getCreators().size());
+        assertSame(author, document.getCreators().get(0));
+        assertSame(editor, document.getCreators().get(1));
+    }
+
+    @Test
+    public void defaultContextIsShared() {
+        assertSame(JsonldStringContext.getDefault(), JsonldStringContext.getDefault());
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.entities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.imsglobal.caliper.TestUtils;
+import org.imsglobal.caliper.entities.agent.Membership;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class IriPoolTest {
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() {
+        IriPool.getGlobal().enable(2);
+    }
+
+    @After
+    public void tearDown() {
+        IriPool.getGlobal().disable();
+    }
+
+    @Test
+    public void identifiersBuiltPerEventAreShared() {
+        Person first = Person.builder().id(BASE_IRI.concat("/users/554433")).build();
+        Person second = Person.builder().id(BASE_IRI.concat("/users/554433")).build();
+
+        assertSame(first.getId(), second.getId());
+
+        IriPool.getGlobal().disable();
+        Person third = Person.builder().id(BASE_IRI.concat("/users/554433")).build();
+        assertNotSame(first.getId(), third.getId());
+    }
+
+    @Test
+    public void pooledIdentifiersSerializeUnchanged() throws Exception {
+        String iri = BASE_IRI.concat("/terms/201601/courses/7/sections/1/rosters/\"1\"");
+        Person member = Person.builder().id(BASE_IRI.concat("/users/554433")).coercedToId(true).build();
+        Membership membership = Membership.builder().id(iri).member(member).build();
+
+        ObjectMapper mapper = TestUtils.createCaliperObjectMapper();
+        String pooled = mapper.writeValueAsString(membership);
+        IriPool.getGlobal().disable();
+
+        assertEquals(mapper.writeValueAsString(membership), pooled);
+        assertEquals(2, pooled.split("example.edu").length - 1);
+    }
+}
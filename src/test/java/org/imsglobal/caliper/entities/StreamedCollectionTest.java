@@ -0,0 +1,88 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.entities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.imsglobal.caliper.TestUtils;
+import org.imsglobal.caliper.context.JsonldStringContext;
+import org.imsglobal.caliper.entities.agent.CaliperAgent;
+import org.imsglobal.caliper.entities.agent.CourseSection;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.resource.CaliperDigitalResource;
+import org.imsglobal.caliper.entities.resource.DigitalResourceCollection;
+import org.imsglobal.caliper.entities.resource.Document;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class StreamedCollectionTest {
+    private static final String BASE_IRI = "https://example.edu";
+    private static final String SECTION_IRI = BASE_IRI.concat("/terms/201601/courses/7/sections/1");
+
+    @Test
+    public void streamedItemsSerializeLikeListedItems() throws Exception {
+        List<CaliperDigitalResource> documents = Lists.newArrayList();
+        for (int i = 0; i < 3; i++) {
+            documents.add(Document.builder().id(SECTION_IRI.concat("/resources/" + i)).build());
+        }
+
+        DigitalResourceCollection listed = DigitalResourceCollection.builder()
+            .context(JsonldStringContext.getDefault())
+            .id(SECTION_IRI.concat("/resources"))
+            .items(documents)
+            .build();
+
+        AtomicInteger traversals = new AtomicInteger();
+        DigitalResourceCollection streamed = DigitalResourceCollection.builder()
+            .context(JsonldStringContext.getDefault())
+            .id(SECTION_IRI.concat("/resources"))
+            .items(StreamedCollection.<CaliperDigitalResource>supplied(documents.size(), () -> {
+                traversals.incrementAndGet();
+                return documents;
+            }))
+            .build();
+
+        ObjectMapper mapper = TestUtils.createCaliperObjectMapper();
+        JSONAssert.assertEquals(mapper.writeValueAsString(listed), mapper.writeValueAsString(streamed),
+            JSONCompareMode.STRICT);
+        assertEquals(1, traversals.get());
+        assertEquals(listed.getItems(), streamed.getItems());
+    }
+
+    @Test
+    public void emptyStreamedMembersAreOmitted() throws Exception {
+        CourseSection section = CourseSection.builder()
+            .id(SECTION_IRI)
+            .members(StreamedCollection.<CaliperAgent>of(0, ImmutableList.<Person>of()))
+            .build();
+
+        String json = TestUtils.createCaliperObjectMapper().writeValueAsString(section);
+        assertFalse(json.contains("members"));
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.filters;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.actions.Action;
+import org.imsglobal.caliper.clients.RecordingClient;
+import org.imsglobal.caliper.config.Config;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.imsglobal.caliper.entities.agent.SoftwareApplication;
+import org.imsglobal.caliper.entities.resource.VideoObject;
+import org.imsglobal.caliper.events.CaliperEvent;
+import org.imsglobal.caliper.events.EventType;
+import org.imsglobal.caliper.events.MediaEvent;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class EventFilterTest {
+    private Sensor sensor;
+    private RecordingClient client;
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Before
+    public void setUp() throws Exception {
+        sensor = Sensor.create(BASE_IRI + "/sensors/1");
+        client = new RecordingClient("default");
+        sensor.registerClient(client);
+    }
+
+    @Test
+    public void dropsMatchingEventsBeforeSend() throws Exception {
+        sensor.setFilter(EventFilter.builder()
+            .rule(FilterRule.builder().eventType(EventType.MEDIA).action(Action.CHANGED_VOLUME).drop().build())
+            .rule(FilterRule.builder().edApp(BASE_IRI + "/noisy").drop().build())
+            .build());
+
+        List<CaliperSendable> data = new ArrayList<>();
+        data.add(event(1, Action.STARTED, BASE_IRI + "/player"));
+        data.add(event(1, Action.CHANGED_VOLUME, BASE_IRI + "/player"));
+        data.add(event(1, Action.PAUSED, BASE_IRI + "/noisy"));
+        sensor.send(envelope(data));
+
+        assertEquals(1, client.getEnvelopes().size());
+        assertEquals(1, client.getEnvelopes().get(0).getData().size());
+        assertEquals(Action.STARTED, ((CaliperEvent) client.getEnvelopes().get(0).getData().get(0)).getAction());
+        assertEquals(2, sensor.getSensorStatistics().getFiltered().getCount());
+
+        List<CaliperSendable> dropped = new ArrayList<>();
+        dropped.add(event(1, Action.CHANGED_VOLUME, BASE_IRI + "/player"));
+        sensor.send(envelope(dropped));
+        assertEquals(1, client.getEnvelopes().size());
+    }
+
+    @Test
+    public void samplesByActorDeterministically() throws Exception {
+        EventFilter filter = EventFilter.builder()
+            .rule(FilterRule.builder().eventType(EventType.MEDIA).sampleByActor(0.5).build())
+            .build();
+
+        Set<String> kept = new HashSet<>();
+        for (int actor = 0; actor < 200; actor++) {
+            boolean accepted = filter.accept(event(actor, Action.STARTED, BASE_IRI + "/player"));
+            assertEquals(accepted, filter.accept(event(actor, Action.PAUSED, BASE_IRI + "/player")));
+            if (accepted) {
+                kept.add(BASE_IRI + "/users/" + actor);
+            }
+        }
+        assertTrue(kept.size() > 60 && kept.size() < 140);
+        assertFalse(EventFilter.builder()
+            .rule(FilterRule.builder().sample(0.0).build())
+            .build()
+            .accept(event(1, Action.STARTED, BASE_IRI + "/player")));
+    }
+
+    private MediaEvent event(int actor, Action action, String edApp) {
+        return MediaEvent.builder()
+            .id("urn:id:" + actor + ":" + action.value())
+            .actor(Person.builder().id(BASE_IRI + "/users/" + actor).build())
+            .action(action)
+            .object(VideoObject.builder().id(BASE_IRI + "/videos/1").build())
+            .eventTime(DateTime.now())
+            .edApp(SoftwareApplication.builder().id(edApp).build())
+            .build();
+    }
+
+    private Envelope envelope(List<CaliperSendable> data) {
+        return new Envelope(BASE_IRI + "/sensors/1", DateTime.now(), Config.DATA_VERSION, data);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.listeners;
+
+import org.imsglobal.caliper.Envelope;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.clients.BatchingClient;
+import org.imsglobal.caliper.clients.BatchingOptions;
+import org.imsglobal.caliper.clients.FileClient;
+import org.imsglobal.caliper.clients.FileClientOptions;
+import org.imsglobal.caliper.clients.RecordingClient;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.imsglobal.caliper.clients.TestEnvelopes.envelope;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class SendListenersTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Test
+    public void reportsEachStageAndIgnoresFailingListeners() throws Exception {
+        FileClient file = FileClient.create("file", FileClientOptions.builder().directory(folder.getRoot()).build());
+        BatchingClient client = BatchingClient.create(file, BatchingOptions.builder()
+            .initialBatchSize(100)
+            .initialLinger(1000)
+            .build());
+        Sensor sensor = Sensor.create(BASE_IRI + "/sensors/1");
+        sensor.registerClient(client);
+
+        final List<String> calls = Collections.synchronizedList(new ArrayList<String>());
+        SendListener failing = new SendListener() {
+            @Override
+            public void onAccepted(String source, Envelope envelope) {
+                throw new IllegalStateException("listener failure");
+            }
+
+            @Override
+            public void onBatched(String source, Envelope batch) {
+                throw new IllegalStateException("listener failure");
+            }
+        };
+        SendListener recording = new SendListener() {
+            @Override
+            public void onAccepted(String source, Envelope envelope) {
+                calls.add("accepted " + source);
+            }
+
+            @Override
+            public void onEnqueued(String source, Envelope envelope) {
+                calls.add("enqueued " + source);
+            }
+
+            @Override
+            public void onBatched(String source, Envelope batch) {
+                calls.add("batched " + batch.getData().size());
+            }
+
+            @Override
+            public void onSent(String source, Envelope envelope, int statusCode, long latency) {
+                calls.add("sent " + source + " " + envelope.getData().size());
+            }
+        };
+        sensor.getListeners().add(failing);
+        sensor.getListeners().add(recording);
+        client.getListeners().add(failing);
+        client.getListeners().add(recording);
+        assertEquals(2, file.getListeners().getListeners().size());
+
+        sensor.send(envelope(0, 2));
+        sensor.send(envelope(2, 3));
+        assertTrue(sensor.flush(5, TimeUnit.SECONDS));
+
+        assertEquals(6, calls.size());
+        assertEquals("accepted " + BASE_IRI + "/sensors/1", calls.get(0));
+        assertEquals("enqueued file", calls.get(1));
+        assertEquals("batched 5", calls.get(4));
+        assertEquals("sent file 5", calls.get(5));
+        assertTrue(sensor.close(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void registrationIsCopyOnWrite() throws Exception {
+        SendListeners listeners = new SendListeners();
+        assertTrue(listeners.isEmpty());
+
+        SendListener listener = new SendListener() { };
+        listeners.add(listener);
+        List<SendListener> registered = listeners.getListeners();
+        assertTrue(listeners.remove(listener));
+        assertFalse(listeners.remove(listener));
+        assertTrue(listeners.isEmpty());
+        assertEquals(1, registered.size());
+
+        try {
+            new RecordingClient("default").getListeners().add(listener);
+            fail("Expected listeners to be unsupported");
+        } catch (UnsupportedOperationException expected) {
+            assertTrue(SendListeners.NONE.isEmpty());
+        }
+    }
+}
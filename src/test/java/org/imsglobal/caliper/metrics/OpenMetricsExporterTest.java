@@ -0,0 +1,106 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.clients.MemoryBudget;
+import org.imsglobal.caliper.clients.RecordingClient;
+import org.imsglobal.caliper.statistics.Statistics;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class OpenMetricsExporterTest {
+
+    private static final String BASE_IRI = "https://example.edu";
+
+    @Test
+    public void rendersCountersHistogramsAndGauges() throws Exception {
+        Sensor sensor = Sensor.create(BASE_IRI + "/sensors/1");
+        RecordingClient client = new RecordingClient("default");
+        sensor.registerClient(client);
+        client.getStatistics().updateSuccessful(1);
+        client.getStatistics().updateSuccessful(1);
+        client.getStatistics().updateCircuitHalfOpened(1);
+        client.getStatistics().updateLatency(3);
+        client.getStatistics().updateLatency(100);
+        client.getStatistics().updateBatchSize(20);
+        client.getStatistics().updateBatchSize(40);
+
+        Statistics endpoint = new Statistics();
+        endpoint.updateFailed(1);
+        MemoryBudget budget = MemoryBudget.create(1024);
+        budget.reserve(100);
+
+        String text = OpenMetricsExporter.create()
+            .addSensor(sensor)
+            .addStatistics(ImmutableMap.of("endpoint", "https://a.example.edu/\"q\""), endpoint)
+            .addMemoryBudget("global", budget)
+            .scrape();
+
+        String labels = "sensor=\"" + BASE_IRI + "/sensors/1\",client=\"default\"";
+        assertTrue(text.contains("# TYPE caliper_successful counter\n"));
+        assertTrue(text.contains("caliper_successful_total{" + labels + "} 2\n"));
+        assertTrue(text.contains("caliper_circuit_half_opened_total{" + labels + "} 1\n"));
+        assertTrue(text.contains("# TYPE caliper_latency histogram\n"));
+        assertTrue(text.contains("caliper_latency_bucket{" + labels + ",le=\"4\"} 1\n"));
+        assertTrue(text.contains("caliper_latency_bucket{" + labels + ",le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("caliper_latency_sum{" + labels + "} 103\n"));
+        assertTrue(text.contains("# TYPE caliper_batch_size_last gauge\n"));
+        assertTrue(text.contains("caliper_batch_size_last{" + labels + "} 40\n"));
+        assertFalse(text.contains("caliper_batch_size_total"));
+        assertTrue(text.contains("caliper_successful_rate{" + labels + ",window=\"5m\"} "));
+        assertTrue(text.contains("caliper_failed_total{endpoint=\"https://a.example.edu/\\\"q\\\"\"} 1\n"));
+        assertTrue(text.contains("caliper_memory_budget_used_bytes{budget=\"global\"} 100\n"));
+        assertTrue(text.endsWith("# EOF\n"));
+        assertEquals(text.indexOf("# TYPE caliper_failed "), text.lastIndexOf("# TYPE caliper_failed "));
+    }
+
+    @Test
+    public void servesMetricsOverHttp() throws Exception {
+        Statistics statistics = new Statistics();
+        statistics.updateMeasures(1);
+        OpenMetricsExporter exporter = OpenMetricsExporter.create()
+            .addStatistics(ImmutableMap.of("client", "default"), statistics);
+
+        MetricsServer server = MetricsServer.start(new InetSocketAddress("127.0.0.1", 0), exporter);
+        try {
+            URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + MetricsServer.PATH);
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            assertEquals(200, conn.getResponseCode());
+            assertEquals(OpenMetricsExporter.CONTENT_TYPE, conn.getContentType());
+            String body = CharStreams.toString(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
+            assertTrue(body.contains("caliper_measure_total{client=\"default\"} 1\n"));
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.reactive;
+
+import org.imsglobal.caliper.CaliperSendable;
+import org.imsglobal.caliper.Sensor;
+import org.imsglobal.caliper.clients.RecordingClient;
+import org.imsglobal.caliper.entities.agent.Person;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class SensorSubscriberTest {
+    private static final String BASE_IRI = "https://example.edu";
+
+    private Sensor sensor;
+    private RecordingClient client;
+
+    @Before
+    public void setUp() {
+        sensor = Sensor.create(BASE_IRI.concat("/sensors/1"));
+        client = new RecordingClient("recording");
+        sensor.registerClient(client);
+    }
+
+    @Test
+    public void requestsNoMoreThanInFlightCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            SensorSubscriber subscriber = sensor.subscriber(SubscriberOptions.builder()
+                .maxEnvelopeItems(5)
+                .maxInFlight(2)
+                .executor(executor)
+                .build());
+            ResultCollector collector = new ResultCollector();
+            subscriber.getResults().subscribe(collector);
+
+            ItemPublisher publisher = new ItemPublisher(23);
+            publisher.subscribe(subscriber);
+
+            assertTrue(collector.awaitTermination());
+            assertEquals(5, collector.results.size());
+            assertEquals(23, countItems(collector.results));
+            assertEquals(5, client.getEnvelopes().size());
+            assertTrue(publisher.maxOutstanding <= 10);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void publishesFailedDeliveries() throws Exception {
+        client.failWith(503);
+        SensorSubscriber subscriber = sensor.subscriber(SubscriberOptions.builder().build());
+        ResultCollector collector = new ResultCollector();
+        subscriber.getResults().subscribe(collector);
+
+        new ItemPublisher(3).subscribe(subscriber);
+
+        assertTrue(collector.awaitTermination());
+        assertEquals(3, collector.results.size());
+        for (DeliveryResult result : collector.results) {
+            assertFalse(result.isDelivered());
+        }
+    }
+
+    @Test
+    public void sendsLingeringPartialEnvelope() throws Exception {
+        SensorSubscriber subscriber = sensor.subscriber(SubscriberOptions.builder()
+            .maxEnvelopeItems(5)
+            .maxInFlight(1)
+            .maxLinger(50)
+            .build());
+        final List<Long> requests = new CopyOnWriteArrayList<>();
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                requests.add(n);
+            }
+
+            @Override
+            public void cancel() {
+
+            }
+        });
+        subscriber.onNext(Person.builder().id(BASE_IRI.concat("/users/1")).build());
+        subscriber.onNext(Person.builder().id(BASE_IRI.concat("/users/2")).build());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, client.getEnvelopes().size());
+        assertEquals(2, client.getEnvelopes().get(0).getData().size());
+        assertEquals(Arrays.asList(5L, 2L), requests);
+    }
+
+    private static int countItems(List<DeliveryResult> results) {
+        int count = 0;
+        for (DeliveryResult result : results) {
+            count += result.getEnvelope().getData().size();
+        }
+        return count;
+    }
+
+    /**
+     * Publishes Person entities as requested, tracking the largest outstanding demand.
+     */
+    private static class ItemPublisher implements Publisher<CaliperSendable> {
+        private final int count;
+        private int emitted;
+        private long requested;
+        private boolean emitting;
+        private volatile long maxOutstanding;
+
+        private ItemPublisher(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public void subscribe(final Subscriber<? super CaliperSendable> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    synchronized (ItemPublisher.this) {
+                        requested += n;
+                        maxOutstanding = Math.max(maxOutstanding, requested);
+                        if (emitting) {
+                            return;
+                        }
+                        emitting = true;
+                    }
+                    while (true) {
+                        synchronized (ItemPublisher.this) {
+                            if (emitted == count) {
+                                break;
+                            }
+                            if (requested == 0) {
+                                emitting = false;
+                                return;
+                            }
+                            requested--;
+                            emitted++;
+                        }
+                        subscriber.onNext(Person.builder().id(BASE_IRI.concat("/users/" + emitted)).build());
+                    }
+                    subscriber.onComplete();
+                }
+
+                @Override
+                public void cancel() {
+
+                }
+            });
+        }
+    }
+
+    /**
+     * Requests all delivery results.
+     */
+    private static class ResultCollector implements Subscriber<DeliveryResult> {
+        private final List<DeliveryResult> results = new ArrayList<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public synchronized void onNext(DeliveryResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            terminated.countDown();
+        }
+
+        private boolean awaitTermination() throws InterruptedException {
+            return terminated.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
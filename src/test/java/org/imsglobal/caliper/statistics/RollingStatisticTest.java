@@ -0,0 +1,115 @@
+/**
+ * This file is part of IMS Caliper Analytics™ and is licensed to
+ * IMS Global Learning Consortium, Inc. (http://www.imsglobal.org)
+ * under one or more contributor license agreements.  See the NOTICE
+ * file distributed with this work for additional information.
+ *
+ * IMS Caliper is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation, version 3 of the License.
+ *
+ * IMS Caliper is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along
+ * with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.imsglobal.caliper.statistics;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(org.imsglobal.caliper.UnitTest.class)
+public class RollingStatisticTest {
+
+    @Test
+    public void aggregatesWindowsAndPercentiles() throws Exception {
+        RollingStatistic statistic = new RollingStatistic(true);
+        for (int i = 1; i <= 100; i++) {
+            statistic.update(i);
+        }
+
+        RollingStatistic.Snapshot snapshot = statistic.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5050, snapshot.getSum(), 0.0);
+        for (int minutes : RollingStatistic.WINDOWS) {
+            RollingStatistic.Window window = snapshot.getWindow(minutes);
+            assertEquals(100, window.getCount());
+            assertEquals(1, window.getMin(), 0.0);
+            assertEquals(100, window.getMax(), 0.0);
+            assertEquals(50.5, window.getAverage(), 0.0);
+            assertTrue(window.getRate() > 0);
+        }
+
+        double p50 = snapshot.getWindow(1).getPercentile(50);
+        assertTrue(p50 >= 50 && p50 <= 64);
+        assertEquals(100, snapshot.getWindow(1).getPercentile(100), 0.0);
+    }
+
+    @Test
+    public void snapshotAndResetLosesNoUpdates() throws Exception {
+        final RollingStatistic statistic = new RollingStatistic(false);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final long[] written = new long[4];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < written.length; t++) {
+            final int index = t;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (running.get()) {
+                        statistic.update(1);
+                        written[index]++;
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long reported = 0;
+        for (int i = 0; i < 50; i++) {
+            reported += statistic.snapshotAndReset().getCount();
+            Thread.sleep(2);
+        }
+        running.set(false);
+        long total = 0;
+        for (int t = 0; t < threads.size(); t++) {
+            threads.get(t).join();
+            total += written[t];
+        }
+        reported += statistic.snapshotAndReset().getCount();
+        assertEquals(total, reported);
+    }
+
+    @Test
+    public void statisticsResolveHandlesAndSumValues() throws Exception {
+        Statistics statistics = new Statistics();
+        statistics.updateLatency(20);
+        statistics.updateLatency(40);
+
+        assertEquals(60, statistics.getLatency().getSum(), 0.0);
+        RollingStatistic latency = statistics.getRolling().get("Latency");
+        assertTrue(latency.hasHistogram());
+        assertEquals(2, latency.snapshot().getWindow(5).getCount());
+
+        statistics.reset();
+        assertEquals(0, statistics.getLatency().getCount());
+        statistics.updateLatency(10);
+        assertEquals(1, statistics.getLatency().getCount());
+
+        statistics.clear();
+        assertTrue(statistics.isEmpty());
+        statistics.updateLatency(10);
+        assertEquals(1, statistics.getLatency().getCount());
+    }
+}